@@ -0,0 +1,11 @@
+@echo off
+rem Lanzador con AppCDS: usa hl7-client.jsa si existe (generado con mvn -Pappcds package).
+set DIR=%~dp0
+set JAR=%DIR%${project.build.finalName}.jar
+set JSA=%DIR%hl7-client.jsa
+
+if exist "%JSA%" (
+    start "" javaw -Xshare:auto -XX:SharedArchiveFile="%JSA%" -jar "%JAR%" %*
+) else (
+    start "" javaw -jar "%JAR%" %*
+)
@@ -0,0 +1,11 @@
+#!/bin/sh
+# Lanzador con AppCDS: usa hl7-client.jsa si existe (generado con mvn -Pappcds package).
+# -Xshare:auto: si el archivo no corresponde a esta JVM/jar, arranca igual sin él.
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/${project.build.finalName}.jar"
+JSA="$DIR/hl7-client.jsa"
+
+if [ -f "$JSA" ]; then
+    exec java -Xshare:auto -XX:SharedArchiveFile="$JSA" -jar "$JAR" "$@"
+fi
+exec java -jar "$JAR" "$@"
@@ -0,0 +1,32 @@
+#!/bin/sh
+# Benchmark de arranque antes/después de AppCDS.
+# Ejecuta la corrida guionada (StartupTraining, contra el stub local) N veces sin y con
+# el archivo CDS e imprime, por corrida, el acumulado hasta el login y hasta la primera
+# transacción (ms desde el inicio de la JVM).
+#
+#   ./startup-benchmark.sh [corridas]
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/${project.build.finalName}.jar"
+JSA="$DIR/hl7-client.jsa"
+RUNS=${1:-5}
+
+run() {
+    label=$1
+    shift
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        java -Djava.awt.headless=true "$@" -cp "$JAR" com.hl7client.tools.StartupTraining 2>/dev/null \
+            | awk -v label="$label" -v run="$i" '
+                /^  login /       { login = $NF; sub(/\)/, "", login) }
+                /^  primera /     { first = $NF; sub(/\)/, "", first) }
+                END { printf "%-8s corrida %d  login %6s ms  primera transacción %6s ms\n", label, run, login, first }'
+        i=$((i + 1))
+    done
+}
+
+run "sin CDS"
+if [ -f "$JSA" ]; then
+    run "con CDS" -Xshare:auto -XX:SharedArchiveFile="$JSA"
+else
+    echo "No se encontró $JSA (mvn -Pappcds package)"
+fi
@@ -0,0 +1,158 @@
+package com.hl7client.tools;
+
+import com.hl7client.client.ApiClient;
+import com.hl7client.client.TransactionExecutors;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
+import com.hl7client.model.result.Hl7Result;
+import com.hl7client.service.AuthService;
+import com.hl7client.service.Hl7Service;
+import com.hl7client.util.PropertiesUtil;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Benchmark de executors para transacciones HL7 bloqueantes: N consultas de elegibilidad
+ * contra {@link Hl7StubServer} (con latencia simulada) y un pool HTTP del tamaño de la
+ * concurrencia pedida, ejecutadas sobre:
+ * <ul>
+ *   <li>un pool fijo de plataforma con un hilo por llamada concurrente</li>
+ *   <li>{@link TransactionExecutors} en modo {@code PLATFORM} (pool acotado)</li>
+ *   <li>{@link TransactionExecutors} en modo {@code VIRTUAL} (solo JDK 21+)</li>
+ * </ul>
+ * Imprime tiempo total, throughput y pico de hilos de plataforma creados durante la corrida
+ * (de todo el proceso: incluye los hilos del stub que atienden las conexiones nuevas).
+ * <pre>
+ *   java -cp hl7-bench.jar com.hl7client.tools.ExecutorBenchmark [llamadas] [concurrencia] [latenciaMs]
+ * </pre>
+ */
+public final class ExecutorBenchmark {
+
+    private ExecutorBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+
+        PrintStream console = System.out;
+        // ApiClient vuelca cada request/response a stdout: se descarta durante las corridas
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        Logger.getLogger("").setLevel(Level.WARNING);
+
+        // El HttpServer del JDK cierra conexiones ociosas por encima de este tope (200 por defecto)
+        // y el pool HTTP del cliente las reusaría cerradas
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(concurrency * 2 + 16));
+        // Se mide el executor, no la cuota del backend ni la cola por prioridad
+        System.setProperty("hl7.ratelimit.enabled", "false");
+        System.setProperty("hl7.dispatch.enabled", "false");
+        PropertiesUtil.reload();
+
+        try (Hl7StubServer stub = Hl7StubServer.start(0)) {
+            // Apunta DEV al stub (y recarga la configuración) antes de autenticarse
+            AuthService auth = StubScenario.login(stub);
+            stub.setLatencyMillis(latencyMillis);
+
+            CloseableHttpClient http = ApiClient.pooledHttpClient(concurrency);
+            Hl7Service service = new Hl7Service(new ApiClient(auth, auth.getSession(), http));
+
+            console.printf("%d llamadas, concurrencia %d, latencia %d ms, Java %s (hilos virtuales: %s)%n",
+                    calls, concurrency, latencyMillis, System.getProperty("java.version"),
+                    TransactionExecutors.isVirtualAvailable() ? "sí" : "no");
+
+            List<Scenario> scenarios = new ArrayList<>();
+            scenarios.add(new Scenario("plataforma, pool fijo",
+                    c -> Executors.newFixedThreadPool(c)));
+            scenarios.add(new Scenario("plataforma, acotado",
+                    c -> TransactionExecutors.newExecutor(TransactionExecutors.Mode.PLATFORM, "bench", c)));
+            if (TransactionExecutors.isVirtualAvailable()) {
+                scenarios.add(new Scenario("virtual",
+                        c -> TransactionExecutors.newExecutor(TransactionExecutors.Mode.VIRTUAL, "bench", c)));
+            }
+
+            // Calentamiento (JIT, conexiones, hilos del stub)
+            for (Scenario s : scenarios) {
+                s.run(service, Math.min(calls, concurrency * 2), concurrency);
+            }
+            for (Scenario s : scenarios) {
+                console.println(s.run(service, calls, concurrency));
+            }
+
+            auth.logout();
+            http.close();
+        } finally {
+            System.setOut(console);
+        }
+        System.exit(0);
+    }
+
+    private static final class Scenario {
+
+        private final String name;
+        private final IntFunction<ExecutorService> executor;
+
+        Scenario(String name, IntFunction<ExecutorService> executor) {
+            this.name = name;
+            this.executor = executor;
+        }
+
+        String run(Hl7Service service, int calls, int concurrency) throws Exception {
+            ElegibilidadRequest request = ElegibilidadRequest.builder()
+                    .modo("N")
+                    .creden("1234567890123456")
+                    .build();
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            int before = threads.getThreadCount();
+            threads.resetPeakThreadCount();
+
+            ExecutorService pool = executor.apply(concurrency);
+            long start = System.nanoTime();
+            int errors = 0;
+            try {
+                List<Future<Hl7Result<ElegibilidadResponse>>> futures = new ArrayList<>(calls);
+                for (int i = 0; i < calls; i++) {
+                    futures.add(pool.submit(() -> service.consultarElegibilidad(request)));
+                }
+                for (Future<Hl7Result<ElegibilidadResponse>> f : futures) {
+                    if (!f.get().isOk()) {
+                        errors++;
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            int peak = threads.getPeakThreadCount() - before;
+
+            // Que los hilos de esta corrida no cuenten en la siguiente
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+
+            return String.format("  %-22s %6d ms  %8.0f llamadas/s  pico +%4d hilos de plataforma  errores %d",
+                    name, elapsedMillis, calls * 1000.0 / Math.max(1, elapsedMillis),
+                    peak, errors);
+        }
+    }
+}
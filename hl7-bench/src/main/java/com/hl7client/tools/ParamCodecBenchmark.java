@@ -0,0 +1,215 @@
+package com.hl7client.tools;
+
+import com.hl7client.model.benefit.BenefitItem;
+import com.hl7client.model.benefit.BenefitParamDecoder;
+import com.hl7client.model.benefit.BenefitRequestMapper;
+import com.hl7client.model.benefit.MedicalBenefitItem;
+import com.hl7client.model.constants.Hl7Constants;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark de codificación de prestaciones médicas a param1..param3: {@link BenefitRequestMapper}
+ * (codificador de una pasada sobre buffer reutilizable) contra el mapper anterior (streams,
+ * {@link StringBuilder} y cortes con {@code lastIndexOf}/{@code substring}), sobre las mismas
+ * listas aleatorias que entran en una registración.
+ * <p>
+ * Imprime ns por lista y bytes asignados por lista (si la JVM lo informa), y cuenta las listas
+ * cuyos params coinciden con los del mapper anterior. También mide el camino inverso,
+ * {@link BenefitParamDecoder}, sobre los params ya codificados (listas y MB de params por segundo).
+ * <pre>
+ *   java -cp hl7-bench.jar com.hl7client.tools.ParamCodecBenchmark [listas] [rondas]
+ * </pre>
+ */
+public final class ParamCodecBenchmark {
+
+    private static final int MAX_ITEMS = 50;
+
+    private ParamCodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int lists = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<List<BenefitItem>> inputs = randomLists(lists, new Random(28));
+
+        int same = 0;
+        for (List<BenefitItem> items : inputs) {
+            String[] current = encode(items);
+            String[] legacy = LegacyMedicalMapper.encode(items);
+            if (current[0].equals(legacy[0]) && current[1].equals(legacy[1]) && current[2].equals(legacy[2])) {
+                same++;
+            }
+        }
+
+        System.out.printf("%d listas (%d..%d prestaciones), %d rondas, Java %s%n",
+                lists, 1, MAX_ITEMS, rounds, System.getProperty("java.version"));
+        System.out.printf("  params iguales al mapper anterior: %d de %d%n", same, lists);
+
+        // Calentamiento (JIT)
+        run("mapper actual", inputs, ParamCodecBenchmark::encode);
+        run("mapper anterior", inputs, LegacyMedicalMapper::encode);
+
+        for (int r = 0; r < rounds; r++) {
+            System.out.println(run("mapper actual", inputs, ParamCodecBenchmark::encode));
+            System.out.println(run("mapper anterior", inputs, LegacyMedicalMapper::encode));
+        }
+
+        List<String[]> encoded = new ArrayList<>(inputs.size());
+        for (List<BenefitItem> items : inputs) {
+            encoded.add(encode(items));
+        }
+        for (int r = 0; r < 3; r++) {
+            decode(encoded);   // calentamiento
+        }
+        for (int r = 0; r < rounds; r++) {
+            System.out.println(decode(encoded));
+        }
+    }
+
+    // ---------- Escenarios ----------
+
+    private static String[] encode(List<BenefitItem> items) {
+        RegistracionRequest request = new RegistracionRequest();
+        BenefitRequestMapper.apply(request, items);
+        return new String[]{request.getParam1(), request.getParam2(), request.getParam3()};
+    }
+
+    private static String run(String name, List<List<BenefitItem>> inputs, Encoder encoder) {
+        long allocatedBefore = Allocation.current();
+        long start = System.nanoTime();
+        int blackhole = 0;
+        for (List<BenefitItem> items : inputs) {
+            blackhole += encoder.encode(items)[0].length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = Allocation.current() - allocatedBefore;
+
+        return String.format("  %-16s %8.0f ns/lista  %8s bytes/lista  (%d)",
+                name, (double) elapsed / inputs.size(),
+                allocatedBefore < 0 ? "n/d" : String.valueOf(allocated / inputs.size()),
+                blackhole);
+    }
+
+    private static String decode(List<String[]> encoded) {
+        long chars = 0;
+        long allocatedBefore = Allocation.current();
+        long start = System.nanoTime();
+        int blackhole = 0;
+        for (String[] params : encoded) {
+            blackhole += BenefitParamDecoder.decode(params[0], params[1], params[2]).size();
+            chars += params[0].length() + params[1].length() + params[2].length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = Allocation.current() - allocatedBefore;
+
+        return String.format("  %-16s %8.0f ns/lista  %8s bytes/lista  %6.0f MB/s de params  (%d)",
+                "decodificador", (double) elapsed / encoded.size(),
+                allocatedBefore < 0 ? "n/d" : String.valueOf(allocated / encoded.size()),
+                chars * 1000.0 / Math.max(1, elapsed),
+                blackhole);
+    }
+
+    /**
+     * Listas que entran en una registración (las que no, no son comparables: el mapper
+     * anterior descartaba el cuarto fragmento).
+     */
+    private static List<List<BenefitItem>> randomLists(int count, Random random) {
+        List<List<BenefitItem>> lists = new ArrayList<>(count);
+        while (lists.size() < count) {
+            int size = 1 + random.nextInt(MAX_ITEMS);
+            List<BenefitItem> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int qty = random.nextInt(4) == 0 ? 10 + random.nextInt(90) : 1 + random.nextInt(9);
+                items.add(MedicalBenefitItem.of(qty, String.format("%06d", random.nextInt(1_000_000))));
+            }
+            try {
+                encode(items);
+                lists.add(items);
+            } catch (IllegalArgumentException e) {
+                // No entra en una registración
+            }
+        }
+        return lists;
+    }
+
+    private interface Encoder {
+        String[] encode(List<BenefitItem> items);
+    }
+
+    /**
+     * Bytes asignados por el hilo actual ({@code com.sun.management.ThreadMXBean}), o -1.
+     */
+    private static final class Allocation {
+
+        private static final java.lang.management.ThreadMXBean THREADS =
+                java.lang.management.ManagementFactory.getThreadMXBean();
+
+        static long current() {
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Codificación médica tal como estaba antes del codificador de una pasada (solo para comparar).
+     */
+    private static final class LegacyMedicalMapper {
+
+        static String[] encode(List<BenefitItem> benefits) {
+            List<MedicalBenefitItem> items = benefits.stream()
+                    .filter(b -> b instanceof MedicalBenefitItem)
+                    .map(b -> (MedicalBenefitItem) b)
+                    .collect(Collectors.toList());
+
+            int totalQty = items.stream().mapToInt(MedicalBenefitItem::getQuantityPerType).sum();
+
+            StringBuilder sb = new StringBuilder();
+            MedicalBenefitItem first = items.get(0);
+            sb.append(totalQty)
+                    .append("^*")
+                    .append(first.getBenefitCode())
+                    .append("*")
+                    .append(first.getQuantityPerType())
+                    .append("**");
+            for (int i = 1; i < items.size(); i++) {
+                MedicalBenefitItem item = items.get(i);
+                sb.append("|*")
+                        .append(item.getBenefitCode())
+                        .append("*")
+                        .append(item.getQuantityPerType())
+                        .append("**");
+            }
+
+            List<String> chunks = splitIntoParams(sb.toString());
+            return new String[]{
+                    chunks.get(0),
+                    chunks.size() > 1 ? chunks.get(1) : "",
+                    chunks.size() > 2 ? chunks.get(2) : ""
+            };
+        }
+
+        private static List<String> splitIntoParams(String content) {
+            List<String> chunks = new ArrayList<>();
+            int maxLen = Hl7Constants.MAX_LENGTH_PER_PARAM;
+            int start = 0;
+            while (start < content.length()) {
+                int end = Math.min(start + maxLen, content.length());
+                int lastSegmentEnd = content.lastIndexOf("**", end);
+                if (lastSegmentEnd >= start && lastSegmentEnd + 2 <= end) {
+                    end = lastSegmentEnd + 2;
+                }
+                chunks.add(content.substring(start, end));
+                start = end;
+            }
+            return chunks;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hl7client.tools;
+
+import com.hl7client.Application;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.enums.TipoMensaje;
+import com.hl7client.service.AuthService;
+import com.hl7client.ui.dialogs.BenefitDialog;
+import com.hl7client.ui.dialogs.CancelacionDialog;
+import com.hl7client.ui.dialogs.ElegibilidadDialog;
+import com.hl7client.ui.dialogs.RegistracionDialog;
+import com.hl7client.ui.frames.MainFrame;
+import com.hl7client.ui.theme.ThemeManager;
+import com.hl7client.util.StartupTimer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Corrida guionada del cliente contra {@link Hl7StubServer}:
+ * login, construcción de la ventana principal y de cada diálogo, y una transacción
+ * de cada tipo (elegibilidad, registración, cancelación).
+ * <p>
+ * Sirve como corrida de entrenamiento del archivo AppCDS (perfil Maven {@code appcds})
+ * y como benchmark de arranque: al terminar imprime los tiempos por fase, incluido
+ * el tiempo hasta la primera transacción. En entornos headless se omite la UI
+ * (solo se cargan sus clases).
+ * <pre>
+ *   java [-XX:SharedArchiveFile=hl7-client.jsa] -cp hl7-client.jar com.hl7client.tools.StartupTraining
+ * </pre>
+ */
+public final class StartupTraining {
+
+    private StartupTraining() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupTimer.mark("jvm");
+
+        int exitCode = 0;
+        try (Hl7StubServer stub = Hl7StubServer.start(0)) {
+            AuthService auth = StubScenario.login(stub);
+            StartupTimer.mark("login");
+
+            Hl7Controller controller = StubScenario.controller(auth);
+
+            StubScenario.elegibilidad(controller);
+            StartupTimer.mark("primera transacción");
+
+            StubScenario.registracion(controller);
+            StubScenario.cancelacion(controller);
+            StartupTimer.mark("transacciones");
+
+            trainUi(controller);
+            StartupTimer.mark("ui");
+
+            auth.logout();
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        }
+
+        System.out.println(StartupTimer.report());
+        // System.exit asegura el volcado del archivo CDS (-XX:ArchiveClassesAtExit)
+        System.exit(exitCode);
+    }
+
+    private static void trainUi(Hl7Controller controller) throws Exception {
+        if (GraphicsEnvironment.isHeadless()) {
+            for (Class<?> type : new Class<?>[]{
+                    MainFrame.class, ElegibilidadDialog.class, RegistracionDialog.class,
+                    CancelacionDialog.class, BenefitDialog.class}) {
+                Class.forName(type.getName(), true, type.getClassLoader());
+            }
+            return;
+        }
+
+        SwingUtilities.invokeAndWait(() -> {
+            ThemeManager.getInstance().initialize();
+
+            MainFrame mainFrame = new MainFrame(new Application(), controller);
+            List<Window> windows = new ArrayList<>();
+            windows.add(new ElegibilidadDialog(mainFrame, controller, "Elegibilidad"));
+            windows.add(new RegistracionDialog(mainFrame, controller, "Registración"));
+            windows.add(new CancelacionDialog(mainFrame, controller, "Cancelación"));
+            windows.add(new BenefitDialog(mainFrame, TipoMensaje.MEDICINA, Collections.emptyList()));
+            windows.add(new BenefitDialog(mainFrame, TipoMensaje.ODONTOLOGIA, Collections.emptyList()));
+            windows.add(mainFrame);
+
+            for (Window w : windows) {
+                w.dispose();
+            }
+        });
+    }
+}
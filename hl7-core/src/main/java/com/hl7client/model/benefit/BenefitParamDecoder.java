@@ -0,0 +1,279 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.dental.DentalBenefit;
+import com.hl7client.model.dental.DentalPiece;
+import com.hl7client.model.dental.DentalSurface;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decodificador de param1..param3 a {@link BenefitItem}, inverso de {@link BenefitRequestMapper}.
+ * <p>
+ * Gramática reconocida (los params se leen como un único flujo, por lo que el corte
+ * entre param1/param2/param3 puede caer en cualquier punto, incluso dentro de un segmento):
+ * <pre>
+ *   contenido := total '^' segmento ( '|' segmento )*
+ *   medicina  := '*' código(6 dígitos) '*' cantidad '**'
+ *   odonto    := '*' pieza? '*' superficies? '*' 'O' código '*P*1**'
+ *   vacío     := "0^*0*0**"
+ * </pre>
+ * Se recorre cada carácter una sola vez, sin substrings intermedios. Los errores se
+ * informan con {@link Hl7ParamFormatException} indicando la posición exacta.
+ */
+public final class BenefitParamDecoder {
+
+    private static final int MEDICAL_CODE_LENGTH = 6;
+
+    private BenefitParamDecoder() {
+    }
+
+    /**
+     * Decodifica los params a una lista de prestaciones (vacía para "0^*0*0**").
+     *
+     * @throws Hl7ParamFormatException si el contenido no respeta la gramática
+     */
+    public static List<BenefitItem> decode(String param1, String param2, String param3) {
+        List<BenefitItem> items = new ArrayList<>();
+        decode(param1, param2, param3, items::add);
+        return items;
+    }
+
+    /**
+     * Versión streaming: entrega cada prestación al consumidor apenas se cierra su segmento.
+     *
+     * @throws Hl7ParamFormatException si el contenido no respeta la gramática
+     */
+    public static void decode(
+            CharSequence param1,
+            CharSequence param2,
+            CharSequence param3,
+            Consumer<? super BenefitItem> sink
+    ) {
+        Cursor c = new Cursor(param1, param2, param3);
+
+        if (c.length() == 0) {
+            return;
+        }
+
+        int totalOffset = c.offset();
+        int total = c.readInt("total");
+        c.expect('^');
+
+        boolean dental = false;
+        int sumQty = 0;
+        int segments = 0;
+        char[] code = new char[MEDICAL_CODE_LENGTH];
+
+        do {
+            if (segments > 0) {
+                c.expect('|');
+            }
+            c.expect('*');
+
+            // Primer campo: código médico (6 dígitos) o pieza dental (vacía o 2 dígitos)
+            int fieldOffset = c.offset();
+            int fieldLen = 0;
+            int fieldValue = 0;
+            while (c.hasNext() && isDigit(c.peek())) {
+                char d = c.next();
+                if (fieldLen < MEDICAL_CODE_LENGTH) {
+                    code[fieldLen] = d;
+                }
+                fieldValue = fieldLen < 9 ? fieldValue * 10 + (d - '0') : fieldValue;
+                fieldLen++;
+            }
+            c.expect('*');
+
+            if (segments == 0 && total == 0 && fieldLen == 1 && fieldValue == 0) {
+                readEmpty(c);
+                return;
+            }
+
+            // El primer segmento define el tipo (médico: el campo siguiente es numérico);
+            // los demás deben respetarlo, así los errores se informan en el campo exacto
+            if (segments == 0) {
+                dental = !(c.hasNext() && isDigit(c.peek()));
+            }
+
+            if (!dental) {
+                if (fieldLen != MEDICAL_CODE_LENGTH) {
+                    throw c.error("El código de prestación debe tener 6 dígitos", fieldOffset);
+                }
+                int qtyOffset = c.offset();
+                int qty = c.readInt("cantidad");
+                c.expect('*');
+                c.expect('*');
+
+                if (qty < 1 || qty > 99) {
+                    throw c.error("La cantidad por tipo debe estar entre 1 y 99", qtyOffset);
+                }
+                sumQty += qty;
+                sink.accept(MedicalBenefitItem.of(qty, new String(code)));
+
+            } else {
+                sink.accept(readDental(c, fieldOffset, fieldLen, fieldValue));
+                sumQty += 1;
+            }
+
+            segments++;
+        } while (c.hasNext());
+
+        if (total != sumQty) {
+            throw c.error("El total (" + total + ") no coincide con la suma de cantidades (" + sumQty + ")",
+                    totalOffset);
+        }
+    }
+
+    // ---------- Segmentos ----------
+
+    /**
+     * Resto de "0^*0*0**" luego de haber leído "0^*0*".
+     */
+    private static void readEmpty(Cursor c) {
+        c.expect('0');
+        c.expect('*');
+        c.expect('*');
+        if (c.hasNext()) {
+            throw c.error("Contenido inesperado luego de valor vacío", c.offset());
+        }
+    }
+
+    /**
+     * Segmento odontológico, ya consumido hasta el '*' posterior a la pieza.
+     */
+    private static DentalBenefit readDental(Cursor c, int pieceOffset, int pieceLen, int pieceValue) {
+        DentalPiece piece = null;
+        if (pieceLen == 2) {
+            try {
+                piece = DentalPiece.fromFdi(pieceValue);
+            } catch (IllegalArgumentException e) {
+                throw c.error("Pieza dental no soportada: " + pieceValue, pieceOffset);
+            }
+        } else if (pieceLen != 0) {
+            throw c.error("La pieza dental debe tener 2 dígitos", pieceOffset);
+        }
+
+        Set<DentalSurface> surfaces = EnumSet.noneOf(DentalSurface.class);
+        while (c.hasNext() && c.peek() != '*') {
+            int surfaceOffset = c.offset();
+            DentalSurface s = DentalSurface.fromCode(c.next());
+            if (s == null) {
+                throw c.error("Superficie dental desconocida", surfaceOffset);
+            }
+            surfaces.add(s);
+        }
+        c.expect('*');
+        c.expect('O');
+
+        int codeOffset = c.offset();
+        StringBuilder code = new StringBuilder(8);
+        while (c.hasNext() && isDigit(c.peek())) {
+            code.append(c.next());
+        }
+        if (code.length() == 0) {
+            throw c.error("Código de prestación odontológica vacío", codeOffset);
+        }
+
+        c.expect('*');
+        c.expect('P');
+        c.expect('*');
+        c.expect('1');
+        c.expect('*');
+        c.expect('*');
+
+        return new DentalBenefit(piece, surfaces, code.toString());
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    // ---------- Cursor sobre los tres params ----------
+
+    private static final class Cursor {
+
+        private final CharSequence[] params;
+        private final int[] starts = new int[3];
+        private final int length;
+
+        private int pos;
+
+        Cursor(CharSequence p1, CharSequence p2, CharSequence p3) {
+            params = new CharSequence[]{
+                    p1 != null ? p1 : "",
+                    p2 != null ? p2 : "",
+                    p3 != null ? p3 : ""
+            };
+            starts[1] = params[0].length();
+            starts[2] = starts[1] + params[1].length();
+            length = starts[2] + params[2].length();
+        }
+
+        int length() {
+            return length;
+        }
+
+        int offset() {
+            return pos;
+        }
+
+        boolean hasNext() {
+            return pos < length;
+        }
+
+        char peek() {
+            return charAt(pos);
+        }
+
+        char next() {
+            return charAt(pos++);
+        }
+
+        void expect(char expected) {
+            if (!hasNext()) {
+                throw error("Fin inesperado, se esperaba '" + expected + "'", pos);
+            }
+            char actual = peek();
+            if (actual != expected) {
+                throw error("Se esperaba '" + expected + "' y se encontró '" + actual + "'", pos);
+            }
+            pos++;
+        }
+
+        int readInt(String field) {
+            int start = pos;
+            int value = 0;
+            while (hasNext() && isDigit(peek())) {
+                if (pos - start >= 9) {
+                    throw error("Valor numérico demasiado largo en " + field, start);
+                }
+                value = value * 10 + (next() - '0');
+            }
+            if (pos == start) {
+                throw error("Se esperaba un número en " + field, start);
+            }
+            return value;
+        }
+
+        Hl7ParamFormatException error(String message, int offset) {
+            int param = paramIndex(offset);
+            return new Hl7ParamFormatException(message, offset, param + 1, offset - starts[param]);
+        }
+
+        private char charAt(int offset) {
+            int p = paramIndex(offset);
+            return params[p].charAt(offset - starts[p]);
+        }
+
+        private int paramIndex(int offset) {
+            // Un offset en el límite se asigna al último param no vacío (fin de contenido)
+            if (offset >= starts[2] && params[2].length() > 0) return 2;
+            if (offset >= starts[1] && params[1].length() > 0) return 1;
+            return 0;
+        }
+    }
+}
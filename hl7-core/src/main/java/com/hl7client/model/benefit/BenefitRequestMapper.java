@@ -0,0 +1,520 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.constants.Hl7Constants;
+import com.hl7client.model.dto.request.hl7.CancelacionRequest;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.dental.DentalBenefit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Mapper que transforma una lista de {@link BenefitItem} en los campos param1, param2, param3
+ * del {@link RegistracionRequest}, respetando estrictamente las reglas HL7 observadas.
+ * <ul>
+ *   <li><b>Odontología</b>: 1 ítem → valor completo en param1 (ej: "1^*35*V*O020801*P*1**").
+ *       Con el modo multi-ítem habilitado ({@link #setDentalMultiItem(boolean)}), varios ítems
+ *       con el mismo esquema que medicina: "2^*35*V*O020801*P*1**|*36*O*O020802*P*1**"</li>
+ *   <li><b>Medicina</b>: múltiples ítems → total al inicio + separador '|' entre segmentos<br>
+ *       Ejemplo: "3^*660001*2**|*660015*1**"</li>
+ *   <li><b>Sin prestaciones</b>: param1 = "0^*0*0**", param2 y param3 vacíos</li>
+ * </ul>
+ * <p>
+ * Realiza validaciones defensivas de longitud y consistencia de tipos.
+ * Los cortes entre param1..param3 se hacen siempre en límites de segmento
+ * (ver {@link MedicalParamEncoder} y {@link DentalParamEncoder}).
+ * <p>
+ * Si las prestaciones no entran en una sola registración, {@link #partition(List)}
+ * las reparte en la menor cantidad de grupos que sí entran, para enviarlos juntos
+ * ({@code Hl7Controller.consultarRegistraciones}).
+ */
+public final class BenefitRequestMapper {
+
+    private static final String EMPTY_PARAM_VALUE = "0^*0*0**";
+    private static final String EMPTY_CANCEL_PARAM_VALUE = "0";
+
+    // Buffer de codificación reutilizable por hilo (el mapper se usa desde UI y batch)
+    private static final ThreadLocal<MedicalParamEncoder> MEDICAL_ENCODER =
+            ThreadLocal.withInitial(MedicalParamEncoder::new);
+    private static final ThreadLocal<DentalParamEncoder> DENTAL_ENCODER =
+            ThreadLocal.withInitial(DentalParamEncoder::new);
+
+    // Varias prestaciones odontológicas por registración (depende del backend; ver application.properties)
+    private static volatile boolean dentalMultiItem = false;
+
+    private BenefitRequestMapper() {
+        // Clase utilitaria estática
+    }
+
+    public static boolean isDentalMultiItem() {
+        return dentalMultiItem;
+    }
+
+    public static void setDentalMultiItem(boolean enabled) {
+        dentalMultiItem = enabled;
+    }
+
+    /**
+     * Mapea la lista de prestaciones al request HL7.
+     * Modifica directamente los campos param1, param2 y param3 del request.
+     *
+     * @param request  request a modificar (no null)
+     * @param benefits lista de prestaciones (puede ser null o vacía)
+     * @throws IllegalArgumentException si hay mezcla de tipos, más de 1 odontológica (sin modo
+     *                                  multi-ítem), o si la longitud total excede los límites permitidos
+     */
+    public static void apply(RegistracionRequest request, List<BenefitItem> benefits) {
+        if (request == null) {
+            throw new IllegalArgumentException("El request no puede ser null");
+        }
+
+        if (benefits == null || benefits.isEmpty()) {
+            setEmptyParams(request);
+            return;
+        }
+
+        BenefitType type = determineType(benefits);
+
+        switch (type) {
+            case DENTAL:
+                handleDental(request, benefits);
+                break;
+            case MEDICAL:
+                handleMedical(request, benefits);
+                break;
+        }
+    }
+
+    /**
+     * Igual que {@link #apply(RegistracionRequest, List)}, pero carga los params en el builder
+     * para que {@link RegistracionRequest.Builder#build()} los valide junto con el resto de los campos.
+     *
+     * @param builder  builder a completar (no null)
+     * @param benefits lista de prestaciones (puede ser null o vacía)
+     * @throws IllegalArgumentException en los mismos casos que {@link #apply(RegistracionRequest, List)}
+     */
+    public static RegistracionRequest.Builder apply(RegistracionRequest.Builder builder, List<BenefitItem> benefits) {
+        if (builder == null) {
+            throw new IllegalArgumentException("El builder no puede ser null");
+        }
+
+        RegistracionRequest temp = new RegistracionRequest();
+        apply(temp, benefits);
+        return builder.params(temp.getParam1(), temp.getParam2(), temp.getParam3());
+    }
+
+    /**
+     * Carga las prestaciones en param1 y param2 de una cancelación, con la misma codificación
+     * que la registración. La cancelación no tiene param3: si las prestaciones lo necesitan,
+     * se rechazan en lugar de enviar una cancelación incompleta.
+     * Sin prestaciones: param1 = "0" y param2 vacío.
+     *
+     * @param builder  builder a completar (no null)
+     * @param benefits lista de prestaciones (puede ser null o vacía)
+     * @throws IllegalArgumentException en los mismos casos que {@link #apply(RegistracionRequest, List)},
+     *                                  o si las prestaciones no entran en param1 y param2
+     */
+    public static CancelacionRequest.Builder apply(CancelacionRequest.Builder builder, List<BenefitItem> benefits) {
+        if (builder == null) {
+            throw new IllegalArgumentException("El builder no puede ser null");
+        }
+        if (benefits == null || benefits.isEmpty()) {
+            return builder.params(EMPTY_CANCEL_PARAM_VALUE, "");
+        }
+
+        RegistracionRequest temp = new RegistracionRequest();
+        apply(temp, benefits);
+        if (temp.getParam3() != null && !temp.getParam3().isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Las prestaciones no entran en una cancelación (param1 y param2): cancelar en partes");
+        }
+        return builder.params(temp.getParam1(), temp.getParam2() != null ? temp.getParam2() : "");
+    }
+
+    private static void setEmptyParams(RegistracionRequest request) {
+        request.setParam1(EMPTY_PARAM_VALUE);
+        request.setParam2("");
+        request.setParam3("");
+    }
+
+    private static BenefitType determineType(List<BenefitItem> benefits) {
+        BenefitType type = typeOf(benefits);
+
+        if (type == BenefitType.DENTAL && benefits.size() > 1 && !dentalMultiItem) {
+            throw new IllegalArgumentException(
+                    "Solo se permite una prestación odontológica (se encontraron " + benefits.size() + ")");
+        }
+        return type;
+    }
+
+    private static BenefitType typeOf(List<BenefitItem> benefits) {
+        boolean hasDental = false;
+        boolean hasMedical = false;
+        for (BenefitItem b : benefits) {
+            hasDental |= b instanceof DentalBenefit;
+            hasMedical |= b instanceof MedicalBenefitItem;
+        }
+
+        if (hasDental && hasMedical) {
+            throw new IllegalArgumentException("No se permiten mezclar prestaciones odontológicas y médicas");
+        }
+        return hasDental ? BenefitType.DENTAL : BenefitType.MEDICAL;
+    }
+
+    private static void handleDental(RegistracionRequest request, List<BenefitItem> benefits) {
+        if (benefits.size() > 1) {
+            DentalParamEncoder encoder = DENTAL_ENCODER.get();
+            encoder.encode(benefits);
+            request.setParam1(encoder.param(1));
+            request.setParam2(encoder.param(2));
+            request.setParam3(encoder.param(3));
+            return;
+        }
+
+        DentalBenefit item = (DentalBenefit) benefits.get(0);
+        String value = item.getValue();
+
+        if (value == null || value.isEmpty()) {
+            request.setParam1(EMPTY_PARAM_VALUE);
+        } else {
+            if (value.length() > Hl7Constants.MAX_LENGTH_ODONTOLOGIA) {
+                throw new IllegalArgumentException(
+                        "Prestación odontológica excede límite de " + Hl7Constants.MAX_LENGTH_ODONTOLOGIA +
+                                " caracteres (actual: " + value.length() + ")");
+            }
+            request.setParam1(value);
+        }
+
+        request.setParam2("");
+        request.setParam3("");
+    }
+
+    private static void handleMedical(RegistracionRequest request, List<BenefitItem> benefits) {
+        MedicalParamEncoder encoder = MEDICAL_ENCODER.get();
+
+        if (!encoder.encode(benefits)) {
+            setEmptyParams(request);
+            return;
+        }
+
+        request.setParam1(encoder.param(1));
+        request.setParam2(encoder.param(2));
+        request.setParam3(encoder.param(3));
+    }
+
+    // ---------- Partición en varias registraciones ----------
+
+    // Búsqueda exacta: solo con pocas prestaciones y con tope de nodos y de tiempo;
+    // si no alcanza se usa el resultado de first-fit decreasing
+    private static final int EXACT_SEARCH_MAX_ITEMS = 40;
+    private static final int EXACT_SEARCH_BUDGET = 200_000;
+    private static final long EXACT_SEARCH_MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private static final int PARAM_LENGTH = Hl7Constants.MAX_LENGTH_PER_PARAM;
+    private static final int MAX_PARAMS = Hl7Constants.MAX_PARAMS_MEDICINA;
+    private static final int MAX_CONTENT = PARAM_LENGTH * MAX_PARAMS;
+
+    /**
+     * Reparte las prestaciones en la menor cantidad de grupos tal que cada grupo
+     * se pueda mapear con {@link #apply} a una única registración (3 params de 255,
+     * cortes solo en límites de segmento).
+     * <ul>
+     *   <li>Si todo entra en una registración: un único grupo, sin reordenar.</li>
+     *   <li>Odontología sin modo multi-ítem: un grupo por prestación.</li>
+     *   <li>Resto (medicina, odontología multi-ítem): first-fit decreasing por longitud de
+     *       segmento; si queda por encima de la cota inferior y son a lo sumo
+     *       {@value #EXACT_SEARCH_MAX_ITEMS} prestaciones, búsqueda exacta acotada
+     *       (nodos y tiempo) de una partición con menos grupos.</li>
+     * </ul>
+     * Dentro de cada grupo se conserva el orden original. Los grupos se evalúan con las
+     * longitudes de segmento, sin volver a codificar: el costo es de milisegundos aun con
+     * cientos de prestaciones, pero conviene no llamarlo en el EDT en cada cambio.
+     *
+     * @return grupos en orden de primera aparición (vacío si no hay prestaciones)
+     * @throws IllegalArgumentException si hay mezcla de tipos
+     */
+    public static List<List<BenefitItem>> partition(List<BenefitItem> benefits) {
+        if (benefits == null || benefits.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        BenefitType type = typeOf(benefits);
+        List<List<BenefitItem>> groups = new ArrayList<>();
+
+        if (type == BenefitType.DENTAL && !dentalMultiItem) {
+            for (BenefitItem b : benefits) {
+                groups.add(Collections.singletonList(b));
+            }
+            return groups;
+        }
+
+        Predicate<List<BenefitItem>> fits = type == BenefitType.DENTAL
+                ? DENTAL_ENCODER.get()::tryEncode
+                : MEDICAL_ENCODER.get()::tryEncode;
+
+        if (fits.test(benefits)) {
+            groups.add(new ArrayList<>(benefits));
+            return groups;
+        }
+
+        for (Group group : new Packing(benefits).pack()) {
+            groups.add(group.items(benefits));
+        }
+        return groups;
+    }
+
+    /**
+     * Empaquetado sobre longitudes: cada prestación se reduce a su segmento (sin separador)
+     * y a lo que suma al total inicial (cantidad médica, o 1 por prestación odontológica).
+     */
+    private static final class Packing {
+
+        final int[] body;
+        final int[] qty;
+        final int[] order;     // índices por longitud de segmento descendente (estable)
+
+        private int budget = EXACT_SEARCH_BUDGET;
+        private long deadline;
+
+        Packing(List<BenefitItem> benefits) {
+            int n = benefits.size();
+            body = new int[n];
+            qty = new int[n];
+            List<Integer> sorted = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                BenefitItem b = benefits.get(i);
+                body[i] = segmentLength(b);
+                qty[i] = b instanceof MedicalBenefitItem ? ((MedicalBenefitItem) b).getQuantityPerType() : 1;
+                sorted.add(i);
+            }
+            sorted.sort((a, b) -> Integer.compare(body[b], body[a]));
+            order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = sorted.get(i);
+            }
+        }
+
+        List<Group> pack() {
+            List<Group> best = firstFitDecreasing();
+
+            if (order.length <= EXACT_SEARCH_MAX_ITEMS) {
+                deadline = System.nanoTime() + EXACT_SEARCH_MAX_NANOS;
+                for (int k = lowerBound(); k < best.size() && !exhausted(); k++) {
+                    List<Group> groups = new ArrayList<>(k);
+                    for (int g = 0; g < k; g++) {
+                        groups.add(new Group(this));
+                    }
+                    if (place(0, groups)) {
+                        best = groups;
+                        break;
+                    }
+                }
+            }
+
+            best.sort((a, b) -> Integer.compare(a.first(), b.first()));
+            return best;
+        }
+
+        private List<Group> firstFitDecreasing() {
+            List<Group> groups = new ArrayList<>();
+            for (int index : order) {
+                boolean placed = false;
+                for (Group group : groups) {
+                    if (group.tryAdd(index)) {
+                        placed = true;
+                        break;
+                    }
+                }
+                if (!placed) {
+                    Group group = new Group(this);
+                    group.tryAdd(index);   // un segmento solo siempre entra
+                    groups.add(group);
+                }
+            }
+            return groups;
+        }
+
+        /**
+         * Búsqueda exacta (backtracking) de una asignación a exactamente {@code groups.size()} grupos.
+         * Los grupos vacíos son intercambiables: solo se prueba el primero.
+         */
+        private boolean place(int next, List<Group> groups) {
+            if (next == order.length) {
+                return true;
+            }
+            if (--budget < 0 || ((budget & 0x3FF) == 0 && System.nanoTime() > deadline)) {
+                budget = -1;
+                return false;
+            }
+
+            int index = order[next];
+            for (Group group : groups) {
+                boolean wasEmpty = group.isEmpty();
+                if (group.tryAdd(index)) {
+                    if (place(next + 1, groups)) {
+                        return true;
+                    }
+                    group.remove(index);
+                }
+                if (wasEmpty || exhausted()) {
+                    break;
+                }
+            }
+            return false;
+        }
+
+        private boolean exhausted() {
+            return budget < 0;
+        }
+
+        /**
+         * Cota inferior de registraciones: cada segmento ocupa al menos su longitud + 1
+         * (separador '|' o, en el primero, '^' más al menos un dígito de total).
+         */
+        private int lowerBound() {
+            int total = 0;
+            for (int b : body) {
+                total += b + 1;
+            }
+            return Math.max(1, (total + MAX_CONTENT - 1) / MAX_CONTENT);
+        }
+    }
+
+    /**
+     * Grupo en construcción: índices en orden original más las sumas que deciden si entra
+     * ({@code total^seg|seg|...} en 3 params, mismos cortes que los codificadores).
+     */
+    private static final class Group {
+
+        private final Packing packing;
+        private int[] members = new int[16];
+        private int size;
+        private int bodyLength;   // suma de segmentos sin separador
+        private int total;        // total declarado al inicio
+        private int maxBody;      // segmento más largo
+
+        Group(Packing packing) {
+            this.packing = packing;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int first() {
+            return members[0];
+        }
+
+        /**
+         * Agrega el índice (en orden original) si el grupo resultante entra; si no, lo deja igual.
+         */
+        boolean tryAdd(int index) {
+            int newTotal = total + packing.qty[index];
+            int length = MedicalParamEncoder.digits(newTotal) + 1 + bodyLength + packing.body[index] + size;
+            if (length > MAX_CONTENT) {
+                return false;
+            }
+
+            // Cada corte deja libre menos de un segmento (cota: el más largo con prefijo de total):
+            // con margen para dos cortes entra seguro
+            int longest = Math.max(maxBody, packing.body[index]);
+            int piece = MedicalParamEncoder.digits(newTotal) + 1 + longest;
+            if (length + (MAX_PARAMS - 1) * (piece - 1) > MAX_CONTENT && !layoutFits(index, newTotal)) {
+                return false;
+            }
+
+            int at = size;
+            while (at > 0 && members[at - 1] > index) {
+                at--;
+            }
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+            }
+            System.arraycopy(members, at, members, at + 1, size - at);
+            members[at] = index;
+            size++;
+            bodyLength += packing.body[index];
+            total = newTotal;
+            maxBody = longest;
+            return true;
+        }
+
+        void remove(int index) {
+            int at = 0;
+            while (members[at] != index) {
+                at++;
+            }
+            System.arraycopy(members, at + 1, members, at, size - at - 1);
+            size--;
+            bodyLength -= packing.body[index];
+            total -= packing.qty[index];
+            maxBody = 0;
+            for (int i = 0; i < size; i++) {
+                maxBody = Math.max(maxBody, packing.body[members[i]]);
+            }
+        }
+
+        /**
+         * Recorre el grupo con {@code extra} agregado y corta como los codificadores: al
+         * límite del segmento anterior cuando el actual no entra en el param; falla si el
+         * primer segmento no entra o si hace falta un cuarto param.
+         */
+        private boolean layoutFits(int extra, int newTotal) {
+            int pos = 0;
+            int paramStart = 0;
+            int cuts = 0;
+            int i = 0;
+            boolean extraPending = true;
+
+            while (i < size || extraPending) {
+                int index;
+                if (extraPending && (i == size || extra < members[i])) {
+                    index = extra;
+                    extraPending = false;
+                } else {
+                    index = members[i++];
+                }
+
+                int piece = (pos == 0 ? MedicalParamEncoder.digits(newTotal) + 1 : 1) + packing.body[index];
+                pos += piece;
+                if (pos - paramStart > PARAM_LENGTH) {
+                    if (pos == piece || cuts == MAX_PARAMS - 1 || piece > PARAM_LENGTH) {
+                        return false;
+                    }
+                    cuts++;
+                    paramStart = pos - piece;
+                }
+            }
+            return true;
+        }
+
+        List<BenefitItem> items(List<BenefitItem> benefits) {
+            List<BenefitItem> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(benefits.get(members[i]));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Longitud del segmento sin el total inicial ("*código*cantidad**" / "*pieza*caras*Ocódigo*P*1**").
+     */
+    private static int segmentLength(BenefitItem b) {
+        if (b instanceof DentalBenefit) {
+            return ((DentalBenefit) b).getSegment().length();
+        }
+        if (b instanceof MedicalBenefitItem) {
+            return 10 + MedicalParamEncoder.digits(((MedicalBenefitItem) b).getQuantityPerType());
+        }
+        return b.length();
+    }
+
+    private enum BenefitType {
+        DENTAL, MEDICAL
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.constants.Hl7Constants;
+import com.hl7client.model.dental.DentalBenefit;
+
+import java.util.List;
+
+/**
+ * Codificador de varias prestaciones odontológicas en una registración.
+ * <p>
+ * Produce {@code N^*pieza*caras*Ocódigo*P*1**|*pieza*caras*Ocódigo*P*1**...}, con N = cantidad
+ * de prestaciones, y reparte el contenido en param1..param3 cortando siempre en un
+ * límite de segmento (mismo criterio que {@link MedicalParamEncoder}).
+ * <p>
+ * No es thread-safe: {@link BenefitRequestMapper} mantiene una instancia por hilo.
+ */
+final class DentalParamEncoder {
+
+    private static final int PARAM_LENGTH = Hl7Constants.MAX_LENGTH_PER_PARAM;
+    private static final int MAX_PARAMS = Hl7Constants.MAX_PARAMS_MEDICINA;
+    private static final int MAX_LENGTH = PARAM_LENGTH * MAX_PARAMS;
+
+    private final char[] buffer = new char[MAX_LENGTH];
+
+    // paramEnd[i] = posición (exclusiva) donde termina param i+1
+    private final int[] paramEnd = new int[MAX_PARAMS];
+    private int paramCount;
+
+    /**
+     * Codifica las prestaciones odontológicas de la lista (ignora otros tipos).
+     *
+     * @return false si no hay prestaciones odontológicas
+     * @throws IllegalArgumentException si no entran en param1..param3 sin cortar segmentos
+     */
+    boolean encode(List<? extends BenefitItem> benefits) {
+        if (!tryEncode(benefits)) {
+            throw new IllegalArgumentException(
+                    "Prestaciones odontológicas no entran en " + MAX_PARAMS +
+                            " parámetros de " + PARAM_LENGTH + " caracteres sin cortar segmentos");
+        }
+        return paramCount > 0;
+    }
+
+    /**
+     * Igual que {@link #encode(List)}, pero informa por retorno si el contenido no entra
+     * (usado para empaquetar sin excepciones).
+     *
+     * @return true si entra (o si no hay prestaciones odontológicas)
+     */
+    boolean tryEncode(List<? extends BenefitItem> benefits) {
+        paramCount = 0;
+
+        int count = 0;
+        for (int i = 0; i < benefits.size(); i++) {
+            if (benefits.get(i) instanceof DentalBenefit) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return true;
+        }
+
+        int pos = writeInt(count, 0);
+        buffer[pos++] = '^';
+        int paramStart = 0;
+        int lastBoundary = 0;
+        boolean first = true;
+
+        for (int i = 0; i < benefits.size(); i++) {
+            BenefitItem b = benefits.get(i);
+            if (!(b instanceof DentalBenefit)) {
+                continue;
+            }
+            String segment = ((DentalBenefit) b).getSegment();
+            int segmentLength = segment.length() + (first ? 0 : 1);
+
+            if (pos + segmentLength > MAX_LENGTH) {
+                paramCount = 0;
+                return false;
+            }
+            if (!first) {
+                buffer[pos++] = '|';
+            }
+            segment.getChars(0, segment.length(), buffer, pos);
+            pos += segment.length();
+
+            // Corte en el límite del segmento anterior si este no entra en el param actual
+            if (pos - paramStart > PARAM_LENGTH) {
+                if (first || paramCount == MAX_PARAMS - 1 || pos - lastBoundary > PARAM_LENGTH) {
+                    paramCount = 0;
+                    return false;
+                }
+                paramEnd[paramCount++] = lastBoundary;
+                paramStart = lastBoundary;
+            }
+            lastBoundary = pos;
+            first = false;
+        }
+
+        paramEnd[paramCount++] = pos;
+        return true;
+    }
+
+    /**
+     * Contenido del param indicado (1..3), o "" si no se usó.
+     */
+    String param(int index) {
+        if (index < 1 || index > paramCount) {
+            return "";
+        }
+        int start = index == 1 ? 0 : paramEnd[index - 2];
+        return new String(buffer, start, paramEnd[index - 1] - start);
+    }
+
+    private int writeInt(int value, int pos) {
+        int end = pos + MedicalParamEncoder.digits(value);
+        int p = end;
+        do {
+            buffer[--p] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        return end;
+    }
+}
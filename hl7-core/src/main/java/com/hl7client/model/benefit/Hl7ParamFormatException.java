@@ -0,0 +1,42 @@
+package com.hl7client.model.benefit;
+
+/**
+ * Error de formato al decodificar param1..param3.
+ * <p>
+ * Informa la posición exacta del problema, tanto en el contenido lógico
+ * (params concatenados) como dentro del param individual.
+ */
+public class Hl7ParamFormatException extends IllegalArgumentException {
+
+    private final int offset;
+    private final int param;
+    private final int paramOffset;
+
+    public Hl7ParamFormatException(String message, int offset, int param, int paramOffset) {
+        super(message + " (param" + param + ", posición " + paramOffset + ")");
+        this.offset = offset;
+        this.param = param;
+        this.paramOffset = paramOffset;
+    }
+
+    /**
+     * Posición (0..n) dentro del contenido concatenado param1 + param2 + param3.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Número de param (1..3) donde se detectó el error.
+     */
+    public int getParam() {
+        return param;
+    }
+
+    /**
+     * Posición (0..n) dentro del param indicado por {@link #getParam()}.
+     */
+    public int getParamOffset() {
+        return paramOffset;
+    }
+}
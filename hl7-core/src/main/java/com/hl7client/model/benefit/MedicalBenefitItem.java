@@ -14,7 +14,7 @@ public final class MedicalBenefitItem implements BenefitItem {
 
     private final int quantityPerType;  // Cantidad por este tipo de prestación (1–99)
     private final String benefitCode;   // Código de prestación (exactamente 6 dígitos)
-    private final String value;         // Valor completo serializado para HL7
+    private String value;               // Valor serializado para HL7 (se construye al primer uso)
 
     /**
      * Constructor privado. Usar factory {@link #of(int, String)} en su lugar.
@@ -23,13 +23,28 @@ public final class MedicalBenefitItem implements BenefitItem {
         if (quantityPerType < 1 || quantityPerType > 99) {
             throw new IllegalArgumentException("La cantidad por tipo debe estar entre 1 y 99");
         }
-        if (benefitCode == null || benefitCode.trim().length() != 6 || !benefitCode.matches("\\d{6}")) {
+        if (!isValidCode(benefitCode)) {
             throw new IllegalArgumentException("El código de prestación debe ser exactamente 6 dígitos numéricos: " + benefitCode);
         }
 
         this.quantityPerType = quantityPerType;
-        this.benefitCode = benefitCode.trim();
-        this.value = quantityPerType + "^*" + benefitCode + "*" + quantityPerType + "**";
+        this.benefitCode = benefitCode;
+    }
+
+    /**
+     * Exactamente 6 dígitos ASCII (sin espacios).
+     */
+    static boolean isValidCode(String code) {
+        if (code == null || code.length() != 6) {
+            return false;
+        }
+        for (int i = 0; i < 6; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -50,12 +65,18 @@ public final class MedicalBenefitItem implements BenefitItem {
 
     @Override
     public String getValue() {
-        return value;
+        String v = value;
+        if (v == null) {
+            v = quantityPerType + "^*" + benefitCode + "*" + quantityPerType + "**";
+            value = v;   // carrera benigna: String inmutable
+        }
+        return v;
     }
 
     @Override
     public int length() {
-        return value.length();
+        // cant ^* código(6) * cant ** → sin construir el string
+        return 2 * MedicalParamEncoder.digits(quantityPerType) + 11;
     }
 
     /**
@@ -100,7 +121,7 @@ public final class MedicalBenefitItem implements BenefitItem {
         return "MedicalBenefitItem{" +
                 "quantity=" + quantityPerType +
                 ", code='" + benefitCode + '\'' +
-                ", hl7='" + value + '\'' +
+                ", hl7='" + getValue() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.constants.Hl7Constants;
+
+import java.util.List;
+
+/**
+ * Codificador de una sola pasada para prestaciones médicas.
+ * <p>
+ * Escribe {@code total^*código*cantidad**|*código*cantidad**...} directamente sobre
+ * un buffer de chars reutilizable y, a medida que cierra cada segmento, decide
+ * dónde cortar param1/param2/param3 (siempre en un límite de segmento), sin
+ * volver a recorrer el contenido ni crear strings intermedios.
+ * <p>
+ * No es thread-safe: {@link BenefitRequestMapper} mantiene una instancia por hilo.
+ */
+final class MedicalParamEncoder {
+
+    private static final int MAX_LENGTH = Hl7Constants.MAX_LENGTH_MEDICINA;
+    private static final int PARAM_LENGTH = Hl7Constants.MAX_LENGTH_PER_PARAM;
+    private static final int MAX_PARAMS = Hl7Constants.MAX_PARAMS_MEDICINA;
+
+    private final char[] buffer = new char[MAX_LENGTH];
+
+    // paramEnd[i] = posición (exclusiva) donde termina param i+1
+    private final int[] paramEnd = new int[MAX_PARAMS];
+    private int paramCount;
+
+    // Resultado de la última codificación
+    private boolean empty;
+    private int totalLength;       // longitud real (aunque exceda el buffer)
+    private boolean tooManyParams;
+
+    /**
+     * Codifica las prestaciones médicas de la lista (ignora otros tipos).
+     *
+     * @return false si no hay prestaciones médicas o la cantidad total es 0
+     * @throws IllegalArgumentException si el contenido excede
+     *                                  {@link Hl7Constants#MAX_LENGTH_MEDICINA} o no entra en los params disponibles
+     */
+    boolean encode(List<? extends BenefitItem> benefits) {
+        if (!tryEncode(benefits)) {
+            if (tooManyParams) {
+                throw new IllegalArgumentException(
+                        "Prestaciones médicas no entran en " + MAX_PARAMS +
+                                " parámetros de " + PARAM_LENGTH + " caracteres sin cortar segmentos");
+            }
+            throw new IllegalArgumentException(
+                    "Prestaciones médicas exceden límite total de " +
+                            MAX_LENGTH + " caracteres (actual: " + totalLength + ")");
+        }
+        return !empty;
+    }
+
+    /**
+     * Igual que {@link #encode(List)}, pero informa por retorno si el contenido no entra
+     * en una registración (usado para empaquetar sin excepciones).
+     *
+     * @return true si entra (o si no hay prestaciones médicas)
+     */
+    boolean tryEncode(List<? extends BenefitItem> benefits) {
+        paramCount = 0;
+        empty = false;
+        totalLength = 0;
+        tooManyParams = false;
+
+        // Pasada 1 (sin escritura): total de cantidades
+        int totalQty = 0;
+        for (int i = 0; i < benefits.size(); i++) {
+            BenefitItem b = benefits.get(i);
+            if (b instanceof MedicalBenefitItem) {
+                totalQty += ((MedicalBenefitItem) b).getQuantityPerType();
+            }
+        }
+        if (totalQty == 0) {
+            empty = true;
+            return true;
+        }
+
+        // Pasada 2: escritura + corte de params
+        int pos = 0;
+        int paramStart = 0;
+        int lastBoundary = 0;      // fin del último segmento completo
+        boolean first = true;
+
+        for (int i = 0; i < benefits.size(); i++) {
+            BenefitItem b = benefits.get(i);
+            if (!(b instanceof MedicalBenefitItem)) {
+                continue;
+            }
+            MedicalBenefitItem item = (MedicalBenefitItem) b;
+            int qty = item.getQuantityPerType();
+
+            int segmentLength = first
+                    ? digits(totalQty) + 2 + 6 + 1 + digits(qty) + 2     // total^*código*cant**
+                    : 2 + 6 + 1 + digits(qty) + 2;                       // |*código*cant**
+            totalLength += segmentLength;
+
+            if (totalLength > MAX_LENGTH) {
+                continue;   // solo se sigue contando para informar la longitud real
+            }
+
+            if (first) {
+                pos = writeInt(totalQty, pos);
+                buffer[pos++] = '^';
+            } else {
+                buffer[pos++] = '|';
+            }
+            buffer[pos++] = '*';
+            item.getBenefitCode().getChars(0, 6, buffer, pos);
+            pos += 6;
+            buffer[pos++] = '*';
+            pos = writeInt(qty, pos);
+            buffer[pos++] = '*';
+            buffer[pos++] = '*';
+            first = false;
+
+            // Corte en el límite del segmento anterior si este no entra en el param actual
+            if (pos - paramStart > PARAM_LENGTH) {
+                if (!closeParam(lastBoundary)) {
+                    return false;
+                }
+                paramStart = lastBoundary;
+            }
+            lastBoundary = pos;
+        }
+
+        if (totalLength > MAX_LENGTH) {
+            paramCount = 0;
+            return false;
+        }
+
+        return closeParam(pos);
+    }
+
+    /**
+     * Contenido del param indicado (1..3), o "" si no se usó.
+     */
+    String param(int index) {
+        if (index < 1 || index > paramCount) {
+            return "";
+        }
+        int start = index == 1 ? 0 : paramEnd[index - 2];
+        return new String(buffer, start, paramEnd[index - 1] - start);
+    }
+
+    // ---------- helpers ----------
+
+    private boolean closeParam(int end) {
+        if (paramCount == MAX_PARAMS) {
+            tooManyParams = true;
+            paramCount = 0;
+            return false;
+        }
+        paramEnd[paramCount++] = end;
+        return true;
+    }
+
+    private int writeInt(int value, int pos) {
+        int end = pos + digits(value);
+        int p = end;
+        do {
+            buffer[--p] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        return end;
+    }
+
+    static int digits(int value) {
+        int d = 1;
+        while (value >= 10) {
+            value /= 10;
+            d++;
+        }
+        return d;
+    }
+}
@@ -0,0 +1,392 @@
+package com.hl7client.model.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Catálogo local de códigos de prestación (código, descripción, cantidad máxima, odontológico/médico).
+ * <p>
+ * Se lee desde un snapshot binario mapeado en memoria (ver {@link BenefitCatalogFormat});
+ * el índice ordenado por código se consulta directamente sobre el buffer mapeado.
+ * Al abrirlo se recorre el índice una vez (sin copiar datos) para rechazar archivos
+ * truncados o corruptos antes de que una búsqueda lea fuera del buffer.
+ * <ul>
+ *   <li>{@link #find(String)}: búsqueda binaria, sin copiar datos.</li>
+ *   <li>{@link #searchByCodePrefix(String, int)}: rango contiguo del índice.</li>
+ *   <li>{@link #search(String, int)}: código por prefijo + descripción aproximada
+ *       (las descripciones normalizadas se materializan una única vez, al primer uso).</li>
+ * </ul>
+ * Instancias inmutables y thread-safe.
+ */
+public final class BenefitCatalog {
+
+    private static final Logger LOGGER = Logger.getLogger(BenefitCatalog.class.getName());
+
+    private static final BenefitCatalog EMPTY = new BenefitCatalog(null, 0, 0, 0);
+
+    private static volatile BenefitCatalog shared = EMPTY;
+
+    private final ByteBuffer buffer;      // solo lectura; se usan lecturas absolutas
+    private final int dataVersion;
+    private final int count;
+    private final int poolOffset;
+
+    private volatile char[][] normalizedDescriptions;   // lazy, para búsqueda aproximada
+
+    private BenefitCatalog(ByteBuffer buffer, int dataVersion, int count, int poolOffset) {
+        this.buffer = buffer;
+        this.dataVersion = dataVersion;
+        this.count = count;
+        this.poolOffset = poolOffset;
+    }
+
+    // ---------- Carga ----------
+
+    public static BenefitCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Mapea el snapshot en memoria (solo lectura).
+     *
+     * @throws IOException              si no se puede leer el archivo
+     * @throws IllegalArgumentException si el formato no es válido
+     */
+    public static BenefitCatalog open(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return fromBuffer(mapped);
+        }
+    }
+
+    static BenefitCatalog fromBuffer(ByteBuffer buffer) {
+        BenefitCatalogFormat.checkHeader(buffer, BenefitCatalogFormat.SNAPSHOT_MAGIC);
+
+        int dataVersion = buffer.getInt(BenefitCatalogFormat.HEADER_DATA_VERSION);
+        int count = buffer.getInt(BenefitCatalogFormat.HEADER_COUNT);
+        int poolOffset = buffer.getInt(BenefitCatalogFormat.HEADER_POOL_OFFSET);
+
+        long indexEnd = BenefitCatalogFormat.HEADER_SIZE + (long) count * BenefitCatalogFormat.RECORD_SIZE;
+        if (count < 0 || indexEnd > poolOffset || poolOffset > buffer.limit()) {
+            throw new IllegalArgumentException("Snapshot de catálogo truncado o corrupto");
+        }
+        checkRecords(buffer, count, poolOffset);
+
+        return new BenefitCatalog(buffer, dataVersion, count, poolOffset);
+    }
+
+    /**
+     * Códigos ascendentes de 6 dígitos, cantidad 1..99 y cada descripción dentro del pool.
+     */
+    private static void checkRecords(ByteBuffer buffer, int count, int poolOffset) {
+        long poolSize = buffer.limit() - poolOffset;
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            int offset = BenefitCatalogFormat.HEADER_SIZE + i * BenefitCatalogFormat.RECORD_SIZE;
+            int code = buffer.getInt(offset);
+            int maxQty = buffer.get(offset + 4) & 0xFF;
+            int length = buffer.getShort(offset + 6) & 0xFFFF;
+            long start = buffer.getInt(offset + 8) & 0xFFFFFFFFL;
+
+            if (code <= previous || code > 999_999) {
+                throw new IllegalArgumentException("Snapshot de catálogo corrupto: código fuera de orden en el registro " + i);
+            }
+            if (maxQty < 1 || maxQty > 99) {
+                throw new IllegalArgumentException("Snapshot de catálogo corrupto: cantidad máxima inválida en el registro " + i);
+            }
+            if (start + length > poolSize) {
+                throw new IllegalArgumentException("Snapshot de catálogo corrupto: descripción fuera del archivo en el registro " + i);
+            }
+            previous = code;
+        }
+    }
+
+    /**
+     * Catálogo compartido por la aplicación (vacío si no se cargó ninguno).
+     */
+    public static BenefitCatalog shared() {
+        return shared;
+    }
+
+    public static void installShared(BenefitCatalog catalog) {
+        shared = catalog != null ? catalog : EMPTY;
+    }
+
+    /**
+     * Aplica los deltas pendientes ({@link BenefitCatalogFormat#applyPendingDeltas}), mapea el
+     * snapshot indicado y lo instala como catálogo compartido.
+     * Si el archivo no existe o es inválido, se mantiene el catálogo vacío
+     * (la validación por catálogo queda desactivada); si falla un delta, se usa el snapshot tal cual.
+     */
+    public static void loadShared(Path snapshot) {
+        if (snapshot == null || !Files.isRegularFile(snapshot)) {
+            LOGGER.info("Catálogo de prestaciones no encontrado: " + snapshot);
+            return;
+        }
+        try {
+            BenefitCatalogFormat.applyPendingDeltas(snapshot);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudieron aplicar los deltas del catálogo; se usa el snapshot actual", e);
+        }
+        try {
+            BenefitCatalog catalog = open(snapshot);
+            installShared(catalog);
+            catalog.prewarmSearch();
+            LOGGER.info("Catálogo de prestaciones v" + catalog.getDataVersion()
+                    + " cargado (" + catalog.size() + " códigos)");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudo cargar el catálogo de prestaciones", e);
+        }
+    }
+
+    /**
+     * Materializa en segundo plano el índice de descripciones, para que la primera
+     * búsqueda desde la UI no pague ese costo.
+     */
+    public void prewarmSearch() {
+        if (isEmpty()) {
+            return;
+        }
+        Thread t = new Thread(this::normalizedDescriptions, "benefit-catalog-prewarm");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // ---------- Consultas ----------
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * @return la entrada para el código (6 dígitos), o null si no existe
+     */
+    public BenefitCatalogEntry find(String code) {
+        int key = BenefitCatalogFormat.parseCode(code);
+        if (key < 0) {
+            return null;
+        }
+        int index = lowerBound(key);
+        return index < count && codeAt(index) == key ? entryAt(index) : null;
+    }
+
+    public boolean contains(String code) {
+        int key = BenefitCatalogFormat.parseCode(code);
+        if (key < 0) {
+            return false;
+        }
+        int index = lowerBound(key);
+        return index < count && codeAt(index) == key;
+    }
+
+    /**
+     * Códigos que empiezan con el prefijo numérico dado, en orden ascendente.
+     */
+    public List<BenefitCatalogEntry> searchByCodePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > 6 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c < '0' || c > '9') {
+                return Collections.emptyList();
+            }
+        }
+
+        int scale = 1;
+        for (int i = prefix.length(); i < 6; i++) {
+            scale *= 10;
+        }
+        int from = Integer.parseInt(prefix) * scale;
+        int to = from + scale;       // exclusivo
+
+        List<BenefitCatalogEntry> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(from); i < count && codeAt(i) < to && result.size() < limit; i++) {
+            result.add(entryAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Búsqueda para autocompletado: prefijo de código si la consulta es numérica;
+     * si no, coincidencia aproximada sobre la descripción (sin acentos ni mayúsculas).
+     * <p>
+     * Orden: substring al inicio &gt; substring &gt; subsecuencia de caracteres.
+     */
+    public List<BenefitCatalogEntry> search(String query, int limit) {
+        if (query == null || limit <= 0 || isEmpty()) {
+            return Collections.emptyList();
+        }
+        String q = query.trim();
+        if (q.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (Character.isDigit(q.charAt(0))) {
+            return searchByCodePrefix(q, limit);
+        }
+
+        char[] nq = normalize(q).toCharArray();
+        char[][] descriptions = normalizedDescriptions();
+
+        // Puntaje en buckets (0 = empieza con, 1 = contiene, 2 = subsecuencia), cada uno hasta "limit"
+        int[][] buckets = new int[3][limit];
+        int[] sizes = new int[3];
+
+        for (int i = 0; i < count && sizes[0] < limit; i++) {
+            char[] d = descriptions[i];
+            int pos = indexOf(d, nq);
+            int bucket = pos == 0 ? 0 : pos > 0 ? 1 : -1;
+
+            // La subsecuencia solo se evalúa mientras pueda entrar en el resultado
+            if (bucket < 0 && sizes[0] + sizes[1] + sizes[2] < limit && isSubsequence(nq, d)) {
+                bucket = 2;
+            }
+            if (bucket >= 0 && sizes[bucket] < limit) {
+                buckets[bucket][sizes[bucket]++] = i;
+            }
+        }
+
+        List<BenefitCatalogEntry> result = new ArrayList<>(Math.min(limit, 16));
+        for (int b = 0; b < 3; b++) {
+            for (int j = 0; j < sizes[b] && result.size() < limit; j++) {
+                result.add(entryAt(buckets[b][j]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Todas las entradas, en orden de código (usado para aplicar deltas).
+     */
+    public List<BenefitCatalogEntry> entries() {
+        List<BenefitCatalogEntry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(entryAt(i));
+        }
+        return result;
+    }
+
+    // ---------- Acceso al buffer ----------
+
+    private int recordOffset(int index) {
+        return BenefitCatalogFormat.HEADER_SIZE + index * BenefitCatalogFormat.RECORD_SIZE;
+    }
+
+    private int codeAt(int index) {
+        return buffer.getInt(recordOffset(index));
+    }
+
+    private int lowerBound(int key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (codeAt(mid) < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private BenefitCatalogEntry entryAt(int index) {
+        int offset = recordOffset(index);
+        int code = buffer.getInt(offset);
+        int maxQty = buffer.get(offset + 4) & 0xFF;
+        int flags = buffer.get(offset + 5) & 0xFF;
+        return new BenefitCatalogEntry(
+                BenefitCatalogFormat.formatCode(code),
+                descriptionAt(index),
+                maxQty,
+                (flags & BenefitCatalogFormat.FLAG_DENTAL) != 0
+        );
+    }
+
+    private String descriptionAt(int index) {
+        int offset = recordOffset(index);
+        int length = buffer.getShort(offset + 6) & 0xFFFF;
+        int start = poolOffset + buffer.getInt(offset + 8);
+
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private char[][] normalizedDescriptions() {
+        char[][] result = normalizedDescriptions;
+        if (result == null) {
+            synchronized (this) {
+                result = normalizedDescriptions;
+                if (result == null) {
+                    result = new char[count][];
+                    for (int i = 0; i < count; i++) {
+                        result[i] = normalize(descriptionAt(i)).toCharArray();
+                    }
+                    normalizedDescriptions = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // ---------- Texto ----------
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static int indexOf(char[] haystack, char[] needle) {
+        int last = haystack.length - needle.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static boolean isSubsequence(char[] needle, char[] haystack) {
+        int j = 0;
+        for (int i = 0; i < haystack.length && j < needle.length; i++) {
+            if (haystack[i] == needle[j]) {
+                j++;
+            }
+        }
+        return j == needle.length;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hl7client.model.catalog;
+
+import java.util.Objects;
+
+/**
+ * Entrada del catálogo local de códigos de prestación.
+ */
+public final class BenefitCatalogEntry {
+
+    private final String code;          // 6 dígitos
+    private final String description;
+    private final int maxQuantity;      // 1..99
+    private final boolean dental;
+
+    public BenefitCatalogEntry(String code, String description, int maxQuantity, boolean dental) {
+        if (code == null || code.length() != 6) {
+            throw new IllegalArgumentException("El código de catálogo debe tener 6 dígitos: " + code);
+        }
+        if (maxQuantity < 1 || maxQuantity > 99) {
+            throw new IllegalArgumentException("Cantidad máxima fuera de rango [1..99]: " + maxQuantity);
+        }
+        this.code = code;
+        this.description = description != null ? description : "";
+        this.maxQuantity = maxQuantity;
+        this.dental = dental;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getMaxQuantity() {
+        return maxQuantity;
+    }
+
+    public boolean isDental() {
+        return dental;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BenefitCatalogEntry that = (BenefitCatalogEntry) o;
+        return maxQuantity == that.maxQuantity &&
+                dental == that.dental &&
+                code.equals(that.code) &&
+                description.equals(that.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(code, description, maxQuantity, dental);
+    }
+
+    @Override
+    public String toString() {
+        return code + " - " + description;
+    }
+}
@@ -0,0 +1,324 @@
+package com.hl7client.model.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Formatos binarios del catálogo de prestaciones (big-endian, versión de formato 1).
+ *
+ * <h3>Snapshot</h3>
+ * <pre>
+ *   header (20 bytes): magic "HL7C" | formato u16 | reservado u16 | versión datos i32 | cantidad i32 | offset pool i32
+ *   índice (12 bytes por entrada, ordenado por código):
+ *       código i32 | cantidad máx u8 | flags u8 (bit0 = odontológico) | long. descripción u16 | offset descripción i32
+ *   pool: descripciones UTF-8
+ * </pre>
+ *
+ * <h3>Delta</h3>
+ * <pre>
+ *   header (20 bytes): magic "HL7D" | formato u16 | reservado u16 | versión base i32 | versión destino i32 | operaciones i32
+ *   operación: 'U' código i32 cantidad máx u8 flags u8 long. u16 descripción UTF-8   (alta/modificación)
+ *            | 'D' código i32                                                          (baja)
+ * </pre>
+ * Un delta solo se aplica sobre un snapshot cuya versión de datos sea la versión base.
+ * Los deltas pendientes se dejan junto al snapshot con extensión {@value #DELTA_EXTENSION}
+ * ({@link #applyPendingDeltas}); el CLI ({@code hl7-cli catalogo}) genera snapshots y deltas.
+ */
+public final class BenefitCatalogFormat {
+
+    static final int SNAPSHOT_MAGIC = 0x484C3743;   // "HL7C"
+    static final int DELTA_MAGIC = 0x484C3744;      // "HL7D"
+    static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_SIZE = 20;
+    static final int HEADER_DATA_VERSION = 8;
+    static final int HEADER_COUNT = 12;
+    static final int HEADER_POOL_OFFSET = 16;
+
+    static final int RECORD_SIZE = 12;
+    static final int FLAG_DENTAL = 1;
+
+    public static final String DELTA_EXTENSION = ".hl7d";
+
+    private static final byte OP_UPSERT = 'U';
+    private static final byte OP_DELETE = 'D';
+
+    private BenefitCatalogFormat() {
+    }
+
+    // ---------- Snapshot ----------
+
+    /**
+     * Escribe un snapshot completo (reemplazo atómico del archivo destino).
+     */
+    public static void writeSnapshot(Collection<BenefitCatalogEntry> entries, int dataVersion, Path target)
+            throws IOException {
+        TreeMap<Integer, BenefitCatalogEntry> sorted = new TreeMap<>();
+        for (BenefitCatalogEntry e : entries) {
+            sorted.put(parseRequiredCode(e.getCode()), e);
+        }
+
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        ByteArrayOutputStream index = new ByteArrayOutputStream(sorted.size() * RECORD_SIZE);
+        DataOutputStream idx = new DataOutputStream(index);
+
+        for (Map.Entry<Integer, BenefitCatalogEntry> e : sorted.entrySet()) {
+            byte[] desc = descriptionBytes(e.getValue());
+            idx.writeInt(e.getKey());
+            idx.writeByte(e.getValue().getMaxQuantity());
+            idx.writeByte(e.getValue().isDental() ? FLAG_DENTAL : 0);
+            idx.writeShort(desc.length);
+            idx.writeInt(pool.size());
+            pool.write(desc);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + index.size() + pool.size());
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(SNAPSHOT_MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeShort(0);
+        data.writeInt(dataVersion);
+        data.writeInt(sorted.size());
+        data.writeInt(HEADER_SIZE + index.size());
+        index.writeTo(data);
+        pool.writeTo(data);
+        data.flush();
+
+        writeAtomically(out.toByteArray(), target);
+    }
+
+    // ---------- Delta ----------
+
+    /**
+     * Escribe un delta entre dos versiones.
+     *
+     * @param upserts altas y modificaciones
+     * @param deletes códigos dados de baja
+     */
+    public static void writeDelta(
+            int baseVersion,
+            int targetVersion,
+            Collection<BenefitCatalogEntry> upserts,
+            Collection<String> deletes,
+            Path target
+    ) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+
+        data.writeInt(DELTA_MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeShort(0);
+        data.writeInt(baseVersion);
+        data.writeInt(targetVersion);
+        data.writeInt(upserts.size() + deletes.size());
+
+        for (BenefitCatalogEntry e : upserts) {
+            byte[] desc = descriptionBytes(e);
+            data.writeByte(OP_UPSERT);
+            data.writeInt(parseRequiredCode(e.getCode()));
+            data.writeByte(e.getMaxQuantity());
+            data.writeByte(e.isDental() ? FLAG_DENTAL : 0);
+            data.writeShort(desc.length);
+            data.write(desc);
+        }
+        for (String code : deletes) {
+            data.writeByte(OP_DELETE);
+            data.writeInt(parseRequiredCode(code));
+        }
+        data.flush();
+
+        writeAtomically(out.toByteArray(), target);
+    }
+
+    /**
+     * Aplica un delta sobre un snapshot y escribe el snapshot resultante.
+     * {@code snapshot} y {@code target} pueden ser el mismo archivo.
+     *
+     * @return versión de datos del snapshot resultante
+     * @throws IllegalArgumentException si el delta no corresponde a la versión del snapshot
+     */
+    public static int applyDelta(Path snapshot, Path delta, Path target) throws IOException {
+        BenefitCatalog base = BenefitCatalog.fromBuffer(ByteBuffer.wrap(Files.readAllBytes(snapshot)));
+        ByteBuffer d = ByteBuffer.wrap(Files.readAllBytes(delta));
+        TreeMap<Integer, BenefitCatalogEntry> merged = new TreeMap<>();
+        for (BenefitCatalogEntry e : base.entries()) {
+            merged.put(parseRequiredCode(e.getCode()), e);
+        }
+
+        int targetVersion;
+        try {
+            targetVersion = applyOperations(d, base.getDataVersion(), merged);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Delta de catálogo truncado: " + delta);
+        }
+
+        writeSnapshot(merged.values(), targetVersion, target);
+        return targetVersion;
+    }
+
+    /**
+     * Aplica en cadena, sobre el mismo archivo, los deltas {@value #DELTA_EXTENSION} del directorio
+     * del snapshot: primero el de versión base igual a la del snapshot, luego el que parte de la
+     * versión resultante, y así. Los deltas de versiones ya aplicadas se ignoran.
+     *
+     * @return versión de datos resultante
+     * @throws IllegalArgumentException si un delta es inválido o dos parten de la misma versión
+     */
+    public static int applyPendingDeltas(Path snapshot) throws IOException {
+        ByteBuffer header = readHeader(snapshot);
+        checkHeader(header, SNAPSHOT_MAGIC);
+        int version = header.getInt(HEADER_DATA_VERSION);
+
+        Map<Integer, Path> byBase = new HashMap<>();
+        Path dir = snapshot.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + DELTA_EXTENSION)) {
+            for (Path file : files) {
+                ByteBuffer h = readHeader(file);
+                checkHeader(h, DELTA_MAGIC);
+                Path previous = byBase.put(h.getInt(8), file);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Dos deltas parten de la versión " + h.getInt(8)
+                            + ": " + previous.getFileName() + ", " + file.getFileName());
+                }
+            }
+        }
+
+        Path delta;
+        while ((delta = byBase.remove(version)) != null) {
+            version = applyDelta(snapshot, delta, snapshot);
+        }
+        return version;
+    }
+
+    private static int applyOperations(ByteBuffer d, int snapshotVersion, Map<Integer, BenefitCatalogEntry> merged) {
+        checkHeader(d, DELTA_MAGIC);
+        int baseVersion = d.getInt(8);
+        int targetVersion = d.getInt(12);
+        int operations = d.getInt(16);
+
+        if (baseVersion != snapshotVersion) {
+            throw new IllegalArgumentException(
+                    "Delta para versión " + baseVersion + ", snapshot en versión " + snapshotVersion);
+        }
+        if (operations < 0) {
+            throw new IllegalArgumentException("Delta de catálogo corrupto: " + operations + " operaciones");
+        }
+
+        d.position(HEADER_SIZE);
+        for (int i = 0; i < operations; i++) {
+            byte op = d.get();
+            int code = d.getInt();
+            if (op == OP_DELETE) {
+                merged.remove(code);
+            } else if (op == OP_UPSERT) {
+                int maxQty = d.get() & 0xFF;
+                int flags = d.get() & 0xFF;
+                byte[] desc = new byte[d.getShort() & 0xFFFF];
+                d.get(desc);
+                merged.put(code, new BenefitCatalogEntry(
+                        formatCode(code),
+                        new String(desc, StandardCharsets.UTF_8),
+                        maxQty,
+                        (flags & FLAG_DENTAL) != 0
+                ));
+            } else {
+                throw new IllegalArgumentException("Operación de delta desconocida: " + op);
+            }
+        }
+        if (d.hasRemaining()) {
+            throw new IllegalArgumentException("Delta de catálogo corrupto: " + d.remaining() + " bytes sobrantes");
+        }
+        return targetVersion;
+    }
+
+    // ---------- Helpers ----------
+
+    private static ByteBuffer readHeader(Path file) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        int read = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while (read < HEADER_SIZE && (n = in.read(header, read, HEADER_SIZE - read)) > 0) {
+                read += n;
+            }
+        }
+        return ByteBuffer.wrap(header, 0, read).slice();
+    }
+
+    static void checkHeader(ByteBuffer buffer, int magic) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != magic) {
+            throw new IllegalArgumentException("Archivo de catálogo inválido (magic)");
+        }
+        int format = buffer.getShort(4) & 0xFFFF;
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Versión de formato de catálogo no soportada: " + format);
+        }
+    }
+
+    /**
+     * @return el código como entero, o -1 si no son exactamente 6 dígitos
+     */
+    static int parseCode(String code) {
+        if (code == null || code.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    static String formatCode(int code) {
+        char[] chars = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            chars[i] = (char) ('0' + code % 10);
+            code /= 10;
+        }
+        return new String(chars);
+    }
+
+    private static int parseRequiredCode(String code) {
+        int value = parseCode(code);
+        if (value < 0) {
+            throw new IllegalArgumentException("Código de catálogo inválido: " + code);
+        }
+        return value;
+    }
+
+    private static byte[] descriptionBytes(BenefitCatalogEntry entry) {
+        byte[] desc = entry.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (desc.length > 0xFFFF) {
+            throw new IllegalArgumentException("Descripción demasiado larga para " + entry.getCode());
+        }
+        return desc;
+    }
+
+    private static void writeAtomically(byte[] content, Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, "catalog", ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
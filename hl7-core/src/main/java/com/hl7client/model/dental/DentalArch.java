@@ -0,0 +1,20 @@
+package com.hl7client.model.dental;
+
+/**
+ * Arcada dental según el cuadrante FDI.
+ */
+public enum DentalArch {
+    SUPERIOR,   // cuadrantes 1, 2, 5, 6
+    INFERIOR;   // cuadrantes 3, 4, 7, 8
+
+    public static DentalArch ofQuadrant(int quadrant) {
+        switch (quadrant) {
+            case 1: case 2: case 5: case 6:
+                return SUPERIOR;
+            case 3: case 4: case 7: case 8:
+                return INFERIOR;
+            default:
+                throw new IllegalArgumentException("Cuadrante FDI inválido: " + quadrant);
+        }
+    }
+}
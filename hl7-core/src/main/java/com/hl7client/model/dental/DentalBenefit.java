@@ -65,6 +65,15 @@ public final class DentalBenefit implements BenefitItem {
         return value.length();
     }
 
+    /**
+     * Segmento HL7 sin el total inicial ("1^"), para empaquetar varias
+     * prestaciones odontológicas en una misma registración.
+     * Ej: "*35*V*O020801*P*1**"
+     */
+    public String getSegment() {
+        return value.substring(2);
+    }
+
     /**
      * Construye el string HL7 en el formato esperado.
      * Maneja correctamente pieza null y superficies vacías.
@@ -0,0 +1,118 @@
+package com.hl7client.model.dental;
+
+import static com.hl7client.model.dental.DentalPieceType.*;
+
+public enum DentalPiece {
+
+    P11(INCISIVO), P12(INCISIVO),
+    P13(CANINO),
+    P14(PREMOLAR), P15(PREMOLAR),
+    P16(MOLAR), P17(MOLAR), P18(MOLAR),
+
+    P21(INCISIVO), P22(INCISIVO),
+    P23(CANINO),
+    P24(PREMOLAR), P25(PREMOLAR),
+    P26(MOLAR), P27(MOLAR), P28(MOLAR),
+
+    P31(INCISIVO), P32(INCISIVO),
+    P33(CANINO),
+    P34(PREMOLAR), P35(PREMOLAR),
+    P36(MOLAR), P37(MOLAR), P38(MOLAR),
+
+    P41(INCISIVO), P42(INCISIVO),
+    P43(CANINO),
+    P44(PREMOLAR), P45(PREMOLAR),
+    P46(MOLAR), P47(MOLAR), P48(MOLAR),
+
+    // Temporales / deciduos (sin premolares)
+    P51(INCISIVO), P52(INCISIVO),
+    P53(CANINO),
+    P54(MOLAR), P55(MOLAR),
+
+    P61(INCISIVO), P62(INCISIVO),
+    P63(CANINO),
+    P64(MOLAR), P65(MOLAR),
+
+    P71(INCISIVO), P72(INCISIVO),
+    P73(CANINO),
+    P74(MOLAR), P75(MOLAR),
+
+    P81(INCISIVO), P82(INCISIVO),
+    P83(CANINO),
+    P84(MOLAR), P85(MOLAR);
+
+    private static final int MAX_FDI = 85;
+
+    // Índice directo por número FDI (posiciones sin pieza quedan en null)
+    private static final DentalPiece[] BY_FDI = new DentalPiece[MAX_FDI + 1];
+
+    static {
+        for (DentalPiece piece : values()) {
+            BY_FDI[piece.fdi] = piece;
+        }
+    }
+
+    private final DentalPieceType type;
+    private final int fdi;
+    private final String fdiCode;
+
+    DentalPiece(DentalPieceType type) {
+        this.type = type;
+        this.fdiCode = name().substring(1);
+        this.fdi = Integer.parseInt(fdiCode);
+    }
+
+    // =====================
+    // API pública
+    // =====================
+
+    public DentalPieceType getType() {
+        return type;
+    }
+
+    /**
+     * Código FDI (ej: 11, 26, 48)
+     */
+    public String getFdiCode() {
+        return fdiCode;
+    }
+
+    /**
+     * Número FDI (ej: 11, 26, 84)
+     */
+    public int getFdi() {
+        return fdi;
+    }
+
+    /**
+     * Cuadrante FDI (1..4 permanentes, 5..8 temporales)
+     */
+    public int getQuadrant() {
+        return fdi / 10;
+    }
+
+    public DentalArch getArch() {
+        return DentalArch.ofQuadrant(getQuadrant());
+    }
+
+    /**
+     * Indica si es una pieza temporal / decidua (51..85)
+     */
+    public boolean isTemporary() {
+        return fdi >= 51;
+    }
+
+    /**
+     * Factory segura desde número FDI
+     *
+     * @param fdi 11..48 (permanentes) o 51..85 (temporales)
+     * @return DentalPiece correspondiente
+     */
+    public static DentalPiece fromFdi(int fdi) {
+        DentalPiece piece = fdi >= 0 && fdi <= MAX_FDI ? BY_FDI[fdi] : null;
+        if (piece == null) {
+            throw new IllegalArgumentException("Código FDI inválido o no soportado: " + fdi);
+        }
+        return piece;
+    }
+}
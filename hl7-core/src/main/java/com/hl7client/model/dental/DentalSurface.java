@@ -43,6 +43,39 @@ public enum DentalSurface {
         return null;
     }
 
+    /**
+     * Igual que {@link #fromCode(String)} pero sobre un único carácter (sin crear strings).
+     * @return la superficie correspondiente o null si no existe
+     */
+    public static DentalSurface fromCode(char code) {
+        for (DentalSurface surface : values()) {
+            if (surface.code.charAt(0) == code) {
+                return surface;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bit de esta superficie dentro de una máscara de superficies.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Máscara de bits del conjunto (bit {@code ordinal()} por superficie).
+     */
+    public static int toMask(Set<DentalSurface> surfaces) {
+        int mask = 0;
+        if (surfaces != null) {
+            for (DentalSurface surface : surfaces) {
+                mask |= surface.bit();
+            }
+        }
+        return mask;
+    }
+
     /**
      * Versión conveniente para convertir un string de superficies (ej: "VML")
      * en conjunto de DentalSurface.
@@ -54,7 +87,7 @@ public enum DentalSurface {
             return result;
         }
         for (char c : codes.toCharArray()) {
-            DentalSurface surface = fromCode(String.valueOf(c));
+            DentalSurface surface = fromCode(c);
             if (surface != null) {
                 result.add(surface);
             }
@@ -0,0 +1,265 @@
+package com.hl7client.model.dental;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Define las reglas de validación para combinaciones válidas de superficies dentales
+ * según el tipo de pieza (basado en estándares FDI/ISO 3950 y observaciones clínicas).
+ * <p>
+ * Reglas implementadas:
+ * <ul>
+ *   <li>Dientes anteriores (incisivos, caninos): M, D, V, L, I, P</li>
+ *   <li>Dientes posteriores (premolares, molares): M, D, V, L, O, P</li>
+ *   <li>Máximo 3 superficies por prestación</li>
+ *   <li>No se permite combinar Oclusal (O) e Incisal (I)</li>
+ *   <li>Sin pieza → no se permiten superficies</li>
+ * </ul>
+ * Las reglas se evalúan una única vez al cargar la clase sobre todas las combinaciones
+ * pieza × subconjunto de superficies (permanentes y temporales); validar es un acceso
+ * a tabla, y los mensajes de error se arman solo la primera vez que se necesitan.
+ */
+public final class DentalSurfaceMatrix {
+
+    // Máscaras de superficies permitidas por grupo de dientes (bit = DentalSurface.ordinal())
+    private static final int ANTERIORES = mask(EnumSet.of(
+            DentalSurface.MESIAL,
+            DentalSurface.DISTAL,
+            DentalSurface.VESTIBULAR,
+            DentalSurface.LINGUAL,
+            DentalSurface.INCISAL,
+            DentalSurface.PALATAL
+    ));
+
+    private static final int POSTERIORES = mask(EnumSet.of(
+            DentalSurface.MESIAL,
+            DentalSurface.DISTAL,
+            DentalSurface.VESTIBULAR,
+            DentalSurface.LINGUAL,
+            DentalSurface.OCCLUSAL,
+            DentalSurface.PALATAL
+    ));
+
+    // Reglas globales
+    private static final int MAX_SURFACES_ALLOWED = 3;
+    private static final int MUTUALLY_EXCLUSIVE = mask(EnumSet.of(
+            DentalSurface.OCCLUSAL,
+            DentalSurface.INCISAL
+    ));
+
+    // Violaciones (bits de la tabla)
+    private static final byte SURFACES_WITHOUT_PIECE = 1;
+    private static final byte SURFACE_NOT_ALLOWED = 1 << 1;
+    private static final byte TOO_MANY_SURFACES = 1 << 2;
+    private static final byte EXCLUSIVE_SURFACES = 1 << 3;
+
+    private static final DentalSurface[] SURFACES = DentalSurface.values();
+    private static final DentalPiece[] PIECES = DentalPiece.values();
+
+    private static final int SUBSETS = 1 << SURFACES.length;
+    private static final int NO_PIECE = PIECES.length;     // fila para pieza == null
+
+    // Máscara de superficies permitidas por fila (pieza o NO_PIECE)
+    private static final int[] ALLOWED = new int[PIECES.length + 1];
+
+    // Superficies permitidas como Set inmutable, por fila
+    private static final List<Set<DentalSurface>> ALLOWED_SETS = new ArrayList<>(PIECES.length + 1);
+
+    // VIOLATIONS[fila][máscara] = bits de reglas violadas (0 = válido)
+    private static final byte[][] VIOLATIONS = new byte[PIECES.length + 1][SUBSETS];
+
+    // Resultados con errores, construidos al primer uso (los válidos comparten OK)
+    private static final DentalValidationResult[][] RESULTS = new DentalValidationResult[PIECES.length + 1][];
+
+    private static final DentalValidationResult OK = DentalValidationResult.ok();
+
+    static {
+        for (int row = 0; row <= NO_PIECE; row++) {
+            int allowed = row == NO_PIECE ? 0 : allowedFor(PIECES[row].getType());
+            ALLOWED[row] = allowed;
+            ALLOWED_SETS.add(Collections.unmodifiableSet(toSet(allowed)));
+
+            for (int m = 0; m < SUBSETS; m++) {
+                VIOLATIONS[row][m] = evaluate(row == NO_PIECE, allowed, m);
+            }
+        }
+    }
+
+    /**
+     * Retorna el conjunto de superficies permitidas para una pieza dada.
+     *
+     * @param piece pieza dental (puede ser null)
+     * @return conjunto inmutable de superficies permitidas (vacío si piece == null)
+     */
+    public static Set<DentalSurface> getAllowedSurfacesFor(DentalPiece piece) {
+        return ALLOWED_SETS.get(row(piece));
+    }
+
+    /**
+     * Máscara de superficies permitidas para la pieza (ver {@link DentalSurface#bit()}).
+     */
+    public static int getAllowedMaskFor(DentalPiece piece) {
+        return ALLOWED[row(piece)];
+    }
+
+    /**
+     * Indica si la superficie está permitida para la pieza.
+     */
+    public static boolean isAllowed(DentalPiece piece, DentalSurface surface) {
+        return surface != null && (ALLOWED[row(piece)] & surface.bit()) != 0;
+    }
+
+    /**
+     * Valida si la combinación de pieza + superficies es odontológicamente válida.
+     * <p>
+     * Reglas aplicadas (estrictas):
+     * <ul>
+     *   <li>Sin pieza → superficies deben estar vacías</li>
+     *   <li>Con pieza → todas las superficies deben estar permitidas para ese tipo</li>
+     *   <li>Máximo {@value #MAX_SURFACES_ALLOWED} superficies</li>
+     *   <li>No combinar Oclusal e Incisal</li>
+     * </ul>
+     *
+     * @param piece             pieza seleccionada (puede ser null)
+     * @param selectedSurfaces  conjunto de superficies marcadas (null = ninguna)
+     * @return resultado de validación (puede contener múltiples mensajes de error)
+     */
+    public static DentalValidationResult validate(
+            DentalPiece piece,
+            Set<DentalSurface> selectedSurfaces
+    ) {
+        return validate(piece, DentalSurface.toMask(selectedSurfaces));
+    }
+
+    /**
+     * Igual que {@link #validate(DentalPiece, Set)} sobre una máscara de superficies.
+     */
+    public static DentalValidationResult validate(DentalPiece piece, int surfaceMask) {
+        if (surfaceMask < 0 || surfaceMask >= SUBSETS) {
+            throw new IllegalArgumentException("Máscara de superficies inválida: " + surfaceMask);
+        }
+        int row = row(piece);
+        if (VIOLATIONS[row][surfaceMask] == 0) {
+            return OK;
+        }
+
+        DentalValidationResult[] results = RESULTS[row];
+        if (results == null) {
+            results = new DentalValidationResult[SUBSETS];
+            RESULTS[row] = results;
+        }
+        DentalValidationResult result = results[surfaceMask];
+        if (result == null) {
+            // Carrera benigna: dos hilos pueden construir el mismo resultado inmutable
+            result = DentalValidationResult.errors(buildErrors(piece, row, surfaceMask));
+            results[surfaceMask] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Indica si la combinación es válida, sin construir el resultado.
+     */
+    public static boolean isValid(DentalPiece piece, int surfaceMask) {
+        return surfaceMask >= 0 && surfaceMask < SUBSETS && VIOLATIONS[row(piece)][surfaceMask] == 0;
+    }
+
+    // ---------- Construcción de la tabla ----------
+
+    private static byte evaluate(boolean noPiece, int allowed, int m) {
+        // Regla 1: sin pieza → prohibido tener superficies
+        if (noPiece) {
+            return m != 0 ? SURFACES_WITHOUT_PIECE : 0;
+        }
+
+        byte violations = 0;
+
+        // Regla 2: superficies permitidas según tipo de diente
+        if ((m & ~allowed) != 0) {
+            violations |= SURFACE_NOT_ALLOWED;
+        }
+
+        // Regla 3: límite máximo de superficies
+        if (Integer.bitCount(m) > MAX_SURFACES_ALLOWED) {
+            violations |= TOO_MANY_SURFACES;
+        }
+
+        // Regla 4: incompatibilidades explícitas
+        if ((m & MUTUALLY_EXCLUSIVE) == MUTUALLY_EXCLUSIVE) {
+            violations |= EXCLUSIVE_SURFACES;
+        }
+
+        // → Aquí se pueden agregar más reglas específicas en el futuro
+
+        return violations;
+    }
+
+    private static List<String> buildErrors(DentalPiece piece, int row, int m) {
+        byte violations = VIOLATIONS[row][m];
+        List<String> errors = new ArrayList<>();
+
+        if ((violations & SURFACES_WITHOUT_PIECE) != 0) {
+            errors.add("No se pueden seleccionar superficies sin elegir una pieza dental.");
+        }
+        if ((violations & SURFACE_NOT_ALLOWED) != 0) {
+            int notAllowed = m & ~ALLOWED[row];
+            for (DentalSurface surface : SURFACES) {
+                if ((notAllowed & surface.bit()) != 0) {
+                    errors.add(String.format(
+                            "La superficie %s (%s) no está permitida en la pieza %s (%s)",
+                            surface.name(), surface.getCode(),
+                            piece.getFdiCode(), piece.getType().name().toLowerCase()
+                    ));
+                }
+            }
+        }
+        if ((violations & TOO_MANY_SURFACES) != 0) {
+            errors.add(String.format(
+                    "Máximo permitido: %d superficies por prestación (seleccionadas: %d)",
+                    MAX_SURFACES_ALLOWED, Integer.bitCount(m)
+            ));
+        }
+        if ((violations & EXCLUSIVE_SURFACES) != 0) {
+            errors.add("No se puede combinar Oclusal (O) e Incisal (I) en la misma prestación.");
+        }
+        return errors;
+    }
+
+    private static int allowedFor(DentalPieceType type) {
+        switch (type) {
+            case INCISIVO:
+            case CANINO:
+                return ANTERIORES;
+            case PREMOLAR:
+            case MOLAR:
+                return POSTERIORES;
+            default:
+                return 0;
+        }
+    }
+
+    private static int row(DentalPiece piece) {
+        return piece == null ? NO_PIECE : piece.ordinal();
+    }
+
+    private static int mask(Set<DentalSurface> surfaces) {
+        return DentalSurface.toMask(surfaces);
+    }
+
+    private static Set<DentalSurface> toSet(int m) {
+        Set<DentalSurface> set = EnumSet.noneOf(DentalSurface.class);
+        for (DentalSurface surface : DentalSurface.values()) {
+            if ((m & surface.bit()) != 0) {
+                set.add(surface);
+            }
+        }
+        return set;
+    }
+
+    private DentalSurfaceMatrix() {
+        // Clase utilitaria → no instanciable
+    }
+}
@@ -10,10 +10,12 @@ import java.util.List;
  * <p>
  * Cada entrada contiene:
  * <ul>
- *   <li>FDI numérico</li>
+ *   <li>FDI numérico y su texto</li>
  *   <li>Descripción anatómica clara</li>
  *   <li>Tipo de diente (para validaciones de superficies)</li>
+ *   <li>Cuadrante, arcada y {@link DentalPiece} correspondiente</li>
  * </ul>
+ * {@link #findByFdi(int)} es un acceso directo a un arreglo indexado por número FDI.
  */
 public final class DentalToothData {
 
@@ -22,13 +24,26 @@ public final class DentalToothData {
      */
     public static class ToothEntry {
         public final int fdi;
+        public final String fdiCode;
         public final String description;
         public final DentalPieceType type;
+        public final int quadrant;
+        public final DentalArch arch;
+        public final boolean temporary;
+        public final DentalPiece piece;
 
         public ToothEntry(int fdi, String description, DentalPieceType type) {
+            this.piece = DentalPiece.fromFdi(fdi);
+            if (piece.getType() != type) {
+                throw new IllegalArgumentException("Tipo inconsistente para la pieza " + fdi + ": " + type);
+            }
             this.fdi = fdi;
+            this.fdiCode = piece.getFdiCode();
             this.description = description;
             this.type = type;
+            this.quadrant = piece.getQuadrant();
+            this.arch = piece.getArch();
+            this.temporary = piece.isTemporary();
         }
 
         @Override
@@ -103,6 +118,20 @@ public final class DentalToothData {
             new ToothEntry(85, "Segundo molar inferior derecho temporal", DentalPieceType.MOLAR)
     ));
 
+    private static final int MAX_FDI = 85;
+
+    // Índice denso por número FDI (11..48 y 51..85); posiciones sin pieza en null
+    private static final ToothEntry[] BY_FDI = new ToothEntry[MAX_FDI + 1];
+
+    static {
+        for (ToothEntry entry : PERMANENT_TEETH) {
+            BY_FDI[entry.fdi] = entry;
+        }
+        for (ToothEntry entry : TEMPORARY_TEETH) {
+            BY_FDI[entry.fdi] = entry;
+        }
+    }
+
     /**
      * Obtiene la lista de piezas dentales según el tipo de dentición.
      *
@@ -120,13 +149,14 @@ public final class DentalToothData {
      * @return ToothEntry si existe, o null si no se encuentra
      */
     public static ToothEntry findByFdi(int fdi) {
-        for (ToothEntry entry : PERMANENT_TEETH) {
-            if (entry.fdi == fdi) return entry;
-        }
-        for (ToothEntry entry : TEMPORARY_TEETH) {
-            if (entry.fdi == fdi) return entry;
-        }
-        return null;
+        return fdi >= 0 && fdi <= MAX_FDI ? BY_FDI[fdi] : null;
+    }
+
+    /**
+     * Entrada correspondiente a la pieza (nunca null: el catálogo cubre todas las piezas).
+     */
+    public static ToothEntry of(DentalPiece piece) {
+        return BY_FDI[piece.getFdi()];
     }
 
     private DentalToothData() {
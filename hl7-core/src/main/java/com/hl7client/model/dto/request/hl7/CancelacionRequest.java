@@ -159,4 +159,120 @@ public class CancelacionRequest {
     public void setCancelModo(String cancelModo) {
         this.cancelModo = cancelModo;
     }
+
+    // ---------- BUILDER ----------
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder con validación local de obligatorios, anchos de columna y formatos numéricos.
+     * Ver {@link RegistracionRequest.Builder}.
+     */
+    public static final class Builder {
+
+        private CancelacionRequest target = new CancelacionRequest();
+
+        private Builder() {
+        }
+
+        public Builder modo(String modo) {
+            target().modo = modo;
+            return this;
+        }
+
+        public Builder creden(Long creden) {
+            target().creden = creden;
+            return this;
+        }
+
+        public Builder tipo(Integer tipo) {
+            target().tipo = tipo;
+            return this;
+        }
+
+        public Builder alta(String alta) {
+            target().alta = alta;
+            return this;
+        }
+
+        public Builder manual(Manual manual) {
+            target().manual = manual;
+            return this;
+        }
+
+        public Builder ticketExt(Integer ticketExt) {
+            target().ticketExt = ticketExt;
+            return this;
+        }
+
+        public Builder cancelCab(Integer cancelCab) {
+            target().cancelCab = cancelCab;
+            return this;
+        }
+
+        public Builder cancelModo(String cancelModo) {
+            target().cancelModo = cancelModo;
+            return this;
+        }
+
+        public Builder errorExt(Integer errorExt) {
+            target().errorExt = errorExt;
+            return this;
+        }
+
+        public Builder termId(String termId) {
+            target().termId = termId;
+            return this;
+        }
+
+        public Builder interNro(Integer interNro) {
+            target().interNro = interNro;
+            return this;
+        }
+
+        public Builder cuit(Long cuit) {
+            target().cuit = cuit;
+            return this;
+        }
+
+        public Builder params(String param1, String param2) {
+            CancelacionRequest r = target();
+            r.param1 = param1;
+            r.param2 = param2;
+            return this;
+        }
+
+        /**
+         * Valida y devuelve el request.
+         *
+         * @throws IllegalArgumentException con todos los errores encontrados
+         * @throws IllegalStateException    si el builder ya fue utilizado
+         */
+        public CancelacionRequest build() {
+            CancelacionRequest r = target();
+
+            new Hl7FieldValidator("CancelacionRequest")
+                    .required("modo", r.modo).maxLength("modo", r.modo, 1)
+                    .required("creden", r.creden).range("creden", r.creden, 1, Long.MAX_VALUE)
+                    .required("tipo", r.tipo).range("tipo", r.tipo, 0, Hl7FieldValidator.TINYINT_MAX)
+                    .maxLength("cancelModo", r.cancelModo, 1)
+                    .maxLength("termId", r.termId, 20)
+                    .range("cuit", r.cuit, 0, Long.MAX_VALUE)
+                    .maxLength("param1", r.param1, 255).printableAscii("param1", r.param1)
+                    .maxLength("param2", r.param2, 255).printableAscii("param2", r.param2)
+                    .throwIfInvalid();
+
+            target = null;
+            return r;
+        }
+
+        private CancelacionRequest target() {
+            if (target == null) {
+                throw new IllegalStateException("El builder ya fue utilizado");
+            }
+            return target;
+        }
+    }
 }
@@ -0,0 +1,245 @@
+package com.hl7client.model.dto.request.hl7;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ElegibilidadRequest {
+
+    // --- Datos de operación ---
+    private String modo;   // char(1)
+    private String creden;           // char(19)
+    private String alta;             // yyyy-MM-dd'T'HH:mm:ss
+    private String fecdif;           // yyyy-MM-dd
+    private Manual manual;        // char(1)
+
+    // --- Datos técnicos ---
+    private Integer ticketExt;
+    private String termId;
+    private Integer interNro;
+
+    // --- Prestador ---
+    private String cuit;
+    private String oriMatri;
+
+    // --- Resultado previo ---
+    private Integer autoriz;
+    private Integer rechaExt;
+
+    // ---------- GETTERS ----------
+    @SuppressWarnings({"unused"})
+    public String getModo() {
+        return modo;
+    }
+
+    @SuppressWarnings({"unused"})
+    public String getCreden() {
+        return creden;
+    }
+
+    @SuppressWarnings({"unused"})
+    public String getAlta() {
+        return alta;
+    }
+
+    @SuppressWarnings({"unused"})
+    public String getFecdif() {
+        return fecdif;
+    }
+
+    @SuppressWarnings({"unused"})
+    public Manual getManual() {
+        return manual;
+    }
+
+    @SuppressWarnings({"unused"})
+    public Integer getTicketExt() {
+        return ticketExt;
+    }
+
+    @SuppressWarnings({"unused"})
+    public String getTermId() {
+        return termId;
+    }
+
+    @SuppressWarnings({"unused"})
+    public Integer getInterNro() {
+        return interNro;
+    }
+
+    @SuppressWarnings({"unused"})
+    public String getCuit() {
+        return cuit;
+    }
+
+    @SuppressWarnings({"unused"})
+    public String getOriMatri() {
+        return oriMatri;
+    }
+
+    @SuppressWarnings({"unused"})
+    public Integer getAutoriz() {
+        return autoriz;
+    }
+
+    @SuppressWarnings({"unused"})
+    public Integer getRechaExt() {
+        return rechaExt;
+    }
+
+    // ---------- SETTERS ----------
+    public void setModo(String modo) {
+        this.modo = modo;
+    }
+
+    public void setCreden(String creden) {
+        this.creden = creden;
+    }
+
+    public void setAlta(String alta) {
+        this.alta = alta;
+    }
+
+    public void setFecdif(String fecdif) {
+        this.fecdif = fecdif;
+    }
+
+    public void setManual(Manual manual) {
+        this.manual = manual;
+    }
+
+    public void setTicketExt(Integer ticketExt) {
+        this.ticketExt = ticketExt;
+    }
+
+    public void setTermId(String termId) {
+        this.termId = termId;
+    }
+
+    public void setInterNro(Integer interNro) {
+        this.interNro = interNro;
+    }
+
+    public void setCuit(String cuit) {
+        this.cuit = cuit;
+    }
+
+    public void setOriMatri(String oriMatri) {
+        this.oriMatri = oriMatri;
+    }
+
+    public void setAutoriz(Integer autoriz) {
+        this.autoriz = autoriz;
+    }
+
+    public void setRechaExt(Integer rechaExt) {
+        this.rechaExt = rechaExt;
+    }
+
+    // ---------- BUILDER ----------
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder con validación local de obligatorios, anchos de columna y formatos numéricos.
+     * Ver {@link RegistracionRequest.Builder}.
+     */
+    public static final class Builder {
+
+        private ElegibilidadRequest target = new ElegibilidadRequest();
+
+        private Builder() {
+        }
+
+        public Builder modo(String modo) {
+            target().modo = modo;
+            return this;
+        }
+
+        public Builder creden(String creden) {
+            target().creden = creden;
+            return this;
+        }
+
+        public Builder alta(String alta) {
+            target().alta = alta;
+            return this;
+        }
+
+        public Builder fecdif(String fecdif) {
+            target().fecdif = fecdif;
+            return this;
+        }
+
+        public Builder manual(Manual manual) {
+            target().manual = manual;
+            return this;
+        }
+
+        public Builder ticketExt(Integer ticketExt) {
+            target().ticketExt = ticketExt;
+            return this;
+        }
+
+        public Builder termId(String termId) {
+            target().termId = termId;
+            return this;
+        }
+
+        public Builder interNro(Integer interNro) {
+            target().interNro = interNro;
+            return this;
+        }
+
+        public Builder cuit(String cuit) {
+            target().cuit = cuit;
+            return this;
+        }
+
+        public Builder oriMatri(String oriMatri) {
+            target().oriMatri = oriMatri;
+            return this;
+        }
+
+        public Builder autoriz(Integer autoriz) {
+            target().autoriz = autoriz;
+            return this;
+        }
+
+        public Builder rechaExt(Integer rechaExt) {
+            target().rechaExt = rechaExt;
+            return this;
+        }
+
+        /**
+         * Valida y devuelve el request.
+         *
+         * @throws IllegalArgumentException con todos los errores encontrados
+         * @throws IllegalStateException    si el builder ya fue utilizado
+         */
+        public ElegibilidadRequest build() {
+            ElegibilidadRequest r = target();
+
+            new Hl7FieldValidator("ElegibilidadRequest")
+                    .required("modo", r.modo).maxLength("modo", r.modo, 1)
+                    .required("creden", r.creden).maxLength("creden", r.creden, 19).digits("creden", r.creden)
+                    .maxLength("fecdif", r.fecdif, 10)
+                    .maxLength("termId", r.termId, 20)
+                    .maxLength("cuit", r.cuit, 40)
+                    .maxLength("oriMatri", r.oriMatri, 10)
+                    .range("rechaExt", r.rechaExt, Hl7FieldValidator.SMALLINT_MIN, Hl7FieldValidator.SMALLINT_MAX)
+                    .throwIfInvalid();
+
+            target = null;
+            return r;
+        }
+
+        private ElegibilidadRequest target() {
+            if (target == null) {
+                throw new IllegalStateException("El builder ya fue utilizado");
+            }
+            return target;
+        }
+    }
+}
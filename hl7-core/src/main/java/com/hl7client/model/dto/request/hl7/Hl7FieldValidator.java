@@ -0,0 +1,106 @@
+package com.hl7client.model.dto.request.hl7;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acumulador de validaciones locales para los requests HL7.
+ * <p>
+ * Los builders de {@link RegistracionRequest}, {@link ElegibilidadRequest} y
+ * {@link CancelacionRequest} recorren todos sus campos una sola vez y registran
+ * aquí cada violación (obligatorio, ancho de columna, formato numérico, juego de caracteres).
+ * Al final se lanza una única excepción con todos los errores, sin llegar al backend.
+ */
+final class Hl7FieldValidator {
+
+    // Límites de tipos SQL
+    static final long TINYINT_MAX = 255;
+    static final long SMALLINT_MIN = Short.MIN_VALUE;
+    static final long SMALLINT_MAX = Short.MAX_VALUE;
+
+    private final String requestName;
+    private List<String> errors;   // se crea solo si hay errores
+
+    Hl7FieldValidator(String requestName) {
+        this.requestName = requestName;
+    }
+
+    // ---------- Reglas ----------
+
+    Hl7FieldValidator required(String field, Object value) {
+        if (value == null || (value instanceof String && ((String) value).isEmpty())) {
+            addError(field + " es obligatorio");
+        }
+        return this;
+    }
+
+    /**
+     * Ancho máximo de columna (char(n) / varchar(n)). null se considera válido.
+     */
+    Hl7FieldValidator maxLength(String field, String value, int max) {
+        if (value != null && value.length() > max) {
+            addError(field + " excede " + max + " caracteres (actual: " + value.length() + ")");
+        }
+        return this;
+    }
+
+    /**
+     * Solo dígitos ASCII. null o vacío se consideran válidos (usar {@link #required}).
+     */
+    Hl7FieldValidator digits(String field, String value) {
+        if (value == null) {
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                addError(field + " debe ser numérico: " + value);
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Solo ASCII imprimible (los params viajan tal cual al SP y el backend no acepta
+     * acentos ni caracteres de control). null se considera válido.
+     */
+    Hl7FieldValidator printableAscii(String field, String value) {
+        if (value == null) {
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                addError(field + " contiene un carácter no permitido en la posición " + (i + 1));
+                break;
+            }
+        }
+        return this;
+    }
+
+    Hl7FieldValidator range(String field, Number value, long min, long max) {
+        if (value != null && (value.longValue() < min || value.longValue() > max)) {
+            addError(field + " fuera de rango [" + min + ".." + max + "]: " + value);
+        }
+        return this;
+    }
+
+    // ---------- Resultado ----------
+
+    void throwIfInvalid() {
+        if (errors == null) {
+            return;
+        }
+        throw new IllegalArgumentException(
+                requestName + " inválido:\n• " + String.join("\n• ", errors)
+        );
+    }
+
+    private void addError(String message) {
+        if (errors == null) {
+            errors = new ArrayList<>();
+        }
+        errors.add(message);
+    }
+}
@@ -310,4 +310,199 @@ public class RegistracionRequest {
     public void setPowerBuilder(Boolean powerBuilder) {
         this.powerBuilder = powerBuilder;
     }
+
+    // ===============================
+    // BUILDER
+    // ===============================
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder con validación local de obligatorios, anchos de columna y formatos numéricos.
+     * <p>
+     * {@link #build()} recorre todos los campos en una sola pasada y lanza
+     * {@link IllegalArgumentException} con la lista completa de errores,
+     * evitando el round-trip al backend para requests que serían rechazados.
+     * Cada instancia construye un único request.
+     */
+    public static final class Builder {
+
+        private RegistracionRequest target = new RegistracionRequest();
+
+        private Builder() {
+        }
+
+        public Builder modo(String modo) {
+            target().modo = modo;
+            return this;
+        }
+
+        public Builder creden(String creden) {
+            target().creden = creden;
+            return this;
+        }
+
+        public Builder tipo(Integer tipo) {
+            target().tipo = tipo;
+            return this;
+        }
+
+        public Builder alta(String alta) {
+            target().alta = alta;
+            return this;
+        }
+
+        public Builder fecdif(String fecdif) {
+            target().fecdif = fecdif;
+            return this;
+        }
+
+        public Builder manual(Manual manual) {
+            target().manual = manual;
+            return this;
+        }
+
+        public Builder consulta(Manual consulta) {
+            target().consulta = consulta;
+            return this;
+        }
+
+        public Builder ticketExt(Integer ticketExt) {
+            target().ticketExt = ticketExt;
+            return this;
+        }
+
+        public Builder termId(String termId) {
+            target().termId = termId;
+            return this;
+        }
+
+        public Builder interNro(Integer interNro) {
+            target().interNro = interNro;
+            return this;
+        }
+
+        public Builder cuit(String cuit) {
+            target().cuit = cuit;
+            return this;
+        }
+
+        public Builder oriMatri(String oriMatri) {
+            target().oriMatri = oriMatri;
+            return this;
+        }
+
+        public Builder autoriz(Integer autoriz) {
+            target().autoriz = autoriz;
+            return this;
+        }
+
+        public Builder rechaExt(Integer rechaExt) {
+            target().rechaExt = rechaExt;
+            return this;
+        }
+
+        public Builder icd(String icd) {
+            target().icd = icd;
+            return this;
+        }
+
+        public Builder params(String param1, String param2, String param3) {
+            RegistracionRequest r = target();
+            r.param1 = param1;
+            r.param2 = param2;
+            r.param3 = param3;
+            return this;
+        }
+
+        public Builder tipoEfector(String tipoEfector) {
+            target().tipoEfector = tipoEfector;
+            return this;
+        }
+
+        public Builder idEfector(String idEfector) {
+            target().idEfector = idEfector;
+            return this;
+        }
+
+        public Builder tipoPrescr(String tipoPrescr) {
+            target().tipoPrescr = tipoPrescr;
+            return this;
+        }
+
+        public Builder idPrescr(String idPrescr) {
+            target().idPrescr = idPrescr;
+            return this;
+        }
+
+        public Builder msgId(String msgId) {
+            target().msgId = msgId;
+            return this;
+        }
+
+        public Builder ackacept(String ackacept) {
+            target().ackacept = ackacept;
+            return this;
+        }
+
+        public Builder ackackapl(String ackackapl) {
+            target().ackackapl = ackackapl;
+            return this;
+        }
+
+        public Builder tipoMensaje(String tipoMensaje) {
+            target().tipoMensaje = tipoMensaje;
+            return this;
+        }
+
+        public Builder powerBuilder(Boolean powerBuilder) {
+            target().powerBuilder = powerBuilder;
+            return this;
+        }
+
+        /**
+         * Valida y devuelve el request.
+         *
+         * @throws IllegalArgumentException con todos los errores encontrados
+         * @throws IllegalStateException    si el builder ya fue utilizado
+         */
+        public RegistracionRequest build() {
+            RegistracionRequest r = target();
+
+            new Hl7FieldValidator("RegistracionRequest")
+                    .required("modo", r.modo).maxLength("modo", r.modo, 1)
+                    .required("creden", r.creden).maxLength("creden", r.creden, 23).digits("creden", r.creden)
+                    .required("tipo", r.tipo).range("tipo", r.tipo, 0, Hl7FieldValidator.TINYINT_MAX)
+                    .maxLength("fecdif", r.fecdif, 10)
+                    .maxLength("termId", r.termId, 20)
+                    .maxLength("cuit", r.cuit, 40)
+                    .maxLength("oriMatri", r.oriMatri, 10)
+                    .range("rechaExt", r.rechaExt, Hl7FieldValidator.SMALLINT_MIN, Hl7FieldValidator.SMALLINT_MAX)
+                    .maxLength("icd", r.icd, 6)
+                    .maxLength("param1", r.param1, 255).printableAscii("param1", r.param1)
+                    .maxLength("param2", r.param2, 255).printableAscii("param2", r.param2)
+                    .maxLength("param3", r.param3, 255).printableAscii("param3", r.param3)
+                    .maxLength("tipoEfector", r.tipoEfector, 4)
+                    .maxLength("idEfector", r.idEfector, 11)
+                    .maxLength("tipoPrescr", r.tipoPrescr, 4)
+                    .maxLength("idPrescr", r.idPrescr, 11)
+                    .maxLength("msgId", r.msgId, 20)
+                    .maxLength("ackacept", r.ackacept, 2)
+                    .maxLength("ackackapl", r.ackackapl, 2)
+                    .required("tipoMensaje", r.tipoMensaje).maxLength("tipoMensaje", r.tipoMensaje, 1)
+                    .throwIfInvalid();
+
+            target = null;
+            return r;
+        }
+
+        private RegistracionRequest target() {
+            if (target == null) {
+                throw new IllegalStateException("El builder ya fue utilizado");
+            }
+            return target;
+        }
+    }
 }
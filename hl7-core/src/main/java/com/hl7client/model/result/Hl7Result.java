@@ -0,0 +1,210 @@
+package com.hl7client.model.result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+public final class Hl7Result<T> {
+
+    // Código de detalle de las partes que no se llegaron a enviar (ver combine)
+    public static final String NOT_SENT_CODE = "NO_ENVIADA";
+
+    private final Hl7Status status;
+    private final T data;
+    private final Hl7Error issue;
+    private final List<Hl7ItemError> details;
+
+    private Hl7Result(
+            Hl7Status status,
+            T data,
+            Hl7Error issue,
+            List<Hl7ItemError> details
+    ) {
+        this.status = Objects.requireNonNull(status);
+        this.data = data;
+        this.issue = issue;
+        this.details = details == null
+                ? Collections.emptyList()                  // ← Java 8: empty immutable list
+                : Collections.unmodifiableList(new ArrayList<>(details));  // copia defensiva
+    }
+
+    // ========= FACTORIES =========
+
+    public static <T> Hl7Result<T> ok(T data) {
+        return new Hl7Result<>(
+                Hl7Status.OK,
+                data,
+                null,
+                Collections.emptyList()                    // ← aquí
+        );
+    }
+
+    public static <T> Hl7Result<T> partial(
+            T data,
+            List<Hl7ItemError> details
+    ) {
+        return new Hl7Result<>(
+                Hl7Status.PARTIAL,
+                Objects.requireNonNull(data),
+                null,
+                details
+        );
+    }
+
+    public static <T> Hl7Result<T> rejected(
+            T data,
+            Hl7Error functionalError
+    ) {
+        return new Hl7Result<>(
+                Hl7Status.REJECTED,
+                data,
+                functionalError,
+                Collections.emptyList()                    // ← aquí
+        );
+    }
+
+    public static <T> Hl7Result<T> error(Hl7Error technicalError) {
+        return new Hl7Result<>(
+                Hl7Status.ERROR,
+                null,
+                technicalError,
+                Collections.emptyList()                    // ← aquí
+        );
+    }
+
+    /**
+     * Combina los resultados de una operación enviada en varias partes
+     * (ej: una registración repartida en varios requests).
+     * <ul>
+     *   <li>Todas OK → OK</li>
+     *   <li>Al menos una OK/PARTIAL → PARTIAL; las partes fallidas se agregan como detalle</li>
+     *   <li>Ninguna exitosa → el rechazo (o error) de la primera parte fallida</li>
+     * </ul>
+     * Los datos son las respuestas disponibles, en el orden de las partes.
+     */
+    public static <T> Hl7Result<List<T>> combine(List<Hl7Result<T>> parts) {
+        return combine(parts, parts != null ? parts.size() : 0);
+    }
+
+    /**
+     * Igual que {@link #combine(List)}, para una operación planificada en {@code total} partes
+     * de la que solo se enviaron las primeras {@code parts.size()} (ej: la sesión expiró a mitad
+     * de camino). Cada parte no enviada cuenta como fallida y se informa como detalle
+     * ("Parte k/N no enviada: motivo", con el motivo de la última parte enviada).
+     */
+    public static <T> Hl7Result<List<T>> combine(List<Hl7Result<T>> parts, int total) {
+        if (parts == null || parts.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un resultado");
+        }
+        if (total < parts.size()) {
+            throw new IllegalArgumentException(
+                    "Total de partes (" + total + ") menor que los resultados (" + parts.size() + ")");
+        }
+
+        List<T> data = new ArrayList<>(parts.size());
+        List<Hl7ItemError> details = new ArrayList<>();
+        Hl7Result<T> firstFailure = null;
+        boolean allOk = true;
+        int succeeded = 0;
+
+        for (int i = 0; i < parts.size(); i++) {
+            Hl7Result<T> part = parts.get(i);
+            part.getData().ifPresent(data::add);
+            details.addAll(part.details);
+
+            if (part.isOk() || part.isPartial()) {
+                succeeded++;
+                allOk &= part.isOk();
+                continue;
+            }
+
+            allOk = false;
+            if (firstFailure == null) {
+                firstFailure = part;
+            }
+            String message = part.issue != null ? part.issue.getMessage() : part.status.name();
+            String code = part.issue != null && part.issue.getCode() != null ? part.issue.getCode() : part.status.name();
+            details.add(new Hl7ItemError(
+                    code,
+                    "Parte " + (i + 1) + "/" + total + ": " + message,
+                    Hl7ItemErrorOrigin.DETALLE
+            ));
+        }
+
+        if (total > parts.size()) {
+            allOk = false;
+            Hl7Error lastIssue = parts.get(parts.size() - 1).issue;
+            String reason = lastIssue == null ? ""
+                    : ": " + (lastIssue.isSession() ? "sesión expirada" : lastIssue.getMessage());
+            for (int k = parts.size() + 1; k <= total; k++) {
+                details.add(new Hl7ItemError(
+                        NOT_SENT_CODE,
+                        "Parte " + k + "/" + total + " no enviada" + reason,
+                        Hl7ItemErrorOrigin.DETALLE
+                ));
+            }
+        }
+
+        if (allOk) {
+            return ok(data);
+        }
+        if (succeeded > 0) {
+            return partial(data, details);
+        }
+        return new Hl7Result<>(
+                firstFailure.status,
+                firstFailure.status == Hl7Status.ERROR ? null : data,
+                firstFailure.issue,
+                details
+        );
+    }
+
+    // ========= HELPERS =========
+
+    public boolean isOk() {
+        return status == Hl7Status.OK;
+    }
+
+    public boolean isPartial() {
+        return status == Hl7Status.PARTIAL;
+    }
+
+    @SuppressWarnings({"unused"})
+    public boolean isRejected() {
+        return status == Hl7Status.REJECTED;
+    }
+
+    public boolean isError() {
+        return status == Hl7Status.ERROR;
+    }
+
+    // ========= ACCESS =========
+
+    public Hl7Status getStatus() {
+        return status;
+    }
+
+    public Optional<T> getData() {
+        return Optional.ofNullable(data);
+    }
+
+    public Optional<Hl7Error> getIssue() {
+        return Optional.ofNullable(issue);
+    }
+
+    public List<Hl7ItemError> getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        return "Hl7Result{" +
+                "status=" + status +
+                ", data=" + data +
+                ", issue=" + issue +
+                ", details=" + details +
+                '}';
+    }
+}
\ No newline at end of file
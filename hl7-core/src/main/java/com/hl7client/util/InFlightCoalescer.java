@@ -0,0 +1,89 @@
+package com.hl7client.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes con la misma clave: mientras una llamada está en vuelo,
+ * las siguientes con clave igual esperan y reciben su mismo resultado (o su excepción)
+ * en lugar de repetirla. Al terminar la clave se libera; no es un caché.
+ * <p>
+ * Usar solo con operaciones sin efectos colaterales (consultas).
+ */
+public final class InFlightCoalescer<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> call) {
+        Objects.requireNonNull(key, "Clave requerida");
+        Objects.requireNonNull(call);
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        executed.increment();
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // ---------- Métricas ----------
+
+    /** Llamadas ejecutadas realmente */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /** Llamadas que reutilizaron el resultado de otra en vuelo */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // ---------- Internos ----------
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InFlightCoalescer{executed=" + getExecutedCount()
+                + ", coalesced=" + getCoalescedCount()
+                + ", inFlight=" + getInFlightCount() + '}';
+    }
+}
@@ -0,0 +1,320 @@
+package com.hl7client.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Configuración de la aplicación, resuelta por capas (de menor a mayor prioridad):
+ * <ol>
+ *   <li>{@code application.properties} del classpath (valores por defecto)</li>
+ *   <li>archivo externo: {@code -Dhl7client.config=...}, variable {@code HL7CLIENT_CONFIG},
+ *       o {@code hl7-client.properties} en el directorio de trabajo si existe</li>
+ *   <li>variables de entorno: {@code HL7CLIENT_} + clave en mayúsculas con '.' → '_'
+ *       (ej. {@code HL7CLIENT_API_CONTEXT_PATH})</li>
+ *   <li>system properties con la misma clave (ej. {@code -Dapi.context.path=/pre/api-smg})</li>
+ * </ol>
+ * Las capas 3 y 4 solo sobrescriben claves definidas en las anteriores.
+ * <p>
+ * El resultado se guarda en un mapa inmutable: cada lectura es un {@code get} sin I/O.
+ * Los getters tipados no fallan ante un valor mal escrito: lo informan una vez y devuelven
+ * el valor por defecto (una recarga con un error de tipeo no corta las lecturas por request).
+ * {@link #startWatching()} recarga el archivo externo al modificarse y avisa a los
+ * listeners registrados ({@link #addReloadListener(Runnable)}), de modo que endpoints
+ * y timeouts nuevos aplican a los requests siguientes sin reiniciar.
+ */
+public class PropertiesUtil {
+
+    private static final Logger LOGGER = Logger.getLogger(PropertiesUtil.class.getName());
+
+    public static final String CONFIG_FILE_PROPERTY = "hl7client.config";
+    public static final String CONFIG_FILE_ENV = "HL7CLIENT_CONFIG";
+    private static final String DEFAULT_CONFIG_FILE = "hl7-client.properties";
+    private static final String ENV_PREFIX = "HL7CLIENT_";
+
+    private static final Properties defaults = loadClasspathDefaults();
+    private static final Path externalFile = resolveExternalFile();
+
+    private static volatile Map<String, String> resolved = resolve();
+    private static volatile long version;
+
+    private static final List<Runnable> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final Set<String> WARNED = ConcurrentHashMap.newKeySet();
+    private static Thread watcher;
+
+    private PropertiesUtil() {
+    }
+
+    // ---------- Lectura ----------
+
+    public static String get(String key) {
+        String value = resolved.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException(
+                    "Property no encontrada: " + key
+            );
+        }
+        return value;
+    }
+
+    /**
+     * Igual que {@link #get(String)} pero con valor por defecto para claves opcionales.
+     */
+    public static String get(String key, String defaultValue) {
+        String value = resolved.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = resolved.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return malformed(key, value, "entero", defaultValue);
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = resolved.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return malformed(key, value, "entero", defaultValue);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = resolved.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        String v = value.trim();
+        if ("true".equalsIgnoreCase(v)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(v)) {
+            return false;
+        }
+        return malformed(key, value, "booleano", defaultValue);
+    }
+
+    /**
+     * Valor mal escrito (por ejemplo en el archivo observado): se avisa una vez por clave y valor
+     * y se usa el valor por defecto. Un error de tipeo no debe cortar todo el tráfico HL7.
+     */
+    private static <T> T malformed(String key, String value, String type, T defaultValue) {
+        if (WARNED.add(key + "=" + value)) {
+            LOGGER.warning("Property inválida (" + type + "): " + key + "=" + value
+                    + "; se usa " + defaultValue);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Versión de la configuración resuelta; aumenta con cada recarga que cambia algún valor.
+     */
+    public static long version() {
+        return version;
+    }
+
+    /**
+     * Archivo externo considerado (puede no existir).
+     */
+    public static Path externalFile() {
+        return externalFile;
+    }
+
+    // ---------- Recarga ----------
+
+    public static void addReloadListener(Runnable listener) {
+        LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Vuelve a resolver las capas. Si el archivo externo no se puede leer se conserva
+     * la configuración anterior.
+     *
+     * @return true si cambió algún valor
+     */
+    public static synchronized boolean reload() {
+        Map<String, String> next;
+        try {
+            next = resolve();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudo recargar la configuración; se mantiene la anterior", e);
+            return false;
+        }
+        if (next.equals(resolved)) {
+            return false;
+        }
+
+        resolved = next;
+        version++;
+        LOGGER.info("Configuración recargada (versión " + version + ")");
+
+        for (Runnable listener : LISTENERS) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Listener de recarga de configuración falló", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Observa el archivo externo en un hilo daemon y recarga ante cambios.
+     * Sin efecto si ya está activo o si el directorio del archivo no existe.
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        Path dir = externalFile.toAbsolutePath().getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            LOGGER.info("Directorio de configuración externa inexistente, sin recarga en caliente: " + dir);
+            return;
+        }
+
+        WatchService service;
+        try {
+            service = dir.getFileSystem().newWatchService();
+            dir.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo observar la configuración externa", e);
+            return;
+        }
+
+        watcher = new Thread(() -> watch(service), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOGGER.info("Observando configuración externa: " + externalFile.toAbsolutePath());
+    }
+
+    // ---------- Internos ----------
+
+    private static void watch(WatchService service) {
+        Path fileName = externalFile.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || fileName.equals(event.context());
+                }
+                key.reset();
+
+                if (relevant) {
+                    // Los editores suelen escribir en varios pasos: se agrupan los eventos cercanos
+                    Thread.sleep(200);
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.fine("Watcher de configuración cerrado");
+        }
+    }
+
+    private static Map<String, String> resolve() {
+        Map<String, String> values = new HashMap<>();
+        for (String key : defaults.stringPropertyNames()) {
+            values.put(key, defaults.getProperty(key));
+        }
+
+        if (Files.isRegularFile(externalFile)) {
+            Properties external = new Properties();
+            try (Reader reader = Files.newBufferedReader(externalFile, StandardCharsets.UTF_8)) {
+                external.load(reader);
+            } catch (IOException e) {
+                throw new RuntimeException("Error leyendo configuración externa " + externalFile, e);
+            }
+            for (String key : external.stringPropertyNames()) {
+                values.put(key, external.getProperty(key).trim());
+            }
+        }
+
+        for (String key : values.keySet().toArray(new String[0])) {
+            String env = System.getenv(envName(key));
+            if (env != null) {
+                values.put(key, env);
+            }
+            String sys = System.getProperty(key);
+            if (sys != null) {
+                values.put(key, sys);
+            }
+        }
+
+        return Collections.unmodifiableMap(values);
+    }
+
+    static String envName(String key) {
+        StringBuilder sb = new StringBuilder(ENV_PREFIX.length() + key.length()).append(ENV_PREFIX);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        return sb.toString();
+    }
+
+    private static Properties loadClasspathDefaults() {
+        Properties properties = new Properties();
+        try (InputStream is =
+                     PropertiesUtil.class
+                             .getClassLoader()
+                             .getResourceAsStream("application.properties")) {
+
+            if (is == null) {
+                throw new RuntimeException("No se encontró application.properties");
+            }
+
+            properties.load(is);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error cargando application.properties", e);
+        }
+        return properties;
+    }
+
+    private static Path resolveExternalFile() {
+        String path = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (path == null || path.trim().isEmpty()) {
+            path = System.getenv(CONFIG_FILE_ENV);
+        }
+        if (path == null || path.trim().isEmpty()) {
+            path = DEFAULT_CONFIG_FILE;
+        }
+        return Paths.get(path.trim());
+    }
+}
@@ -0,0 +1,75 @@
+package com.hl7client.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Tiempos de arranque por fase.
+ * <p>
+ * Cada {@link #mark(String)} cierra la fase que termina en ese punto; el reporte muestra
+ * la duración de cada fase y el acumulado desde que arrancó la JVM (la primera fase,
+ * "jvm", es el tiempo hasta {@code main}).
+ */
+public final class StartupTimer {
+
+    private static final Logger LOGGER = Logger.getLogger(StartupTimer.class.getName());
+
+    private static final List<String> PHASES = new ArrayList<>();
+    private static final List<Long> ELAPSED_MILLIS = new ArrayList<>();   // desde inicio de JVM
+
+    // Reloj propio anclado al uptime de la JVM al cargar la clase
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long ORIGIN_UPTIME_MILLIS = jvmUptimeMillis();
+
+    private static boolean reported;
+
+    private StartupTimer() {
+    }
+
+    public static synchronized void mark(String phase) {
+        if (reported) {
+            return;
+        }
+        PHASES.add(phase);
+        ELAPSED_MILLIS.add(uptimeMillis());
+    }
+
+    /**
+     * Registra la última fase y loguea el reporte (una sola vez por proceso).
+     */
+    public static synchronized void finish(String phase) {
+        if (reported) {
+            return;
+        }
+        mark(phase);
+        reported = true;
+        LOGGER.info(report());
+    }
+
+    public static synchronized String report() {
+        StringBuilder sb = new StringBuilder("Arranque por fase (ms):");
+        long previous = 0;
+        for (int i = 0; i < PHASES.size(); i++) {
+            long at = ELAPSED_MILLIS.get(i);
+            sb.append(String.format("%n  %-22s %6d  (acumulado %6d)", PHASES.get(i), at - previous, at));
+            previous = at;
+        }
+        return sb.toString();
+    }
+
+    private static long uptimeMillis() {
+        return ORIGIN_UPTIME_MILLIS + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ORIGIN_NANOS);
+    }
+
+    private static long jvmUptimeMillis() {
+        try {
+            return ManagementFactory.getRuntimeMXBean().getUptime();
+        } catch (RuntimeException | LinkageError e) {
+            // Sin management (p. ej. imagen nativa): se mide desde la carga de esta clase
+            return 0;
+        }
+    }
+}
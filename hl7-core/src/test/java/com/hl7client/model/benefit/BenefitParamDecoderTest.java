@@ -0,0 +1,305 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.dental.DentalBenefit;
+import com.hl7client.model.dental.DentalPiece;
+import com.hl7client.model.dental.DentalSurface;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Decodificación de param1..param3: round-trip con {@link BenefitRequestMapper}, params truncados
+ * o alterados (siempre {@link Hl7ParamFormatException}, nunca otra excepción) y cortes en 255.
+ */
+class BenefitParamDecoderTest {
+
+    private static final String ALPHABET = "0123456789*^|OPMDVLI# ";
+
+    // ---------- Round-trip ----------
+
+    @Test
+    void roundTripMedical() {
+        Random random = new Random(29);
+        int checked = 0;
+        while (checked < 3_000) {
+            List<BenefitItem> items = medicalItems(random, 1 + random.nextInt(60));
+            String[] params;
+            try {
+                params = encode(items);
+            } catch (IllegalArgumentException e) {
+                continue;   // no entra en una registración
+            }
+            assertEquals(items, BenefitParamDecoder.decode(params[0], params[1], params[2]));
+            checked++;
+        }
+    }
+
+    @Test
+    void roundTripDentalSingle() {
+        Random random = new Random(291);
+        for (int i = 0; i < 2_000; i++) {
+            DentalBenefit item = dentalItem(random);
+            assertEquals(Collections.singletonList(item), BenefitParamDecoder.decode(item.getValue(), "", ""));
+        }
+    }
+
+    @Test
+    void roundTripDentalMultiItem() {
+        Random random = new Random(292);
+        boolean previous = BenefitRequestMapper.isDentalMultiItem();
+        BenefitRequestMapper.setDentalMultiItem(true);
+        try {
+            for (int i = 0; i < 1_000; i++) {
+                List<BenefitItem> items = new ArrayList<>();
+                int size = 2 + random.nextInt(12);
+                for (int j = 0; j < size; j++) {
+                    items.add(dentalItem(random));
+                }
+                String[] params;
+                try {
+                    params = encode(items);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                assertEquals(items, BenefitParamDecoder.decode(params[0], params[1], params[2]));
+            }
+        } finally {
+            BenefitRequestMapper.setDentalMultiItem(previous);
+        }
+    }
+
+    @Test
+    void emptyContent() {
+        assertTrue(BenefitParamDecoder.decode("0^*0*0**", "", "").isEmpty());
+        assertTrue(BenefitParamDecoder.decode("", null, null).isEmpty());
+        assertTrue(BenefitParamDecoder.decode(encode(Collections.emptyList())[0], "", "").isEmpty());
+    }
+
+    @Test
+    void streamingDeliversEachSegment() {
+        List<BenefitItem> items = medicalItems(new Random(293), 40);
+        String[] params = encode(items);
+
+        List<BenefitItem> received = new ArrayList<>();
+        BenefitParamDecoder.decode(params[0], params[1], params[2], received::add);
+        assertEquals(items, received);
+    }
+
+    // ---------- Truncados ----------
+
+    @Test
+    void everyTruncationFails() {
+        Random random = new Random(294);
+        for (int n = 0; n < 50; n++) {
+            String content = join(encode(medicalItems(random, 1 + random.nextInt(40))));
+            for (int end = 1; end < content.length(); end++) {
+                String prefix = content.substring(0, end);
+                assertThrows(Hl7ParamFormatException.class, () -> decodeSplit(prefix),
+                        "Truncado aceptado: " + prefix);
+            }
+        }
+    }
+
+    @Test
+    void missingLastParamFails() {
+        String[] params = encode(MedicalParamEncoderTest.aligned(3));
+        Hl7ParamFormatException e = assertThrows(Hl7ParamFormatException.class,
+                () -> BenefitParamDecoder.decode(params[0], params[1], ""));
+        // El total no coincide: se informa al inicio del contenido
+        assertEquals(0, e.getOffset());
+        assertEquals(1, e.getParam());
+    }
+
+    // ---------- Alterados ----------
+
+    @Test
+    void garbledInputFailsWithPosition() {
+        Random random = new Random(295);
+        int rejected = 0;
+        for (int n = 0; n < 20_000; n++) {
+            String content = random.nextBoolean()
+                    ? join(encode(medicalItems(random, 1 + random.nextInt(30))))
+                    : dentalItem(random).getValue();
+            String garbled = mutate(content, random);
+            if (garbled.equals(content)) {
+                continue;
+            }
+
+            String[] params = split(garbled, random);
+            try {
+                BenefitParamDecoder.decode(params[0], params[1], params[2]);
+            } catch (Hl7ParamFormatException e) {
+                rejected++;
+                assertPosition(params, e);
+            } catch (RuntimeException e) {
+                fail("Excepción inesperada para '" + garbled + "': " + e);
+            }
+        }
+        assertTrue(rejected > 15_000, "Pocas alteraciones detectadas: " + rejected);
+    }
+
+    @Test
+    void reportsExactField() {
+        assertError("2^*66000*2**", 3, "6 dígitos");
+        assertError("1^*660001*0**", 10, "entre 1 y 99");
+        assertError("1^*660001*100**", 10, "entre 1 y 99");
+        assertError("3^*660001*2**", 0, "no coincide");
+        assertError("1^*35*X*O020801*P*1**", 6, "Superficie");
+        assertError("1^*99*V*O020801*P*1**", 3, "no soportada");
+        assertError("1^*35*V*O*P*1**", 9, "vacío");
+        assertError("2^*660001*1**;*660002*1**", 13, "'|'");
+        assertError("0^*0*0**|", 8, "inesperado");
+    }
+
+    // ---------- Cortes en 255 ----------
+
+    @Test
+    void cutAnywhereAround255() {
+        List<BenefitItem> items = MedicalParamEncoderTest.aligned(3);
+        String content = join(encode(items));
+
+        for (int cut1 = 240; cut1 <= 270; cut1++) {
+            for (int cut2 = 500; cut2 <= 520; cut2 += 3) {
+                assertEquals(items, BenefitParamDecoder.decode(
+                        content.substring(0, cut1),
+                        content.substring(cut1, cut2),
+                        content.substring(cut2)));
+            }
+        }
+    }
+
+    @Test
+    void errorOnEitherSideOf255() {
+        String content = join(encode(MedicalParamEncoderTest.aligned(2)));
+
+        // Último carácter de param1 y primero de param2 ('*' → '#')
+        for (int at : new int[]{254, 255}) {
+            String garbled = content.substring(0, at) + '#' + content.substring(at + 1);
+            Hl7ParamFormatException e = assertThrows(Hl7ParamFormatException.class,
+                    () -> BenefitParamDecoder.decode(garbled.substring(0, 255), garbled.substring(255), ""));
+            assertEquals(at, e.getOffset());
+            assertEquals(at < 255 ? 1 : 2, e.getParam());
+            assertEquals(at < 255 ? at : at - 255, e.getParamOffset());
+        }
+    }
+
+    @Test
+    void unexpectedEndReportedInLastNonEmptyParam() {
+        String content = join(encode(MedicalParamEncoderTest.aligned(1)));
+        String truncated = content.substring(0, content.length() - 1);
+
+        Hl7ParamFormatException e = assertThrows(Hl7ParamFormatException.class,
+                () -> BenefitParamDecoder.decode(truncated.substring(0, 200), truncated.substring(200), ""));
+        assertEquals(truncated.length(), e.getOffset());
+        assertEquals(2, e.getParam());
+        assertEquals(truncated.length() - 200, e.getParamOffset());
+    }
+
+    // ---------- Soporte ----------
+
+    private static void assertError(String content, int offset, String message) {
+        Hl7ParamFormatException e = assertThrows(Hl7ParamFormatException.class,
+                () -> BenefitParamDecoder.decode(content, "", ""), content);
+        assertEquals(offset, e.getOffset(), e.getMessage());
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    /**
+     * La posición informada existe (o es el fin del contenido) y es coherente entre el
+     * contenido concatenado y el param individual.
+     */
+    private static void assertPosition(String[] params, Hl7ParamFormatException e) {
+        int length = params[0].length() + params[1].length() + params[2].length();
+        assertTrue(e.getOffset() >= 0 && e.getOffset() <= length, e.getMessage());
+        assertTrue(e.getParam() >= 1 && e.getParam() <= 3, e.getMessage());
+
+        int start = 0;
+        for (int i = 0; i < e.getParam() - 1; i++) {
+            start += params[i].length();
+        }
+        assertEquals(e.getOffset() - start, e.getParamOffset(), e.getMessage());
+        assertTrue(e.getParamOffset() <= params[e.getParam() - 1].length(), e.getMessage());
+    }
+
+    private static String[] encode(List<BenefitItem> items) {
+        RegistracionRequest request = new RegistracionRequest();
+        BenefitRequestMapper.apply(request, items);
+        return new String[]{request.getParam1(), request.getParam2(), request.getParam3()};
+    }
+
+    private static String join(String[] params) {
+        return params[0] + params[1] + params[2];
+    }
+
+    private static void decodeSplit(String content) {
+        int cut = Math.min(content.length(), 255);
+        BenefitParamDecoder.decode(content.substring(0, cut), content.substring(cut), "");
+    }
+
+    /**
+     * Corta en dos puntos al azar (también dentro de un segmento).
+     */
+    private static String[] split(String content, Random random) {
+        int a = random.nextInt(content.length() + 1);
+        int b = random.nextInt(content.length() + 1);
+        int cut1 = Math.min(a, b);
+        int cut2 = Math.max(a, b);
+        return new String[]{content.substring(0, cut1), content.substring(cut1, cut2), content.substring(cut2)};
+    }
+
+    private static String mutate(String content, Random random) {
+        StringBuilder sb = new StringBuilder(content);
+        int edits = 1 + random.nextInt(3);
+        for (int i = 0; i < edits && sb.length() > 0; i++) {
+            int at = random.nextInt(sb.length());
+            char ch = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.setCharAt(at, ch);
+                    break;
+                case 1:
+                    sb.deleteCharAt(at);
+                    break;
+                default:
+                    sb.insert(at, ch);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<BenefitItem> medicalItems(Random random, int size) {
+        List<BenefitItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int qty = random.nextInt(4) == 0 ? 10 + random.nextInt(90) : 1 + random.nextInt(9);
+            items.add(MedicalBenefitItem.of(qty, String.format("%06d", random.nextInt(1_000_000))));
+        }
+        return items;
+    }
+
+    private static DentalBenefit dentalItem(Random random) {
+        DentalPiece[] pieces = DentalPiece.values();
+        DentalPiece piece = random.nextInt(5) == 0 ? null : pieces[random.nextInt(pieces.length)];
+
+        Set<DentalSurface> surfaces = EnumSet.noneOf(DentalSurface.class);
+        for (DentalSurface s : DentalSurface.values()) {
+            if (random.nextInt(3) == 0) {
+                surfaces.add(s);
+            }
+        }
+
+        String code = String.valueOf(1 + random.nextInt(99_999_999));
+        return new DentalBenefit(piece, surfaces, code);
+    }
+}
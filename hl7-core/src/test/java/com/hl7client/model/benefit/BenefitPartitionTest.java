@@ -0,0 +1,94 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BenefitRequestMapper#partition}: cada grupo entra en una registración, no se pierde ni
+ * se repite ninguna prestación, se conserva el orden y listas grandes se reparten en milisegundos.
+ */
+class BenefitPartitionTest {
+
+    @Test
+    void singleGroupWhenEverythingFits() {
+        List<BenefitItem> items = MedicalParamEncoderTest.aligned(3);
+        List<List<BenefitItem>> groups = BenefitRequestMapper.partition(items);
+
+        assertEquals(1, groups.size());
+        assertEquals(items, groups.get(0));
+    }
+
+    @Test
+    void randomListsAreSplitIntoValidGroups() {
+        Random random = new Random(34);
+        for (int n = 0; n < 300; n++) {
+            List<BenefitItem> items = MedicalParamEncoderTest.randomItems(random, 1 + random.nextInt(150));
+            assertValid(items, BenefitRequestMapper.partition(items));
+        }
+    }
+
+    @Test
+    void oneMoreSegmentNeedsTwoGroups() {
+        List<BenefitItem> items = MedicalParamEncoderTest.aligned(3);
+        items.add(MedicalBenefitItem.of(1, "999999"));
+
+        List<List<BenefitItem>> groups = BenefitRequestMapper.partition(items);
+        assertEquals(2, groups.size());
+        assertValid(items, groups);
+    }
+
+    @Test
+    void largeListsFinishQuickly() {
+        // Todas las cantidades de dos dígitos: el peor caso de la búsqueda exacta anterior
+        Random random = new Random(341);
+        for (int size : new int[]{40, 115, 236, 500}) {
+            List<BenefitItem> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(MedicalBenefitItem.of(10 + random.nextInt(90), String.format("%06d", random.nextInt(1_000_000))));
+            }
+
+            long start = System.nanoTime();
+            List<List<BenefitItem>> groups = BenefitRequestMapper.partition(items);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(millis < 500, size + " prestaciones: " + millis + " ms");
+            assertValid(items, groups);
+        }
+    }
+
+    /**
+     * Cada grupo se codifica sin error, cada prestación aparece exactamente una vez y dentro
+     * de cada grupo se respeta el orden original.
+     */
+    private static void assertValid(List<BenefitItem> items, List<List<BenefitItem>> groups) {
+        Map<BenefitItem, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            position.put(items.get(i), i);
+        }
+
+        int count = 0;
+        for (List<BenefitItem> group : groups) {
+            BenefitRequestMapper.apply(new RegistracionRequest(), group);
+
+            int previous = -1;
+            for (BenefitItem item : group) {
+                Integer at = position.remove(item);
+                assertTrue(at != null, "Prestación repetida o ajena: " + item);
+                assertTrue(at > previous, "Orden alterado en el grupo");
+                previous = at;
+                count++;
+            }
+        }
+        assertEquals(items.size(), count);
+    }
+}
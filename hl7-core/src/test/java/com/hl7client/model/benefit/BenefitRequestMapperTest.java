@@ -0,0 +1,53 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.dto.request.hl7.CancelacionRequest;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link BenefitRequestMapper#apply(CancelacionRequest.Builder, List)}: misma codificación que
+ * la registración en param1/param2, y rechazo de lo que necesitaría param3.
+ */
+class BenefitRequestMapperTest {
+
+    @Test
+    void cancelacionWithoutBenefits() {
+        CancelacionRequest request = BenefitRequestMapper.apply(cancelacion(), Collections.<BenefitItem>emptyList()).build();
+
+        assertEquals("0", request.getParam1());
+        assertEquals("", request.getParam2());
+    }
+
+    @Test
+    void cancelacionUsesTheRegistracionEncoding() {
+        List<BenefitItem> items = MedicalParamEncoderTest.aligned(2);
+        RegistracionRequest registracion = new RegistracionRequest();
+        BenefitRequestMapper.apply(registracion, items);
+
+        CancelacionRequest request = BenefitRequestMapper.apply(cancelacion(), items).build();
+
+        assertEquals(registracion.getParam1(), request.getParam1());
+        assertEquals(registracion.getParam2(), request.getParam2());
+    }
+
+    @Test
+    void cancelacionRejectsBenefitsThatNeedParam3() {
+        List<BenefitItem> items = MedicalParamEncoderTest.aligned(2);
+        items.add(MedicalBenefitItem.of(1, "999999"));
+
+        assertThrows(IllegalArgumentException.class, () -> BenefitRequestMapper.apply(cancelacion(), items));
+    }
+
+    private static CancelacionRequest.Builder cancelacion() {
+        return CancelacionRequest.builder()
+                .modo("N")
+                .tipo(90)
+                .creden(7180171001151L);
+    }
+}
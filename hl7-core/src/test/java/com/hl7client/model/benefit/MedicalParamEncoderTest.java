@@ -0,0 +1,243 @@
+package com.hl7client.model.benefit;
+
+import com.hl7client.model.constants.Hl7Constants;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Codificación médica: contenido idéntico al armado ingenuo, cortes en límites de segmento
+ * y round-trip con {@link BenefitParamDecoder}.
+ */
+class MedicalParamEncoderTest {
+
+    private static final int PARAM = Hl7Constants.MAX_LENGTH_PER_PARAM;
+
+    private final MedicalParamEncoder encoder = new MedicalParamEncoder();
+
+    // ---------- Round-trip ----------
+
+    @Test
+    void roundTripRandomLists() {
+        Random random = new Random(28);
+        int encoded = 0;
+
+        for (int n = 0; n < 5_000; n++) {
+            List<BenefitItem> items = randomItems(random, 1 + random.nextInt(70));
+            String expected = reference(items);
+
+            if (!encoder.tryEncode(items)) {
+                // Solo falla si excede el total o si los cortes en segmento necesitan un cuarto param
+                assertTrue(expected.length() > Hl7Constants.MAX_LENGTH_MEDICINA || greedyParams(items) > 3,
+                        "Rechazado sin exceder límites: " + expected);
+                continue;
+            }
+            encoded++;
+            assertParams(expected);
+            assertEquals(items, BenefitParamDecoder.decode(encoder.param(1), encoder.param(2), encoder.param(3)));
+        }
+
+        assertTrue(encoded > 1_000, "Muy pocos casos válidos: " + encoded);
+    }
+
+    @Test
+    void emptyWhenNoQuantity() {
+        assertTrue(encoder.tryEncode(new ArrayList<>()));
+        assertFalse(encoder.encode(new ArrayList<>()));
+        assertEquals("", encoder.param(1));
+    }
+
+    // ---------- Cortes en 255 / 510 / 765 ----------
+
+    @Test
+    void exactly255FitsInParam1() {
+        List<BenefitItem> items = aligned(1);
+        assertEquals(PARAM, reference(items).length());
+
+        assertTrue(encoder.encode(items));
+        assertParams(reference(items));
+        assertEquals(PARAM, encoder.param(1).length());
+        assertEquals("", encoder.param(2));
+    }
+
+    @Test
+    void exactly510FillsTwoParams() {
+        List<BenefitItem> items = aligned(2);
+        assertEquals(2 * PARAM, reference(items).length());
+
+        assertTrue(encoder.encode(items));
+        assertParams(reference(items));
+        assertEquals(PARAM, encoder.param(1).length());
+        assertEquals(PARAM, encoder.param(2).length());
+        assertEquals("", encoder.param(3));
+    }
+
+    @Test
+    void exactly765FillsThreeParams() {
+        List<BenefitItem> items = aligned(3);
+        assertEquals(Hl7Constants.MAX_LENGTH_MEDICINA, reference(items).length());
+
+        assertTrue(encoder.encode(items));
+        assertParams(reference(items));
+        assertEquals(PARAM, encoder.param(1).length());
+        assertEquals(PARAM, encoder.param(2).length());
+        assertEquals(PARAM, encoder.param(3).length());
+        assertEquals(items, BenefitParamDecoder.decode(encoder.param(1), encoder.param(2), encoder.param(3)));
+    }
+
+    @Test
+    void oneMoreSegmentMovesToNextParam() {
+        for (int params = 1; params <= 2; params++) {
+            List<BenefitItem> items = aligned(params);
+            items.add(MedicalBenefitItem.of(1, "999999"));
+
+            assertTrue(encoder.encode(items));
+            assertParams(reference(items));
+            // El segmento nuevo va entero al param siguiente, con su separador
+            assertEquals("|*999999*1**", encoder.param(params + 1));
+        }
+    }
+
+    @Test
+    void moreThan765Throws() {
+        List<BenefitItem> items = aligned(3);
+        items.add(MedicalBenefitItem.of(1, "999999"));
+
+        assertFalse(encoder.tryEncode(items));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> encoder.encode(items));
+        assertTrue(e.getMessage().contains("765"), e.getMessage());
+    }
+
+    @Test
+    void segmentCrossing255IsNotSplit() {
+        // Cantidad 10: "250^" + 12 + 18×13 = 250; el segmento siguiente cruzaría la posición 255
+        List<BenefitItem> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            items.add(MedicalBenefitItem.of(10, code(i)));
+        }
+        assertTrue(encoder.encode(items));
+        assertParams(reference(items));
+        assertTrue(encoder.param(1).length() < PARAM);
+    }
+
+    // ---------- Soporte ----------
+
+    /**
+     * Cada param entra en 255, corta en límite de segmento, es maximal (el siguiente segmento
+     * no entraba) y la concatenación es el contenido completo.
+     */
+    private void assertParams(String expected) {
+        String p1 = encoder.param(1);
+        String p2 = encoder.param(2);
+        String p3 = encoder.param(3);
+
+        assertEquals(expected, p1 + p2 + p3);
+        String[] params = {p1, p2, p3};
+        for (int i = 0; i < params.length; i++) {
+            String p = params[i];
+            assertTrue(p.length() <= PARAM, "param" + (i + 1) + " excede 255: " + p.length());
+            if (p.isEmpty()) {
+                continue;
+            }
+            assertTrue(p.endsWith("**"), "param" + (i + 1) + " no cierra un segmento: " + p);
+            if (i > 0) {
+                assertTrue(p.startsWith("|*"), "param" + (i + 1) + " no empieza en un segmento: " + p);
+            }
+            if (i + 1 < params.length && !params[i + 1].isEmpty()) {
+                int next = params[i + 1].indexOf("**") + 2;
+                assertTrue(p.length() + next > PARAM, "param" + (i + 1) + " cortó antes de lo necesario");
+            }
+        }
+    }
+
+    /**
+     * Contenido armado como lo hacía el mapper original: {@code total^*código*cant**|*...}.
+     */
+    static String reference(List<BenefitItem> items) {
+        int total = 0;
+        for (BenefitItem b : items) {
+            total += ((MedicalBenefitItem) b).getQuantityPerType();
+        }
+        StringBuilder sb = new StringBuilder().append(total).append('^');
+        for (int i = 0; i < items.size(); i++) {
+            MedicalBenefitItem item = (MedicalBenefitItem) items.get(i);
+            if (i > 0) {
+                sb.append('|');
+            }
+            sb.append('*').append(item.getBenefitCode()).append('*').append(item.getQuantityPerType()).append("**");
+        }
+        return sb.toString();
+    }
+
+    private static int greedyParams(List<BenefitItem> items) {
+        String content = reference(items);
+        int params = 1;
+        int start = 0;
+        int lastBoundary = 0;
+        for (int end = content.indexOf("**"); end >= 0; end = content.indexOf("**", end + 2)) {
+            if (end + 2 - start > PARAM) {
+                params++;
+                start = lastBoundary;
+            }
+            lastBoundary = end + 2;
+        }
+        return params;
+    }
+
+    /**
+     * Prestaciones cuyo contenido ocupa exactamente {@code params} × 255, con cada corte justo en 255.
+     * Con separador, un segmento de cantidad 1..9 ocupa 12 y uno de 10..99 ocupa 13.
+     */
+    static List<BenefitItem> aligned(int params) {
+        List<BenefitItem> items = new ArrayList<>();
+        switch (params) {
+            case 1:
+                // "30^" + 11 + 19×12 + 13 = 255
+                addSegments(items, 20, 1);
+                break;
+            case 2:
+                // "78^" + 11 + 19×12 + 13 = 255 | 18×12 + 3×13 = 255
+                addSegments(items, 20, 1);
+                addSegments(items, 18, 3);
+                break;
+            case 3:
+                // "117^" + 11 + 20×12 = 255 | 2 × (18×12 + 3×13 = 255)
+                addSegments(items, 21, 0);
+                addSegments(items, 18, 3);
+                addSegments(items, 18, 3);
+                break;
+            default:
+                throw new IllegalArgumentException("params: " + params);
+        }
+        return items;
+    }
+
+    private static void addSegments(List<BenefitItem> items, int singleDigit, int doubleDigit) {
+        for (int i = 0; i < singleDigit; i++) {
+            items.add(MedicalBenefitItem.of(1, code(items.size())));
+        }
+        for (int i = 0; i < doubleDigit; i++) {
+            items.add(MedicalBenefitItem.of(10, code(items.size())));
+        }
+    }
+
+    static List<BenefitItem> randomItems(Random random, int size) {
+        List<BenefitItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int qty = random.nextInt(4) == 0 ? 10 + random.nextInt(90) : 1 + random.nextInt(9);
+            items.add(MedicalBenefitItem.of(qty, code(random.nextInt(1_000_000))));
+        }
+        return items;
+    }
+
+    private static String code(int value) {
+        return String.format("%06d", value % 1_000_000);
+    }
+}
@@ -0,0 +1,237 @@
+package com.hl7client.model.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snapshot y deltas del catálogo: ida y vuelta, orden de búsqueda y rechazo al abrir de archivos
+ * truncados o corruptos.
+ */
+class BenefitCatalogFormatTest {
+
+    private static final List<BenefitCatalogEntry> ENTRIES = Arrays.asList(
+            new BenefitCatalogEntry("420101", "Consulta médica", 1, false),
+            new BenefitCatalogEntry("010101", "Consulta odontológica", 1, true),
+            new BenefitCatalogEntry("420351", "Electrocardiograma", 2, false),
+            new BenefitCatalogEntry("420102", "Interconsulta clínica", 3, false),
+            new BenefitCatalogEntry("340101", "Radiografía de tórax", 4, false),
+            new BenefitCatalogEntry("660475", "Hemograma completo", 99, false)
+    );
+
+    @Test
+    void snapshotRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("catalog");
+        try {
+            Path file = dir.resolve("catalog.bin");
+            BenefitCatalogFormat.writeSnapshot(ENTRIES, 7, file);
+
+            BenefitCatalog catalog = BenefitCatalog.open(file);
+            assertEquals(7, catalog.getDataVersion());
+            assertEquals(ENTRIES.size(), catalog.size());
+            assertEquals(sortedByCode(ENTRIES), catalog.entries());
+            for (BenefitCatalogEntry entry : ENTRIES) {
+                assertEquals(entry, catalog.find(entry.getCode()));
+            }
+            assertNull(catalog.find("999999"));
+            assertFalse(catalog.contains("4201"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void codePrefixIsAscendingAndLimited() {
+        BenefitCatalog catalog = catalog(ENTRIES);
+
+        assertEquals(codes("420101", "420102", "420351"), codes(catalog.searchByCodePrefix("42", 10)));
+        assertEquals(codes("420101", "420102"), codes(catalog.search("4201", 10)));
+        assertEquals(codes("420101"), codes(catalog.searchByCodePrefix("42", 1)));
+        assertTrue(catalog.searchByCodePrefix("4x", 10).isEmpty());
+    }
+
+    @Test
+    void searchRanksStartsWithThenContainsThenSubsequence() {
+        BenefitCatalog catalog = catalog(ENTRIES);
+
+        // "consulta": empieza con (por código) > contiene ("Interconsulta")
+        assertEquals(codes("010101", "420101", "420102"), codes(catalog.search("consulta", 10)));
+        // Sin acentos ni mayúsculas
+        assertEquals(codes("010101"), codes(catalog.search("CONSULTA ODONTOLOGICA", 10)));
+        assertEquals(codes("340101"), codes(catalog.search("torax", 10)));
+        // Subsecuencia: "hmgrm" solo como letras salteadas de "hemograma"
+        assertEquals(codes("660475"), codes(catalog.search("hmgrm", 10)));
+        // "ra": "Radiografía" empieza, "Electrocardiograma"/"Hemograma" contienen,
+        // "inteRconsulta clínicA" solo como subsecuencia
+        assertEquals(codes("340101", "420351", "660475", "420102"), codes(catalog.search("ra", 10)));
+    }
+
+    @Test
+    void deltaRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("catalog");
+        try {
+            Path snapshot = dir.resolve("catalog.bin");
+            Path delta = dir.resolve("v2.hl7d");
+            BenefitCatalogFormat.writeSnapshot(ENTRIES, 1, snapshot);
+
+            BenefitCatalogEntry changed = new BenefitCatalogEntry("420101", "Consulta médica en consultorio", 2, false);
+            BenefitCatalogEntry added = new BenefitCatalogEntry("420999", "Consulta a domicilio", 1, false);
+            BenefitCatalogFormat.writeDelta(1, 2, Arrays.asList(changed, added),
+                    Collections.singletonList("340101"), delta);
+
+            assertEquals(2, BenefitCatalogFormat.applyDelta(snapshot, delta, snapshot));
+            BenefitCatalog catalog = BenefitCatalog.open(snapshot);
+            assertEquals(2, catalog.getDataVersion());
+            assertEquals(changed, catalog.find("420101"));
+            assertEquals(added, catalog.find("420999"));
+            assertNull(catalog.find("340101"));
+            assertEquals(ENTRIES.size(), catalog.size());
+
+            // El mismo delta no se puede aplicar dos veces
+            assertThrows(IllegalArgumentException.class,
+                    () -> BenefitCatalogFormat.applyDelta(snapshot, delta, snapshot));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void pendingDeltasAreChainedOnLoad() throws IOException {
+        Path dir = Files.createTempDirectory("catalog");
+        try {
+            Path snapshot = dir.resolve("catalog.bin");
+            BenefitCatalogFormat.writeSnapshot(ENTRIES, 1, snapshot);
+            // Nombres en orden inverso: la cadena sigue las versiones, no el nombre del archivo
+            BenefitCatalogFormat.writeDelta(2, 3, Collections.<BenefitCatalogEntry>emptyList(),
+                    Collections.singletonList("010101"), dir.resolve("a.hl7d"));
+            BenefitCatalogFormat.writeDelta(1, 2, Collections.<BenefitCatalogEntry>emptyList(),
+                    Collections.singletonList("660475"), dir.resolve("b.hl7d"));
+            // Parte de una versión que nunca se alcanza: se ignora
+            BenefitCatalogFormat.writeDelta(5, 6, Collections.<BenefitCatalogEntry>emptyList(),
+                    Collections.singletonList("420101"), dir.resolve("c.hl7d"));
+
+            assertEquals(3, BenefitCatalogFormat.applyPendingDeltas(snapshot));
+            BenefitCatalog catalog = BenefitCatalog.open(snapshot);
+            assertEquals(ENTRIES.size() - 2, catalog.size());
+            assertTrue(catalog.contains("420101"));
+
+            // Ya aplicados: no cambia nada
+            assertEquals(3, BenefitCatalogFormat.applyPendingDeltas(snapshot));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void truncatedSnapshotFailsOnOpen() throws IOException {
+        byte[] bytes = snapshotBytes(ENTRIES);
+        for (int length = 0; length < bytes.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            assertThrows(IllegalArgumentException.class, () -> BenefitCatalog.fromBuffer(truncated),
+                    "truncado a " + length + " bytes");
+        }
+    }
+
+    @Test
+    void corruptRecordFailsOnOpen() throws IOException {
+        byte[] bytes = snapshotBytes(ENTRIES);
+        int last = BenefitCatalogFormat.HEADER_SIZE + (ENTRIES.size() - 1) * BenefitCatalogFormat.RECORD_SIZE;
+
+        assertCorrupt(bytes, b -> b.putInt(last + 8, Integer.MAX_VALUE));       // offset de descripción
+        assertCorrupt(bytes, b -> b.putInt(last + 8, -1));                      // offset negativo
+        assertCorrupt(bytes, b -> b.putShort(last + 6, (short) 0xFFFF));        // longitud de descripción
+        assertCorrupt(bytes, b -> b.put(last + 4, (byte) 0));                   // cantidad máxima
+        assertCorrupt(bytes, b -> b.putInt(last, 0));                           // código fuera de orden
+    }
+
+    @Test
+    void truncatedDeltaIsRejected() throws IOException {
+        Path dir = Files.createTempDirectory("catalog");
+        try {
+            Path snapshot = dir.resolve("catalog.bin");
+            Path delta = dir.resolve("v2.hl7d");
+            BenefitCatalogFormat.writeSnapshot(ENTRIES, 1, snapshot);
+            BenefitCatalogFormat.writeDelta(1, 2,
+                    Collections.singletonList(new BenefitCatalogEntry("420999", "Consulta a domicilio", 1, false)),
+                    Collections.<String>emptyList(), delta);
+
+            byte[] bytes = Files.readAllBytes(delta);
+            Files.write(delta, Arrays.copyOf(bytes, bytes.length - 3));
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> BenefitCatalogFormat.applyDelta(snapshot, delta, snapshot));
+            assertEquals(1, BenefitCatalog.open(snapshot).getDataVersion());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    private interface Corruption {
+        void apply(ByteBuffer buffer);
+    }
+
+    private static void assertCorrupt(byte[] valid, Corruption corruption) {
+        ByteBuffer buffer = ByteBuffer.wrap(valid.clone());
+        corruption.apply(buffer);
+        assertThrows(IllegalArgumentException.class, () -> BenefitCatalog.fromBuffer(buffer));
+    }
+
+    private static BenefitCatalog catalog(List<BenefitCatalogEntry> entries) {
+        try {
+            byte[] bytes = snapshotBytes(entries);
+            return BenefitCatalog.fromBuffer(ByteBuffer.wrap(bytes));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] snapshotBytes(List<BenefitCatalogEntry> entries) throws IOException {
+        Path dir = Files.createTempDirectory("catalog");
+        try {
+            Path file = dir.resolve("catalog.bin");
+            BenefitCatalogFormat.writeSnapshot(entries, 1, file);
+            return Files.readAllBytes(file);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static List<BenefitCatalogEntry> sortedByCode(List<BenefitCatalogEntry> entries) {
+        return entries.stream()
+                .sorted(Comparator.comparing(BenefitCatalogEntry::getCode))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> codes(String... codes) {
+        return Arrays.asList(codes);
+    }
+
+    private static List<String> codes(List<BenefitCatalogEntry> entries) {
+        return entries.stream().map(BenefitCatalogEntry::getCode).collect(Collectors.toList());
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.hl7client.gateway;
+
+import com.hl7client.batch.RegistracionBatchProcessor;
+import com.hl7client.batch.RegistracionBatchReader;
+import com.hl7client.client.ApiClient;
+import com.hl7client.client.RateLimiter;
+import com.hl7client.config.Environment;
+import com.hl7client.config.Session;
+import com.hl7client.config.SessionState;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.dto.request.hl7.CancelacionRequest;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.result.Hl7Error;
+import com.hl7client.model.result.Hl7ItemError;
+import com.hl7client.model.result.Hl7Result;
+import com.hl7client.service.AuthService;
+import com.hl7client.service.Hl7Service;
+import com.hl7client.util.JsonUtil;
+import com.hl7client.util.PropertiesUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gateway HTTP local: expone las operaciones de {@link Hl7Controller} como endpoints JSON
+ * para otros sistemas internos (PMS, facturación), que así no reimplementan login,
+ * refresh de token ni la codificación de parámetros HL7.
+ * <p>
+ * Un único proceso autenticado atiende a todos los llamadores: una sesión, un token
+ * (refrescado por {@link com.hl7client.config.SessionRefreshManager}) y un pool de
+ * conexiones HTTP compartidos.
+ * <ul>
+ *   <li>{@code POST /hl7/elegibilidad}: body {@link ElegibilidadRequest} ({@code modo} por defecto "N").
+ *       Consultas idénticas en vuelo se agrupan en una sola llamada al backend ({@link Hl7Service}).</li>
+ *   <li>{@code POST /hl7/registracion}: body {@code {"creden","alta","fecdif","prestaciones":[{"codigo","cantidad"}]}}
+ *       (mismo formato que la importación masiva JSON)</li>
+ *   <li>{@code POST /hl7/cancelacion}: body {@link CancelacionRequest}</li>
+ *   <li>{@code GET /health}: estado de la sesión y métricas</li>
+ * </ul>
+ * Respuesta: {@code {"status","data","error","details"}}. HTTP 200 para resultados HL7
+ * (incluidos rechazos), 401 sesión vencida, 502 error técnico, 400 request inválido y
+ * 429 si se supera el límite de requests simultáneos.
+ * <p>
+ * La espera está acotada: a lo sumo {@code 2 × maxConcurrent} requests en hilos del gateway y
+ * otros tantos en cola. Por encima se responde 429 enseguida, y {@code queueTimeoutMillis}
+ * se cuenta desde que se acepta el request (incluye el tiempo en cola).
+ */
+public final class Hl7Gateway implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(Hl7Gateway.class.getName());
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int SHED_QUEUE = 256;
+
+    // Momento en que el HttpServer aceptó el exchange del hilo actual (System.nanoTime)
+    private static final ThreadLocal<Long> ACCEPTED_AT = new ThreadLocal<>();
+    // El hilo actual atiende un exchange excedente: solo se responde 429
+    private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<>();
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor shedder;
+    private final Hl7Service service;
+    private final Hl7Controller controller;
+    private final Session session;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    private Hl7Gateway(
+            HttpServer server,
+            Hl7Service service,
+            int maxConcurrent,
+            long queueTimeoutMillis
+    ) {
+        this.server = server;
+        this.service = service;
+        this.controller = new Hl7Controller(service);
+        this.session = service.getSession();
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        // Margen sobre el límite para que los excedentes esperen turno (y reciban 429) sin bloquear
+        // el accept; cola acotada: lo que no entra se atiende en shedder, que solo responde 429
+        this.executor = new ThreadPoolExecutor(maxConcurrent * 2, maxConcurrent * 2,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxConcurrent * 2),
+                daemonThreads("hl7-gateway"), this::shed);
+        // Si también se llena, el HttpServer cierra la conexión sin respuesta
+        this.shedder = new ThreadPoolExecutor(1, 1,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(SHED_QUEUE),
+                daemonThreads("hl7-gateway-shed"));
+    }
+
+    /**
+     * Levanta el gateway sobre un servicio ya autenticado (usa su sesión).
+     *
+     * @param maxConcurrent      requests HL7 atendidos a la vez
+     * @param queueTimeoutMillis espera máxima por un turno antes de responder 429
+     */
+    public static Hl7Gateway start(
+            Hl7Service service,
+            InetSocketAddress address,
+            int maxConcurrent,
+            long queueTimeoutMillis
+    ) throws IOException {
+        Objects.requireNonNull(service);
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent inválido: " + maxConcurrent);
+        }
+        if (queueTimeoutMillis < 0) {
+            throw new IllegalArgumentException("queueTimeoutMillis inválido: " + queueTimeoutMillis);
+        }
+
+        HttpServer server = HttpServer.create(address, 0);
+        Hl7Gateway gateway = new Hl7Gateway(server, service, maxConcurrent, queueTimeoutMillis);
+        server.createContext("/hl7/", gateway::handleHl7);
+        server.createContext("/health", gateway::handleHealth);
+        server.setExecutor(gateway::admit);
+        server.start();
+
+        LOGGER.info("Gateway HL7 escuchando en " + gateway.getAddress()
+                + " (máx. " + maxConcurrent + " requests simultáneos)");
+        return gateway;
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        shedder.shutdownNow();
+    }
+
+    // ---------- Endpoints ----------
+
+    private void handleHl7(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try {
+            if (SHEDDING.get() != null) {
+                tooManyRequests(exchange);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, error("Método no permitido: " + exchange.getRequestMethod()));
+                return;
+            }
+
+            String operation = exchange.getRequestURI().getPath().substring("/hl7/".length());
+            String body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                send(exchange, 413, error("Body mayor a " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+
+            Call call;
+            try {
+                call = parse(operation, body);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                send(exchange, 400, error("JSON inválido"));
+                return;
+            }
+            if (call == null) {
+                send(exchange, 404, error("Operación desconocida: " + operation));
+                return;
+            }
+
+            Hl7Result<?> result;
+            try {
+                result = call.execute();
+            } catch (Throttled e) {
+                tooManyRequests(exchange);
+                return;
+            }
+            send(exchange, httpStatus(result), toJson(result));
+
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error atendiendo " + exchange.getRequestURI(), e);
+            send(exchange, 500, error("Error interno del gateway"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void tooManyRequests(HttpExchange exchange) throws IOException {
+        throttled.increment();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, 429, error("Demasiados requests simultáneos"));
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            SessionState snapshot = session.state();
+            Map<String, Object> health = new LinkedHashMap<>();
+            health.put("authenticated", snapshot.isAuthenticated());
+            health.put("environment", snapshot.environment());
+            health.put("tokenExp", snapshot.tokenExp());
+            health.put("requests", requests.sum());
+            health.put("throttled", throttled.sum());
+            health.put("inFlight", maxConcurrent - permits.availablePermits());
+            health.put("elegibilidadUpstream", service.getElegibilidadUpstreamCount());
+            health.put("elegibilidadCoalesced", service.getElegibilidadCoalescedCount());
+            health.put("rateLimiter", RateLimiter.shared().stats());
+            send(exchange, snapshot.isAuthenticated() ? 200 : 503, JsonUtil.toJson(health));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ---------- Admisión ----------
+
+    /**
+     * Executor del HttpServer: marca el momento de aceptación y delega en el pool acotado.
+     */
+    private void admit(Runnable exchange) {
+        long accepted = System.nanoTime();
+        executor.execute(() -> {
+            ACCEPTED_AT.set(accepted);
+            try {
+                exchange.run();
+            } finally {
+                ACCEPTED_AT.remove();
+            }
+        });
+    }
+
+    /**
+     * Pool y cola llenos: el exchange se atiende en {@code shedder}, donde {@link #handleHl7}
+     * responde 429 sin leer el body ni esperar turno.
+     */
+    private void shed(Runnable task, ThreadPoolExecutor pool) {
+        shedder.execute(() -> {
+            SHEDDING.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                SHEDDING.remove();
+            }
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // ---------- Operaciones ----------
+
+    private interface Call {
+        Hl7Result<?> execute();
+    }
+
+    /**
+     * Sin turno dentro de {@code queueTimeoutMillis}.
+     */
+    private static final class Throttled extends RuntimeException {
+        Throttled() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Ejecuta {@code call} con un turno del límite de concurrencia. Las consultas de elegibilidad
+     * que {@link Hl7Service} agrupa con otra en vuelo también ocupan turno mientras esperan.
+     * La espera se cuenta desde que se aceptó el request, no desde que lo tomó un hilo.
+     *
+     * @throws Throttled si no hay turno a tiempo
+     */
+    private <T> Hl7Result<T> limited(Supplier<Hl7Result<T>> call) {
+        Long accepted = ACCEPTED_AT.get();
+        long waited = accepted != null ? System.nanoTime() - accepted : 0;
+        long remaining = Math.max(0, TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis) - waited);
+        try {
+            if (!permits.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                throw new Throttled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Throttled();
+        }
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Request validado listo para enviar, o null si la operación no existe.
+     *
+     * @throws IllegalArgumentException si el request es inválido
+     */
+    private Call parse(String operation, String body) {
+        switch (operation) {
+            case "elegibilidad": {
+                ElegibilidadRequest request = validated(JsonUtil.fromJson(body, ElegibilidadRequest.class));
+                // Las consultas idénticas en vuelo las agrupa Hl7Service (cada una ocupa su turno)
+                return () -> limited(() -> controller.consultarElegibilidad(request));
+            }
+            case "registracion": {
+                RegistracionRequest request = RegistracionBatchProcessor.toRequest(RegistracionBatchReader.readJsonRow(body));
+                return () -> limited(() -> controller.consultarRegistracion(request));
+            }
+            case "cancelacion": {
+                CancelacionRequest request = JsonUtil.fromJson(body, CancelacionRequest.class);
+                if (request == null || request.getCreden() == null) {
+                    throw new IllegalArgumentException("CancelacionRequest: creden requerido");
+                }
+                if (request.getModo() == null) {
+                    request.setModo("N");
+                }
+                return () -> limited(() -> controller.consultarCancelacion(request));
+            }
+            default:
+                return null;
+        }
+    }
+
+    // Pasa el request recibido por el builder para aplicar las mismas validaciones que la UI
+    private static ElegibilidadRequest validated(ElegibilidadRequest r) {
+        if (r == null) {
+            throw new IllegalArgumentException("ElegibilidadRequest vacío");
+        }
+        return ElegibilidadRequest.builder()
+                .modo(r.getModo() != null ? r.getModo() : "N")
+                .creden(r.getCreden())
+                .alta(r.getAlta())
+                .fecdif(r.getFecdif())
+                .manual(r.getManual())
+                .ticketExt(r.getTicketExt())
+                .termId(r.getTermId())
+                .interNro(r.getInterNro())
+                .cuit(r.getCuit())
+                .oriMatri(r.getOriMatri())
+                .autoriz(r.getAutoriz())
+                .rechaExt(r.getRechaExt())
+                .build();
+    }
+
+    // ---------- Respuestas ----------
+
+    private static int httpStatus(Hl7Result<?> result) {
+        if (!result.isError()) {
+            return 200;
+        }
+        return result.getIssue().map(Hl7Error::isSession).orElse(false) ? 401 : 502;
+    }
+
+    private static String toJson(Hl7Result<?> result) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("status", result.getStatus());
+        json.put("data", result.getData().orElse(null));
+        json.put("error", result.getIssue().map(Hl7Gateway::errorMap).orElse(null));
+
+        List<Map<String, Object>> details = new ArrayList<>(result.getDetails().size());
+        for (Hl7ItemError d : result.getDetails()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("code", d.getCode());
+            item.put("message", d.getMessage());
+            item.put("origin", d.getOrigin());
+            details.add(item);
+        }
+        json.put("details", details);
+        return JsonUtil.toJson(json);
+    }
+
+    private static Map<String, Object> errorMap(Hl7Error e) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("code", e.getCode());
+        error.put("message", e.getMessage());
+        error.put("origin", e.getOrigin());
+        error.put("session", e.isSession());
+        return error;
+    }
+
+    private static String error(String message) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("status", "ERROR");
+        json.put("error", message);
+        return JsonUtil.toJson(json);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // null si supera MAX_BODY_BYTES
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+            if (out.size() > MAX_BODY_BYTES) {
+                return null;
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    // ---------- Proceso standalone ----------
+
+    /**
+     * Gateway standalone: login con {@code HL7CLIENT_EMAIL}, {@code HL7CLIENT_PASSWORD},
+     * {@code HL7CLIENT_APIKEY} y {@code HL7CLIENT_ENV} (por defecto DEV); puerto, límites y
+     * pool HTTP según {@code gateway.*} en la configuración.
+     */
+    public static void main(String[] args) throws IOException {
+        Environment environment = Environment.valueOf(
+                env("HL7CLIENT_ENV", "DEV").trim().toUpperCase(Locale.ROOT));
+
+        CloseableHttpClient http = ApiClient.pooledHttpClient(
+                PropertiesUtil.getInt("gateway.http.max.connections", 32));
+        Session session = new Session("gateway");
+        AuthService auth = new AuthService(session, http);
+        auth.login(
+                env("HL7CLIENT_EMAIL", null),
+                env("HL7CLIENT_PASSWORD", null).toCharArray(),
+                env("HL7CLIENT_APIKEY", null),
+                environment
+        );
+        Hl7Service service = new Hl7Service(new ApiClient(auth, session, http));
+
+        InetSocketAddress address = new InetSocketAddress(
+                InetAddress.getByName(PropertiesUtil.get("gateway.bind", "127.0.0.1")),
+                PropertiesUtil.getInt("gateway.port", 8089));
+        Hl7Gateway gateway = start(
+                service,
+                address,
+                PropertiesUtil.getInt("gateway.max.concurrent", 16),
+                PropertiesUtil.getLong("gateway.queue.timeout.ms", 2000)
+        );
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gateway.close();
+            auth.logout();
+            try {
+                http.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error cerrando el cliente HTTP del gateway", e);
+            }
+        }, "hl7-gateway-shutdown"));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Variable de entorno requerida: " + name);
+            }
+            return defaultValue;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,192 @@
+package com.hl7client.tools;
+
+import com.hl7client.model.catalog.BenefitCatalog;
+import com.hl7client.model.catalog.BenefitCatalogEntry;
+import com.hl7client.model.catalog.BenefitCatalogFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Subcomandos {@code hl7-cli catalogo}: genera el snapshot del catálogo de prestaciones desde un
+ * CSV, genera deltas entre versiones y los aplica.
+ * <pre>
+ *   catalogo snapshot &lt;prestaciones.csv&gt; &lt;versión&gt; &lt;destino.bin&gt;
+ *   catalogo delta &lt;base.bin&gt; &lt;prestaciones.csv&gt; &lt;versión&gt; &lt;destino.hl7d&gt;
+ *   catalogo aplicar &lt;snapshot.bin&gt; &lt;delta.hl7d&gt;...
+ * </pre>
+ * CSV en UTF-8 separado por {@code ;}: {@code codigo;descripcion;cantidadMax;odontologico}.
+ * Se ignoran líneas vacías, comentarios ({@code #}) y una cabecera que empiece con {@code codigo}.
+ * Un delta copiado junto al snapshot de la aplicación se aplica solo al arrancar.
+ */
+final class CatalogTool {
+
+    static final String USAGE = "catalogo snapshot <csv> <versión> <destino.bin>"
+            + " | catalogo delta <base.bin> <csv> <versión> <destino.hl7d>"
+            + " | catalogo aplicar <snapshot.bin> <delta.hl7d>...";
+
+    private CatalogTool() {
+    }
+
+    static int run(List<String> params) throws IOException {
+        if (params.isEmpty()) {
+            throw new IllegalArgumentException("Uso: hl7-cli " + USAGE);
+        }
+        List<String> args = params.subList(1, params.size());
+
+        switch (params.get(0).toLowerCase(Locale.ROOT)) {
+            case "snapshot":
+                requireParams(args, 3);
+                return snapshot(Paths.get(args.get(0)), version(args.get(1)), Paths.get(args.get(2)));
+            case "delta":
+                requireParams(args, 4);
+                return delta(Paths.get(args.get(0)), Paths.get(args.get(1)), version(args.get(2)),
+                        Paths.get(args.get(3)));
+            case "aplicar":
+                requireParams(args, 2);
+                return apply(Paths.get(args.get(0)), args.subList(1, args.size()));
+            default:
+                throw new IllegalArgumentException("Subcomando desconocido: " + params.get(0)
+                        + "\nUso: hl7-cli " + USAGE);
+        }
+    }
+
+    // ---------- Subcomandos ----------
+
+    private static int snapshot(Path csv, int version, Path target) throws IOException {
+        List<BenefitCatalogEntry> entries = new ArrayList<>(readCsv(csv).values());
+        BenefitCatalogFormat.writeSnapshot(entries, version, target);
+
+        // Se reabre para verificar lo escrito con las mismas reglas que la aplicación
+        BenefitCatalog catalog = BenefitCatalog.open(target);
+        System.out.println("snapshot v" + catalog.getDataVersion() + ": " + catalog.size()
+                + " prestaciones -> " + target);
+        return 0;
+    }
+
+    private static int delta(Path base, Path csv, int version, Path target) throws IOException {
+        BenefitCatalog current = BenefitCatalog.open(base);
+        Map<String, BenefitCatalogEntry> next = readCsv(csv);
+
+        List<BenefitCatalogEntry> upserts = new ArrayList<>();
+        for (BenefitCatalogEntry entry : next.values()) {
+            if (!entry.equals(current.find(entry.getCode()))) {
+                upserts.add(entry);
+            }
+        }
+        List<String> deletes = new ArrayList<>();
+        for (BenefitCatalogEntry entry : current.entries()) {
+            if (!next.containsKey(entry.getCode())) {
+                deletes.add(entry.getCode());
+            }
+        }
+
+        BenefitCatalogFormat.writeDelta(current.getDataVersion(), version, upserts, deletes, target);
+        System.out.println("delta v" + current.getDataVersion() + " -> v" + version + ": "
+                + upserts.size() + " altas/cambios, " + deletes.size() + " bajas -> " + target);
+        return 0;
+    }
+
+    private static int apply(Path snapshot, List<String> deltas) throws IOException {
+        int version = -1;
+        for (String delta : deltas) {
+            version = BenefitCatalogFormat.applyDelta(snapshot, Paths.get(delta), snapshot);
+        }
+        System.out.println("snapshot v" + version + " -> " + snapshot);
+        return 0;
+    }
+
+    // ---------- CSV ----------
+
+    /**
+     * Prestaciones del CSV por código, en el orden del archivo.
+     *
+     * @throws IllegalArgumentException con el número de línea si una fila es inválida o se repite
+     */
+    static Map<String, BenefitCatalogEntry> readCsv(Path csv) throws IOException {
+        Map<String, BenefitCatalogEntry> entries = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")
+                        || (number == 1 && trimmed.toLowerCase(Locale.ROOT).startsWith("codigo"))) {
+                    continue;
+                }
+
+                BenefitCatalogEntry entry = parseLine(trimmed, number, csv);
+                if (entries.put(entry.getCode(), entry) != null) {
+                    throw new IllegalArgumentException(csv + ":" + number + ": código repetido " + entry.getCode());
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static BenefitCatalogEntry parseLine(String line, int number, Path csv) {
+        String[] fields = line.split(";", -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException(csv + ":" + number
+                    + ": se esperan 4 campos (codigo;descripcion;cantidadMax;odontologico)");
+        }
+        try {
+            return new BenefitCatalogEntry(
+                    fields[0].trim(),
+                    fields[1].trim(),
+                    Integer.parseInt(fields[2].trim()),
+                    parseFlag(fields[3].trim())
+            );
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(csv + ":" + number + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean parseFlag(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "s":
+            case "si":
+            case "true":
+            case "1":
+                return true;
+            case "n":
+            case "no":
+            case "false":
+            case "0":
+            case "":
+                return false;
+            default:
+                throw new IllegalArgumentException("odontologico inválido: " + value);
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    private static int version(String value) {
+        try {
+            int version = Integer.parseInt(value);
+            if (version >= 0) {
+                return version;
+            }
+        } catch (NumberFormatException ignored) {
+            // mismo mensaje que un negativo
+        }
+        throw new IllegalArgumentException("Versión inválida: " + value);
+    }
+
+    private static void requireParams(List<String> params, int min) {
+        if (params.size() < min) {
+            throw new IllegalArgumentException("Uso: hl7-cli " + USAGE);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.hl7client.tools;
+
+import com.hl7client.client.ApiClient;
+import com.hl7client.config.Environment;
+import com.hl7client.config.Session;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.benefit.BenefitItem;
+import com.hl7client.model.benefit.BenefitRequestMapper;
+import com.hl7client.model.benefit.MedicalBenefitItem;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.enums.TipoMensaje;
+import com.hl7client.model.result.Hl7Result;
+import com.hl7client.probe.EnvironmentFanOut;
+import com.hl7client.service.AuthService;
+import com.hl7client.service.Hl7Service;
+import com.hl7client.util.JsonUtil;
+import com.hl7client.util.PropertiesUtil;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cliente de línea de comandos sobre el núcleo sin UI (client, service, config, model, util).
+ * Es el punto de entrada del ejecutable nativo (perfil Maven {@code native}).
+ * <pre>
+ *   hl7-cli smoke
+ *   hl7-cli elegibilidad &lt;creden&gt;
+ *   hl7-cli registracion &lt;creden&gt; &lt;codigo[:cantidad]&gt;...
+ *   hl7-cli fanout &lt;creden&gt; [ENTORNO...]
+ *   hl7-cli catalogo snapshot|delta|aplicar ...
+ * </pre>
+ * {@code smoke} corre login y una transacción de cada tipo contra {@link Hl7StubServer}.
+ * El resto usa las credenciales de {@code HL7CLIENT_EMAIL}, {@code HL7CLIENT_PASSWORD},
+ * {@code HL7CLIENT_APIKEY} y el entorno de {@code HL7CLIENT_ENV} (por defecto DEV),
+ * e imprime el resultado como JSON. Código de salida 0 solo si el resultado es OK.
+ * {@code fanout} se autentica en cada entorno (DEV, QA y PRE si no se indican) con las mismas
+ * credenciales, compara la elegibilidad con {@link EnvironmentFanOut} e imprime el reporte;
+ * código de salida 0 solo si todos los entornos coinciden.
+ * {@code catalogo} trabaja solo con archivos locales (ver {@link CatalogTool}).
+ */
+public final class Hl7Cli {
+
+    private Hl7Cli() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            exitCode = 2;
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException(usage());
+        }
+        String command = args[0].toLowerCase(Locale.ROOT);
+        List<String> params = Arrays.asList(args).subList(1, args.length);
+
+        switch (command) {
+            case "smoke":
+                return smoke();
+            case "elegibilidad":
+                requireParams(params, 1);
+                return print(login().consultarElegibilidad(ElegibilidadRequest.builder()
+                        .modo("N")
+                        .creden(params.get(0))
+                        .build()));
+            case "registracion":
+                requireParams(params, 2);
+                return print(login().consultarRegistracion(registracion(params)));
+            case "fanout":
+                requireParams(params, 1);
+                return fanout(params.get(0), params.subList(1, params.size()));
+            case "catalogo":
+                return CatalogTool.run(params);
+            default:
+                throw new IllegalArgumentException("Comando desconocido: " + args[0] + "\n" + usage());
+        }
+    }
+
+    // ---------- Comandos ----------
+
+    private static int smoke() throws Exception {
+        long start = System.nanoTime();
+        try (Hl7StubServer stub = Hl7StubServer.start(0)) {
+            AuthService auth = StubScenario.login(stub);
+            Hl7Controller controller = StubScenario.controller(auth);
+
+            StubScenario.elegibilidad(controller);
+            StubScenario.registracion(controller);
+            StubScenario.cancelacion(controller);
+            auth.logout();
+
+            System.out.println("smoke OK: " + stub.getRequestCount() + " requests en "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return 0;
+        }
+    }
+
+    private static int fanout(String creden, List<String> names) throws IOException {
+        List<Environment> environments = new ArrayList<>();
+        for (String name : names.isEmpty() ? Arrays.asList("DEV", "QA", "PRE") : names) {
+            environments.add(Environment.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        // Un solo pool HTTP para login y consultas de todos los entornos, cerrado al terminar
+        List<AuthService> sessions = new ArrayList<>();
+        try (CloseableHttpClient http = ApiClient.pooledHttpClient(
+                PropertiesUtil.getInt("http.max.connections", 8))) {
+            Map<Environment, Hl7Service> services = new EnumMap<>(Environment.class);
+            for (Environment environment : environments) {
+                AuthService auth = new AuthService(Session.forEnvironment(environment), http);
+                sessions.add(auth);
+                auth.login(
+                        env("HL7CLIENT_EMAIL", null),
+                        env("HL7CLIENT_PASSWORD", null).toCharArray(),
+                        env("HL7CLIENT_APIKEY", null),
+                        environment
+                );
+                services.put(environment, new Hl7Service(new ApiClient(auth, auth.getSession(), http)));
+            }
+
+            EnvironmentFanOut.Report report = new EnvironmentFanOut(services).run(
+                    ElegibilidadRequest.builder().modo("N").creden(creden).build(),
+                    PropertiesUtil.getInt("http.timeout.socket.ms", 30_000)
+            );
+            System.out.print(report);
+            if (!report.isConsistent()) {
+                System.err.println("Difieren: " + String.join(", ", report.getDifferences()));
+            }
+            return report.isConsistent() ? 0 : 1;
+        } finally {
+            // Detiene el refresh agendado de cada sesión
+            for (AuthService auth : sessions) {
+                auth.logout();
+            }
+        }
+    }
+
+    private static Hl7Controller login() {
+        Environment environment = Environment.valueOf(
+                env("HL7CLIENT_ENV", "DEV").trim().toUpperCase(Locale.ROOT));
+
+        AuthService auth = new AuthService();
+        auth.login(
+                env("HL7CLIENT_EMAIL", null),
+                env("HL7CLIENT_PASSWORD", null).toCharArray(),
+                env("HL7CLIENT_APIKEY", null),
+                environment
+        );
+        return StubScenario.controller(auth);
+    }
+
+    private static RegistracionRequest registracion(List<String> params) {
+        List<BenefitItem> items = new ArrayList<>();
+        for (String spec : params.subList(1, params.size())) {
+            int sep = spec.indexOf(':');
+            String codigo = sep < 0 ? spec : spec.substring(0, sep);
+            int cantidad = sep < 0 ? 1 : Integer.parseInt(spec.substring(sep + 1));
+            items.add(MedicalBenefitItem.of(cantidad, codigo));
+        }
+
+        RegistracionRequest.Builder builder = RegistracionRequest.builder()
+                .modo("N")
+                .tipo(90)
+                .creden(params.get(0))
+                .alta("")
+                .fecdif("")
+                .autoriz(0)
+                .tipoMensaje(TipoMensaje.MEDICINA.getCodigoHl7());
+        return BenefitRequestMapper.apply(builder, items).build();
+    }
+
+    // ---------- Helpers ----------
+
+    private static int print(Hl7Result<?> result) {
+        System.out.println(result.getStatus());
+        result.getData().ifPresent(data -> System.out.println(JsonUtil.toJson(data)));
+        result.getIssue().ifPresent(issue -> System.err.println(issue));
+        return result.isOk() ? 0 : 1;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Variable de entorno requerida: " + name);
+            }
+            return defaultValue;
+        }
+        return value;
+    }
+
+    private static void requireParams(List<String> params, int min) {
+        if (params.size() < min) {
+            throw new IllegalArgumentException(usage());
+        }
+    }
+
+    private static String usage() {
+        return "Uso: hl7-cli smoke | elegibilidad <creden> | registracion <creden> <codigo[:cantidad]>..."
+                + " | fanout <creden> [ENTORNO...]"
+                + " | " + CatalogTool.USAGE;
+    }
+}
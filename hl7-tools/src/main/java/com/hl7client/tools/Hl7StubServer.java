@@ -0,0 +1,188 @@
+package com.hl7client.tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backend HL7 mínimo en memoria, para corridas de entrenamiento (AppCDS), smoke tests
+ * y benchmarks locales. Responde por sufijo de ruta, sin importar el context path:
+ * <ul>
+ *   <li>{@code .../auth-login}, {@code .../auth-refresh}: token válido por una hora</li>
+ *   <li>{@code .../elegibilidad}, {@code .../registracion}, {@code .../cancela-prestacion}:
+ *       respuesta aceptada con número de transacción incremental</li>
+ * </ul>
+ * Opcionalmente simula la cuota del backend ({@link #setQuotaPerSecond}): por encima del
+ * cupo responde {@code 429} con {@code Retry-After}.
+ * Solo escucha en loopback. No depende de la configuración de la aplicación, de modo que
+ * puede levantarse antes de fijar {@code env.base.url.*}.
+ */
+public final class Hl7StubServer implements AutoCloseable {
+
+    private static final DateTimeFormatter EXP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final HttpServer server;
+    private final AtomicLong transac = new AtomicLong(1000);
+    private final AtomicLong requests = new AtomicLong();
+    private volatile long latencyMillis;
+
+    // Cuota simulada: ventana fija de un segundo (0 = sin cuota)
+    private volatile int quotaPerSecond;
+    private long quotaWindow;
+    private int quotaUsed;
+    private final AtomicLong rejectedByQuota = new AtomicLong();
+
+    private Hl7StubServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Levanta el stub en {@code port} (0 = puerto libre).
+     */
+    public static Hl7StubServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        Hl7StubServer stub = new Hl7StubServer(server);
+        server.createContext("/", stub::handle);
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "hl7-stub");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        return stub;
+    }
+
+    /**
+     * URL base para {@code env.base.url.*} (sin context path).
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Demora artificial de cada respuesta HL7 (no aplica a auth), para simular el backend real.
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        if (latencyMillis < 0) {
+            throw new IllegalArgumentException("Latencia inválida: " + latencyMillis);
+        }
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Requests HL7 aceptados por segundo (no aplica a auth); 0 desactiva la cuota.
+     */
+    public void setQuotaPerSecond(int quotaPerSecond) {
+        if (quotaPerSecond < 0) {
+            throw new IllegalArgumentException("Cuota inválida: " + quotaPerSecond);
+        }
+        this.quotaPerSecond = quotaPerSecond;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Requests respondidos con {@code 429} por la cuota simulada.
+     */
+    public long getRejectedByQuotaCount() {
+        return rejectedByQuota.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // ---------- Respuestas ----------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        drain(exchange.getRequestBody());
+
+        String path = exchange.getRequestURI().getPath();
+        int status = 200;
+        String body;
+
+        if (path.endsWith("/auth-login") || path.endsWith("/auth-refresh")) {
+            body = "{\"token\":\"stub-" + transac.incrementAndGet() + "\","
+                    + "\"exp\":\"" + LocalDateTime.now().plusHours(1).format(EXP_FORMAT) + "\","
+                    + "\"modelEspecifico\":{\"razonSocialPrestador\":\"PRESTADOR STUB\",\"idPrestador\":1,"
+                    + "\"codPrestador\":1,\"cuitPrestador\":\"20000000001\"}}";
+        } else if (!withinQuota()) {
+            status = 429;
+            body = "{\"error\":\"cuota excedida\"}";
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        } else if (!simulateLatency()) {
+            status = 503;
+            body = "{\"error\":\"interrumpido\"}";
+        } else if (path.endsWith("/elegibilidad")) {
+            body = "{\"transac\":\"" + transac.incrementAndGet() + "\",\"rechaCabecera\":0,"
+                    + "\"apeNom\":\"AFILIADO STUB\",\"planCodi\":\"STUB\",\"edad\":40,\"sexo\":\"F\",\"pmi\":\"N\"}";
+        } else if (path.endsWith("/registracion") || path.endsWith("/cancela-prestacion")) {
+            body = "{\"cabecera\":{\"transac\":" + transac.incrementAndGet() + ",\"rechaCabecera\":0,"
+                    + "\"apeNom\":\"AFILIADO STUB\"},\"detalle\":[]}";
+        } else {
+            status = 404;
+            body = "{\"error\":\"ruta desconocida: " + path + "\"}";
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private boolean withinQuota() {
+        int quota = quotaPerSecond;
+        if (quota <= 0) {
+            return true;
+        }
+        long window = System.currentTimeMillis() / 1000;
+        synchronized (this) {
+            if (window != quotaWindow) {
+                quotaWindow = window;
+                quotaUsed = 0;
+            }
+            if (quotaUsed < quota) {
+                quotaUsed++;
+                return true;
+            }
+        }
+        rejectedByQuota.incrementAndGet();
+        return false;
+    }
+
+    private boolean simulateLatency() {
+        long millis = latencyMillis;
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) >= 0) {
+            // descartar
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hl7client.tools;
+
+import com.hl7client.client.ApiClient;
+import com.hl7client.config.Environment;
+import com.hl7client.config.Session;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.benefit.BenefitItem;
+import com.hl7client.model.benefit.BenefitRequestMapper;
+import com.hl7client.model.benefit.MedicalBenefitItem;
+import com.hl7client.model.dto.request.hl7.CancelacionRequest;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.enums.TipoMensaje;
+import com.hl7client.model.result.Hl7Result;
+import com.hl7client.service.AuthService;
+import com.hl7client.service.Hl7Service;
+import com.hl7client.util.PropertiesUtil;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transacciones guionadas contra {@link Hl7StubServer} (entrenamiento AppCDS y smoke test nativo).
+ * Cada paso falla con {@link IllegalStateException} si el resultado no es OK.
+ */
+final class StubScenario {
+
+    private static final String CREDEN = "1234567890123456";
+
+    private StubScenario() {
+    }
+
+    /**
+     * Apunta DEV al stub y se autentica.
+     */
+    static AuthService login(Hl7StubServer stub) {
+        System.setProperty("env.base.url.dev", stub.getBaseUrl());
+        // La configuración resuelta es un snapshot: sin recargar, el override depende de que
+        // nadie haya leído PropertiesUtil antes
+        PropertiesUtil.reload();
+
+        AuthService auth = new AuthService(Session.forEnvironment(Environment.DEV));
+        auth.login("scenario@stub", "stub".toCharArray(), "stub", Environment.DEV);
+        return auth;
+    }
+
+    static Hl7Controller controller(AuthService auth) {
+        return new Hl7Controller(new Hl7Service(new ApiClient(auth, auth.getSession())));
+    }
+
+    static void elegibilidad(Hl7Controller controller) {
+        check(controller.consultarElegibilidad(ElegibilidadRequest.builder()
+                .modo("N")
+                .creden(CREDEN)
+                .build()), "elegibilidad");
+    }
+
+    static void registracion(Hl7Controller controller) {
+        RegistracionRequest.Builder builder = RegistracionRequest.builder()
+                .modo("N")
+                .tipo(90)
+                .creden(CREDEN)
+                .alta("")
+                .fecdif("")
+                .autoriz(0)
+                .tipoMensaje(TipoMensaje.MEDICINA.getCodigoHl7());
+        List<BenefitItem> items = Collections.singletonList(MedicalBenefitItem.of(1, "420101"));
+        RegistracionRequest request = BenefitRequestMapper.apply(builder, items).build();
+
+        check(controller.consultarRegistracion(request), "registración");
+    }
+
+    static void cancelacion(Hl7Controller controller) {
+        check(controller.consultarCancelacion(CancelacionRequest.builder()
+                .modo("N")
+                .creden(Long.parseLong(CREDEN))
+                .tipo(90)
+                .build()), "cancelación");
+    }
+
+    private static void check(Hl7Result<?> result, String operation) {
+        if (!result.isOk()) {
+            throw new IllegalStateException("Transacción fallida contra el stub (" + operation + "): " + result);
+        }
+    }
+}
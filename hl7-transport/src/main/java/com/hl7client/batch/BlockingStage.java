@@ -0,0 +1,223 @@
+package com.hl7client.batch;
+
+import com.hl7client.client.TransactionExecutors;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Etapa de flujo que aplica una función bloqueante (típicamente una transacción HL7)
+ * con a lo sumo {@code maxInFlight} ejecuciones simultáneas.
+ * <p>
+ * Backpressure: pide a la etapa anterior solo lo que puede procesar, acotado por la
+ * demanda pendiente de la siguiente y por {@code maxInFlight}; así la memoria queda
+ * acotada (pedidos + en vuelo + listos ≤ {@code maxInFlight}) y el ritmo lo fija el backend
+ * (y cualquier límite que bloquee dentro de la función). Los resultados se emiten en orden
+ * de finalización. {@code cancel()} desde abajo cancela la fuente y descarta lo pendiente.
+ * <p>
+ * Una excepción de la función termina el flujo con {@code onError}; las funciones que
+ * devuelven {@link com.hl7client.model.result.Hl7Result} informan sus errores como datos.
+ */
+public final class BlockingStage<I, O> implements Hl7Flow.Processor<I, O> {
+
+    private final Function<? super I, ? extends O> function;
+    private final int maxInFlight;
+    private final ExecutorService executor;
+
+    private volatile Hl7Flow.Subscription upstream;
+    private volatile Hl7Flow.Subscriber<? super O> downstream;
+
+    private final AtomicLong requested = new AtomicLong();   // demanda de abajo sin emitir
+    private final AtomicLong outstanding = new AtomicLong(); // pedidos arriba, aún no recibidos
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<O> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean upstreamDone;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private boolean terminated;
+
+    /**
+     * @param name        prefijo de los hilos de la etapa
+     * @param maxInFlight ejecuciones simultáneas (y elementos retenidos) como máximo
+     */
+    public BlockingStage(String name, int maxInFlight, Function<? super I, ? extends O> function) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight inválido: " + maxInFlight);
+        }
+        this.function = Objects.requireNonNull(function);
+        this.maxInFlight = maxInFlight;
+        this.executor = TransactionExecutors.newExecutor(name, maxInFlight);
+    }
+
+    // ---------- Publisher (hacia abajo) ----------
+
+    @Override
+    public void subscribe(Hl7Flow.Subscriber<? super O> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (downstream != null) {
+            subscriber.onSubscribe(Hl7Flow.CANCELLED);
+            subscriber.onError(new IllegalStateException("La etapa admite un solo subscriber"));
+            return;
+        }
+        downstream = subscriber;
+        subscriber.onSubscribe(new Hl7Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("request debe ser positivo: " + n));
+                    return;
+                }
+                Hl7Flow.addCap(requested, n);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                Hl7Flow.Subscription s = upstream;
+                if (s != null) {
+                    s.cancel();
+                }
+                executor.shutdownNow();
+                drain();
+            }
+        });
+        drain();
+    }
+
+    // ---------- Subscriber (desde arriba) ----------
+
+    @Override
+    public void onSubscribe(Hl7Flow.Subscription subscription) {
+        if (upstream != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(I item) {
+        // Primero en vuelo y después fuera de "pedidos": el total nunca se subestima
+        inFlight.incrementAndGet();
+        outstanding.decrementAndGet();
+        try {
+            executor.execute(() -> process(item));
+        } catch (RejectedExecutionException e) {
+            // Cancelada mientras llegaba el elemento
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fail(t);
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    // ---------- Internos ----------
+
+    private void process(I item) {
+        try {
+            O result = function.apply(item);
+            if (result != null) {
+                ready.offer(result);
+            }
+        } catch (Throwable t) {
+            // También Error: sin esto el elemento se pierde y el suscriptor nunca recibe onError
+            fail(t);
+        } finally {
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+
+    private void fail(Throwable t) {
+        if (error == null) {
+            error = t;
+        }
+        Hl7Flow.Subscription s = upstream;
+        if (s != null) {
+            s.cancel();
+        }
+        upstreamDone = true;
+        drain();
+    }
+
+    // Un solo hilo a la vez emite hacia abajo y pide hacia arriba
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Hl7Flow.Subscriber<? super O> down = downstream;
+            if (!terminated && down != null) {
+                if (cancelled) {
+                    ready.clear();
+                    terminated = true;
+                } else {
+                    emitAndRequest(down);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitAndRequest(Hl7Flow.Subscriber<? super O> down) {
+        // Error: se corta sin esperar lo que está en vuelo
+        if (error != null) {
+            terminated = true;
+            ready.clear();
+            executor.shutdownNow();
+            down.onError(error);
+            return;
+        }
+
+        long demand = requested.get();
+        long emitted = 0;
+        O item;
+        // cancel() desde onNext corta la entrega en curso: lo ya listo se descarta
+        while (emitted != demand && !cancelled && (item = ready.poll()) != null) {
+            down.onNext(item);
+            emitted++;
+        }
+        if (emitted > 0 && demand != Long.MAX_VALUE) {
+            demand = requested.addAndGet(-emitted);
+        }
+        if (cancelled) {
+            return;   // la próxima vuelta de drain() descarta y termina
+        }
+
+        if (upstreamDone && inFlight.get() == 0 && ready.isEmpty()) {
+            terminated = true;
+            executor.shutdown();
+            down.onComplete();
+            return;
+        }
+
+        Hl7Flow.Subscription up = upstream;
+        if (up != null && !upstreamDone) {
+            long held = outstanding.get() + inFlight.get() + ready.size();
+            long want = Math.min(maxInFlight, demand) - held;
+            if (want > 0) {
+                outstanding.addAndGet(want);
+                up.request(want);
+            }
+        }
+    }
+}
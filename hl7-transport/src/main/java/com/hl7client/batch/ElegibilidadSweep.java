@@ -0,0 +1,132 @@
+package com.hl7client.batch;
+
+import com.hl7client.client.RequestPriority;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
+import com.hl7client.model.result.Hl7Error;
+import com.hl7client.model.result.Hl7ErrorOrigin;
+import com.hl7client.model.result.Hl7Result;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Barrido masivo de elegibilidad como etapa de flujo ({@link Hl7Flow}).
+ * <p>
+ * Cada credencial se valida con {@link ElegibilidadRequest.Builder} y se consulta con
+ * {@link Hl7Controller#consultarElegibilidad} (codificación, HTTP y {@code Hl7Validator}).
+ * Las credenciales se leen de la fuente solo cuando el destino pide resultados y hay lugar
+ * en vuelo, por lo que memoria y concurrencia quedan acotadas por {@code maxInFlight}
+ * aunque la fuente sea un archivo de millones de líneas. Cancelar el destino cancela la
+ * lectura de la fuente y las consultas pendientes.
+ * <p>
+ * Las credenciales inválidas no llegan al backend: se informan como error de
+ * {@link Hl7ErrorOrigin#PARSEO}.
+ */
+public final class ElegibilidadSweep {
+
+    // Valor fijo, igual al de ElegibilidadDialog
+    private static final String MODO = "N";
+
+    private final Hl7Controller hl7Controller;
+    private final int maxInFlight;
+
+    public ElegibilidadSweep(Hl7Controller hl7Controller, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Se requiere al menos 1 consulta en vuelo");
+        }
+        this.hl7Controller = Objects.requireNonNull(hl7Controller);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Etapa nueva (un solo uso): recibe credenciales y publica un {@link Item} por cada una,
+     * en orden de finalización.
+     */
+    public Hl7Flow.Processor<String, Item> stage() {
+        return new BlockingStage<>("elegibilidad-sweep", maxInFlight, this::consultar);
+    }
+
+    /**
+     * Conecta {@code source} → etapa → {@code sink}; el destino fija el ritmo.
+     */
+    public void connect(Hl7Flow.Publisher<String> source, Hl7Flow.Subscriber<? super Item> sink) {
+        Hl7Flow.Processor<String, Item> stage = stage();
+        stage.subscribe(sink);
+        source.subscribe(stage);
+    }
+
+    /**
+     * Corrida bloqueante: consulta cada credencial de {@code credenciales} y entrega el
+     * resultado a {@code consumer} (llamado desde un hilo a la vez).
+     *
+     * @return cantidad de resultados entregados
+     */
+    public long run(Iterator<String> credenciales, Consumer<? super Item> consumer) throws InterruptedException {
+        Hl7Flow.Sink<Item> sink = Hl7Flow.sink(consumer, maxInFlight);
+        connect(Hl7Flow.fromIterator(credenciales), sink);
+        return sink.await();
+    }
+
+    // ---------- Etapas ----------
+
+    private Item consultar(String creden) {
+        ElegibilidadRequest request;
+        try {
+            request = ElegibilidadRequest.builder()
+                    .modo(MODO)
+                    .creden(creden != null ? creden.trim() : null)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return new Item(creden, Hl7Result.error(
+                    Hl7Error.technical(e.getMessage(), Hl7ErrorOrigin.PARSEO)
+            ));
+        }
+
+        Hl7Result<ElegibilidadResponse> result;
+        try {
+            result = RequestPriority.BULK.call(() -> hl7Controller.consultarElegibilidad(request));
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Etapa cancelada: el resultado ya no se entrega
+                return null;
+            }
+            result = Hl7Result.error(Hl7Error.technical(
+                    e.getMessage() != null ? e.getMessage() : "Error técnico inesperado",
+                    Hl7ErrorOrigin.TRANSPORTE
+            ));
+        }
+        return new Item(creden, result);
+    }
+
+    // ---------- Soporte ----------
+
+    /**
+     * Resultado de una credencial del barrido.
+     */
+    public static final class Item {
+
+        private final String creden;
+        private final Hl7Result<ElegibilidadResponse> result;
+
+        Item(String creden, Hl7Result<ElegibilidadResponse> result) {
+            this.creden = creden;
+            this.result = result;
+        }
+
+        public String getCreden() {
+            return creden;
+        }
+
+        public Hl7Result<ElegibilidadResponse> getResult() {
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{creden=" + creden + ", status=" + result.getStatus() + '}';
+        }
+    }
+}
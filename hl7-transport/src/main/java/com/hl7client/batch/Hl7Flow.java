@@ -0,0 +1,269 @@
+package com.hl7client.batch;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Contratos de flujo con backpressure por demanda, con la misma forma que
+ * {@code java.util.concurrent.Flow} / Reactive Streams (el proyecto compila para Java 8,
+ * donde {@code Flow} no existe). Un adaptador a {@code Flow} es un reenvío 1 a 1.
+ * <p>
+ * Reglas que respetan las implementaciones de este paquete: las señales a un subscriber
+ * son secuenciales, nunca se emiten más {@code onNext} que lo pedido con
+ * {@link Subscription#request(long)}, y {@link Subscription#cancel()} se propaga hacia la fuente.
+ */
+public final class Hl7Flow {
+
+    private Hl7Flow() {
+    }
+
+    public interface Publisher<T> {
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable error);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+
+    // ---------- Fuentes ----------
+
+    /**
+     * Publisher de un solo subscriber que lee el iterador a demanda: solo se avanza
+     * cuando el consumidor pide más elementos (por ejemplo, líneas de un archivo).
+     */
+    public static <T> Publisher<T> fromIterator(Iterator<? extends T> source) {
+        Objects.requireNonNull(source);
+        AtomicBoolean subscribed = new AtomicBoolean();
+        return subscriber -> {
+            Objects.requireNonNull(subscriber);
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(CANCELLED);
+                subscriber.onError(new IllegalStateException("El publisher admite un solo subscriber"));
+                return;
+            }
+            new IteratorSubscription<T>(source, subscriber).start();
+        };
+    }
+
+    // ---------- Destinos ----------
+
+    /**
+     * Subscriber que entrega cada elemento a {@code consumer} con una ventana de
+     * {@code batch}: pide {@code batch} al inicio y uno más por cada elemento consumido,
+     * de modo que la demanda pendiente se mantiene constante y acotada.
+     */
+    public static <T> Sink<T> sink(Consumer<? super T> consumer, int batch) {
+        return new Sink<>(consumer, batch);
+    }
+
+    public static final class Sink<T> implements Subscriber<T> {
+
+        private final Consumer<? super T> consumer;
+        private final int batch;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile Subscription subscription;
+        private volatile Throwable error;
+        private long received;
+
+        private Sink(Consumer<? super T> consumer, int batch) {
+            if (batch < 1) {
+                throw new IllegalArgumentException("batch inválido: " + batch);
+            }
+            this.consumer = Objects.requireNonNull(consumer);
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (subscription != null) {
+                s.cancel();
+                return;
+            }
+            subscription = s;
+            s.request(batch);
+        }
+
+        @Override
+        public void onNext(T item) {
+            received++;
+            try {
+                consumer.accept(item);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                onError(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done.getCount() > 0) {
+                error = t;
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        /**
+         * Cancela el flujo de punta a punta; {@link #await()} retorna sin error.
+         */
+        public void cancel() {
+            Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+            done.countDown();
+        }
+
+        /**
+         * Bloquea hasta que el flujo termina, falla o se cancela.
+         *
+         * @return elementos recibidos
+         * @throws IllegalStateException con la causa si el flujo terminó con error
+         */
+        public long await() throws InterruptedException {
+            done.await();
+            if (error != null) {
+                throw new IllegalStateException("El flujo terminó con error", error);
+            }
+            return received;
+        }
+    }
+
+    // ---------- Internos ----------
+
+    static final Subscription CANCELLED = new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    /**
+     * Suma de demanda con tope en Long.MAX_VALUE (demanda ilimitada).
+     */
+    static long addCap(AtomicLong requested, long n) {
+        while (true) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return current;
+            }
+            long next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+            if (requested.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static final class IteratorSubscription<T> implements Subscription {
+
+        private final Iterator<? extends T> source;
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private boolean done;
+
+        IteratorSubscription(Iterator<? extends T> source, Subscriber<? super T> subscriber) {
+            this.source = source;
+            this.subscriber = subscriber;
+        }
+
+        void start() {
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("request debe ser positivo: " + n));
+                return;
+            }
+            addCap(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        // Un solo hilo emite a la vez; pedidos reentrantes desde onNext solo suman demanda
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long emitted = 0;
+                long demand = requested.get();
+                while (!cancelled && !done && emitted != demand) {
+                    T item;
+                    try {
+                        if (!source.hasNext()) {
+                            done = true;
+                            subscriber.onComplete();
+                            break;
+                        }
+                        item = Objects.requireNonNull(source.next(), "La fuente devolvió null");
+                    } catch (RuntimeException e) {
+                        done = true;
+                        subscriber.onError(e);
+                        break;
+                    }
+                    subscriber.onNext(item);
+                    emitted++;
+                }
+                // Fin de la fuente aunque no haya demanda pendiente
+                if (!cancelled && !done && emitted == demand) {
+                    try {
+                        if (!source.hasNext()) {
+                            done = true;
+                            subscriber.onComplete();
+                        }
+                    } catch (RuntimeException e) {
+                        done = true;
+                        subscriber.onError(e);
+                    }
+                }
+                if (emitted > 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
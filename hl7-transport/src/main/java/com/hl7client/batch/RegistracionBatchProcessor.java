@@ -0,0 +1,343 @@
+package com.hl7client.batch;
+
+import com.hl7client.client.RequestPriority;
+import com.hl7client.client.TransactionExecutors;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.benefit.BenefitItem;
+import com.hl7client.model.benefit.BenefitRequestMapper;
+import com.hl7client.model.benefit.MedicalBenefitItem;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.dto.response.hl7.RegistracionCabecera;
+import com.hl7client.model.dto.response.hl7.RegistracionResponse;
+import com.hl7client.model.enums.TipoMensaje;
+import com.hl7client.model.result.Hl7Error;
+import com.hl7client.model.result.Hl7ErrorOrigin;
+import com.hl7client.model.result.Hl7ItemError;
+import com.hl7client.model.result.Hl7Result;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Procesa una importación masiva de registraciones médicas.
+ * <p>
+ * Flujo:
+ * <ol>
+ *   <li>Cada fila se mapea en paralelo a un {@link RegistracionRequest}
+ *       ({@link MedicalBenefitItem#of} + {@link BenefitRequestMapper#apply}).
+ *       Las filas inválidas no llegan al backend.</li>
+ *   <li>Las filas válidas se agrupan por credencial y cada grupo se envía en orden
+ *       de archivo, con a lo sumo {@code workers} grupos en vuelo ({@link TransactionExecutors}:
+ *       hilos virtuales si el JDK los soporta): dos credenciales distintas avanzan en
+ *       paralelo, una misma credencial nunca.</li>
+ *   <li>Cada resultado se escribe al archivo de salida apenas está disponible.</li>
+ * </ol>
+ * Formato de salida (';'): {@code linea;creden;estado;transac;mensaje;detalles}
+ */
+public final class RegistracionBatchProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger(RegistracionBatchProcessor.class.getName());
+
+    private static final String HEADER = "linea;creden;estado;transac;mensaje;detalles";
+
+    // Valores fijos, iguales a los de RegistracionDialog
+    private static final String MODO = "N";
+    private static final int TIPO = 90;
+
+    private final Hl7Controller hl7Controller;
+    private final int workers;
+
+    public RegistracionBatchProcessor(Hl7Controller hl7Controller, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Se requiere al menos 1 worker");
+        }
+        this.hl7Controller = Objects.requireNonNull(hl7Controller);
+        this.workers = workers;
+    }
+
+    /**
+     * Procesa todas las filas y escribe un resultado por fila en {@code output}.
+     * Bloquea hasta que terminan todos los envíos. Si el hilo es interrumpido, cancela los
+     * envíos pendientes y devuelve un resumen marcado como {@link Summary#isInterrupted()},
+     * con el flag de interrupción del hilo puesto.
+     *
+     * @return resumen de la corrida
+     */
+    public Summary process(List<RegistracionBatchRow> rows, Path output) throws IOException {
+        Objects.requireNonNull(rows);
+        Objects.requireNonNull(output);
+
+        // 1) Mapeo en paralelo (CPU), conservando el orden del archivo
+        List<PreparedRow> prepared = rows.parallelStream()
+                .map(RegistracionBatchProcessor::prepare)
+                .collect(Collectors.toList());
+
+        Summary summary = new Summary();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            ResultSink sink = new ResultSink(writer, summary);
+            sink.header();
+
+            // 2) Filas inválidas: se informan sin enviar
+            Map<String, List<PreparedRow>> byCreden = new LinkedHashMap<>();
+            for (PreparedRow p : prepared) {
+                if (p.request == null) {
+                    sink.write(p.row, p.error);
+                } else {
+                    byCreden.computeIfAbsent(p.row.getCreden(), k -> new ArrayList<>()).add(p);
+                }
+            }
+
+            // 3) Envío: un task secuencial por credencial; a lo sumo "workers" credenciales en vuelo
+            ExecutorService pool = TransactionExecutors.newExecutor("registracion-batch", workers);
+            try {
+                for (List<PreparedRow> group : byCreden.values()) {
+                    pool.execute(() -> submitInOrder(group, sink));
+                }
+                pool.shutdown();
+                if (!awaitTermination(pool)) {
+                    summary.markInterrupted();
+                    LOGGER.warning("Batch de registraciones interrumpido; el resultado es parcial");
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            if (sink.failure != null) {
+                throw sink.failure;
+            }
+        }
+
+        return summary;
+    }
+
+    // ---------- Etapas ----------
+
+    private static PreparedRow prepare(RegistracionBatchRow row) {
+        try {
+            return new PreparedRow(row, toRequest(row), null);
+        } catch (IllegalArgumentException e) {
+            return new PreparedRow(row, null, Hl7Result.error(
+                    Hl7Error.technical(e.getMessage(), Hl7ErrorOrigin.PARSEO)
+            ));
+        }
+    }
+
+    /**
+     * Mapea una fila a su {@link RegistracionRequest} (mismos valores fijos que {@code RegistracionDialog}).
+     *
+     * @throws IllegalArgumentException si la línea no se pudo leer o la fila tiene códigos,
+     *                                  cantidades o campos inválidos
+     */
+    public static RegistracionRequest toRequest(RegistracionBatchRow row) {
+        if (row.getParseError() != null) {
+            throw new IllegalArgumentException(row.getParseError());
+        }
+
+        List<BenefitItem> items = new ArrayList<>(row.getBenefits().size());
+        for (RegistracionBatchRow.Benefit b : row.getBenefits()) {
+            items.add(MedicalBenefitItem.of(b.getQuantity(), b.getCode()));
+        }
+
+        RegistracionRequest.Builder builder = RegistracionRequest.builder()
+                .modo(MODO)
+                .tipo(TIPO)
+                .creden(row.getCreden())
+                .alta(row.getAlta() != null ? row.getAlta() : "")
+                .fecdif(row.getFecdif() != null ? row.getFecdif() : "")
+                .autoriz(0)
+                .tipoMensaje(TipoMensaje.MEDICINA.getCodigoHl7());
+        return BenefitRequestMapper.apply(builder, items).build();
+    }
+
+    private void submitInOrder(List<PreparedRow> group, ResultSink sink) {
+        for (PreparedRow p : group) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            Hl7Result<RegistracionResponse> result;
+            try {
+                result = RequestPriority.BULK.call(() -> hl7Controller.consultarRegistracion(p.request));
+            } catch (Exception e) {
+                result = Hl7Result.error(Hl7Error.technical(
+                        e.getMessage() != null ? e.getMessage() : "Error técnico inesperado",
+                        Hl7ErrorOrigin.TRANSPORTE
+                ));
+            }
+            sink.write(p.row, result);
+        }
+    }
+
+    /**
+     * @return false si el hilo fue interrumpido antes de que terminaran los envíos
+     *         (el flag de interrupción queda puesto)
+     */
+    private static boolean awaitTermination(ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.fine("Batch de registraciones aún en curso");
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // ---------- Soporte ----------
+
+    private static final class PreparedRow {
+        final RegistracionBatchRow row;
+        final RegistracionRequest request;                 // null si la fila es inválida
+        final Hl7Result<RegistracionResponse> error;       // solo si request == null
+
+        PreparedRow(RegistracionBatchRow row, RegistracionRequest request, Hl7Result<RegistracionResponse> error) {
+            this.row = row;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Escritura serializada de resultados; cada línea se vuelca al terminar.
+     */
+    private static final class ResultSink {
+
+        private final BufferedWriter writer;
+        private final Summary summary;
+        private volatile IOException failure;
+
+        ResultSink(BufferedWriter writer, Summary summary) {
+            this.writer = writer;
+            this.summary = summary;
+        }
+
+        synchronized void header() throws IOException {
+            writer.write(HEADER);
+            writer.newLine();
+        }
+
+        synchronized void write(RegistracionBatchRow row, Hl7Result<RegistracionResponse> result) {
+            summary.count(result);
+            if (failure != null) {
+                return;
+            }
+            try {
+                writer.write(format(row, result));
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "No se pudo escribir el resultado del batch", e);
+                failure = e;
+            }
+        }
+
+        private static String format(RegistracionBatchRow row, Hl7Result<RegistracionResponse> result) {
+            String transac = result.getData()
+                    .map(RegistracionResponse::getCabecera)
+                    .map(RegistracionCabecera::getTransac)
+                    .map(String::valueOf)
+                    .orElse("");
+
+            String mensaje = result.getIssue()
+                    .map(Hl7Error::getMessage)
+                    .orElse("");
+
+            StringBuilder detalles = new StringBuilder();
+            for (Hl7ItemError d : result.getDetails()) {
+                if (detalles.length() > 0) detalles.append(" | ");
+                detalles.append(d.getCode()).append('-').append(d.getMessage());
+            }
+
+            return row.getLineNumber() + ";" +
+                    clean(row.getCreden()) + ";" +
+                    result.getStatus() + ";" +
+                    transac + ";" +
+                    clean(mensaje) + ";" +
+                    clean(detalles.toString());
+        }
+
+        // Evita romper el CSV con separadores o saltos de línea del backend
+        private static String clean(String value) {
+            if (value == null) return "";
+            return value.replace(';', ',').replace('\n', ' ').replace('\r', ' ').trim();
+        }
+    }
+
+    /**
+     * Totales por estado de una corrida.
+     */
+    public static final class Summary {
+
+        private int ok;
+        private int partial;
+        private int rejected;
+        private int error;
+        private boolean interrupted;
+
+        private synchronized void count(Hl7Result<?> result) {
+            switch (result.getStatus()) {
+                case OK:
+                    ok++;
+                    break;
+                case PARTIAL:
+                    partial++;
+                    break;
+                case REJECTED:
+                    rejected++;
+                    break;
+                default:
+                    error++;
+                    break;
+            }
+        }
+
+        public synchronized int getOk() {
+            return ok;
+        }
+
+        public synchronized int getPartial() {
+            return partial;
+        }
+
+        public synchronized int getRejected() {
+            return rejected;
+        }
+
+        public synchronized int getError() {
+            return error;
+        }
+
+        private synchronized void markInterrupted() {
+            interrupted = true;
+        }
+
+        /**
+         * true si la corrida se interrumpió: hay filas sin enviar y sin resultado en la salida.
+         */
+        public synchronized boolean isInterrupted() {
+            return interrupted;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "Summary{ok=" + ok + ", partial=" + partial +
+                    ", rejected=" + rejected + ", error=" + error +
+                    (interrupted ? ", interrupted" : "") + '}';
+        }
+    }
+}
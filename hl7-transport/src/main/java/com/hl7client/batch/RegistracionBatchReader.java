@@ -0,0 +1,170 @@
+package com.hl7client.batch;
+
+import com.hl7client.util.JsonUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura de archivos de importación masiva de registraciones.
+ * <p>
+ * Formatos soportados (según extensión):
+ * <ul>
+ *   <li><b>CSV</b> separado por ';': {@code creden;alta;fecdif;prestaciones}<br>
+ *       prestaciones = {@code codigo:cantidad|codigo:cantidad...}<br>
+ *       Ejemplo: {@code 7180171001151;20260115;;660001:2|660015:1}</li>
+ *   <li><b>JSON</b>: arreglo de objetos<br>
+ *       {@code [{"creden":"...","alta":"20260115","fecdif":"","prestaciones":[{"codigo":"660001","cantidad":2}]}]}</li>
+ * </ul>
+ * Las líneas vacías y las que empiezan con '#' se ignoran; una primera línea
+ * que empiece con "creden" se toma como encabezado. Una línea CSV mal formada no corta
+ * la lectura: queda como fila inválida ({@link RegistracionBatchRow#invalid}) con su número de línea.
+ */
+public final class RegistracionBatchReader {
+
+    private static final char COLUMN_SEPARATOR = ';';
+    private static final char BENEFIT_SEPARATOR = '|';
+    private static final char QUANTITY_SEPARATOR = ':';
+
+    private RegistracionBatchReader() {
+    }
+
+    public static List<RegistracionBatchRow> read(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".json") ? readJson(file) : readCsv(file);
+    }
+
+    // ---------- CSV ----------
+
+    public static List<RegistracionBatchRow> readCsv(Path file) throws IOException {
+        List<RegistracionBatchRow> rows = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+
+                if (trimmed.isEmpty() || trimmed.charAt(0) == '#') continue;
+                if (lineNumber == 1 && trimmed.toLowerCase().startsWith("creden")) continue;
+
+                try {
+                    rows.add(parseCsvLine(trimmed, lineNumber));
+                } catch (IllegalArgumentException e) {
+                    rows.add(RegistracionBatchRow.invalid(lineNumber, firstColumn(trimmed), e.getMessage()));
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private static RegistracionBatchRow parseCsvLine(String line, int lineNumber) {
+        String[] cols = split(line, COLUMN_SEPARATOR);
+        if (cols.length < 4) {
+            throw new IllegalArgumentException(
+                    "Línea " + lineNumber + ": se esperaban 4 columnas (creden;alta;fecdif;prestaciones)");
+        }
+
+        List<RegistracionBatchRow.Benefit> benefits = new ArrayList<>();
+        if (!cols[3].trim().isEmpty()) {
+            for (String entry : split(cols[3], BENEFIT_SEPARATOR)) {
+                int sep = entry.indexOf(QUANTITY_SEPARATOR);
+                if (sep < 0) {
+                    throw new IllegalArgumentException(
+                            "Línea " + lineNumber + ": prestación sin cantidad: " + entry);
+                }
+                benefits.add(new RegistracionBatchRow.Benefit(
+                        entry.substring(0, sep).trim(),
+                        parseQuantity(entry.substring(sep + 1).trim(), lineNumber)
+                ));
+            }
+        }
+
+        return new RegistracionBatchRow(lineNumber, cols[0].trim(), cols[1].trim(), cols[2].trim(), benefits);
+    }
+
+    private static String firstColumn(String line) {
+        // Sin separador no hay columnas: no se adivina una credencial
+        int sep = line.indexOf(COLUMN_SEPARATOR);
+        String creden = sep < 0 ? "" : line.substring(0, sep).trim();
+        return creden.isEmpty() ? null : creden;
+    }
+
+    private static int parseQuantity(String txt, int lineNumber) {
+        try {
+            return Integer.parseInt(txt);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": cantidad inválida: " + txt);
+        }
+    }
+
+    private static String[] split(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == separator) {
+                parts.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start));
+        return parts.toArray(new String[0]);
+    }
+
+    // ---------- JSON ----------
+
+    public static List<RegistracionBatchRow> readJson(Path file) throws IOException {
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        JsonRow[] jsonRows = JsonUtil.fromJson(json, JsonRow[].class);
+
+        List<RegistracionBatchRow> rows = new ArrayList<>(jsonRows.length);
+        for (int i = 0; i < jsonRows.length; i++) {
+            // En JSON se informa la posición (1..n) dentro del arreglo
+            rows.add(toRow(jsonRows[i], i + 1));
+        }
+        return rows;
+    }
+
+    /**
+     * Una fila en formato JSON (un objeto, no un arreglo), por ejemplo el body de un request.
+     */
+    public static RegistracionBatchRow readJsonRow(String json) {
+        JsonRow row = JsonUtil.fromJson(json, JsonRow.class);
+        if (row == null) {
+            throw new IllegalArgumentException("Registración vacía");
+        }
+        return toRow(row, 1);
+    }
+
+    private static RegistracionBatchRow toRow(JsonRow r, int position) {
+        List<RegistracionBatchRow.Benefit> benefits = new ArrayList<>();
+        if (r.prestaciones != null) {
+            for (JsonBenefit b : r.prestaciones) {
+                benefits.add(new RegistracionBatchRow.Benefit(
+                        b.codigo != null ? b.codigo.trim() : "", b.cantidad));
+            }
+        }
+        return new RegistracionBatchRow(position, r.creden, r.alta, r.fecdif, benefits);
+    }
+
+    // DTOs de lectura JSON (Jackson usa los campos directamente)
+    static final class JsonRow {
+        public String creden;
+        public String alta;
+        public String fecdif;
+        public List<JsonBenefit> prestaciones;
+    }
+
+    static final class JsonBenefit {
+        public String codigo;
+        public int cantidad;
+    }
+}
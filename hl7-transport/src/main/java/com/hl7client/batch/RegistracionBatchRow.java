@@ -0,0 +1,111 @@
+package com.hl7client.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fila de una importación masiva de registraciones médicas.
+ * <p>
+ * Contiene los datos crudos leídos del archivo (CSV o JSON); la validación
+ * de códigos y cantidades se hace después, al mapear la fila a un request HL7.
+ * Una línea que no se pudo leer queda como fila inválida ({@link #getParseError()}),
+ * para informarla en el resultado sin cortar la importación.
+ */
+public final class RegistracionBatchRow {
+
+    private final int lineNumber;
+    private final String creden;
+    private final String alta;      // yyyyMMdd
+    private final String fecdif;    // yyyyMMdd (puede ser vacío)
+    private final List<Benefit> benefits;
+    private final String parseError;   // null si la línea se leyó bien
+
+    public RegistracionBatchRow(
+            int lineNumber,
+            String creden,
+            String alta,
+            String fecdif,
+            List<Benefit> benefits
+    ) {
+        this(lineNumber, creden, alta, fecdif, benefits, null);
+    }
+
+    private RegistracionBatchRow(
+            int lineNumber,
+            String creden,
+            String alta,
+            String fecdif,
+            List<Benefit> benefits,
+            String parseError
+    ) {
+        this.lineNumber = lineNumber;
+        this.creden = creden;
+        this.alta = alta;
+        this.fecdif = fecdif;
+        this.benefits = benefits == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(benefits));
+        this.parseError = parseError;
+    }
+
+    /**
+     * Fila de una línea que no se pudo leer.
+     *
+     * @param creden credencial, si se llegó a leer (puede ser null)
+     * @param error  motivo, con el número de línea
+     */
+    public static RegistracionBatchRow invalid(int lineNumber, String creden, String error) {
+        return new RegistracionBatchRow(lineNumber, creden, null, null, null, Objects.requireNonNull(error));
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getCreden() {
+        return creden;
+    }
+
+    public String getAlta() {
+        return alta;
+    }
+
+    public String getFecdif() {
+        return fecdif;
+    }
+
+    public List<Benefit> getBenefits() {
+        return benefits;
+    }
+
+    /**
+     * Motivo por el que la línea no se pudo leer, o null si la fila es válida como dato crudo.
+     */
+    public String getParseError() {
+        return parseError;
+    }
+
+    /**
+     * Par (código, cantidad) tal como vino en el archivo.
+     */
+    public static final class Benefit {
+
+        private final String code;
+        private final int quantity;
+
+        public Benefit(String code, int quantity) {
+            this.code = Objects.requireNonNull(code);
+            this.quantity = quantity;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.hl7client.client;
+
+import com.hl7client.config.Endpoint;
+import com.hl7client.config.EndpointRegistry;
+import com.hl7client.config.Session;
+import com.hl7client.config.SessionContext;
+import com.hl7client.config.SessionState;
+import com.hl7client.util.PropertiesUtil;
+import org.apache.http.Header;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ApiClient {
+
+    private static final Logger LOGGER = Logger.getLogger(ApiClient.class.getName());
+
+    // Headers constantes: se comparten entre requests (BasicHeader es inmutable)
+    private static final Header CONTENT_TYPE = new BasicHeader("Content-Type", "application/json; charset=UTF-8");
+    private static final Header ACCEPT = new BasicHeader("Accept", "application/json");
+    private static final Header[] ANONYMOUS_HEADERS = {CONTENT_TYPE, ACCEPT};
+
+    // Timeouts vigentes; se reconstruyen al recargar la configuración y aplican por request
+    private static volatile RequestConfig requestConfig = buildRequestConfig();
+
+    static {
+        PropertiesUtil.addReloadListener(() -> requestConfig = buildRequestConfig());
+    }
+
+    private final CloseableHttpClient httpClient;
+    private final AuthRefresher authRefresher;
+    private final Session session;
+    private final RateLimiter rateLimiter = RateLimiter.shared();
+
+    // Cola por prioridad del pool HTTP (compartida por los ApiClient del mismo pool); null = sin cola
+    private final DispatchQueue dispatchQueue;
+
+    // Colas de los pools creados por pooledHttpClient, por identidad del cliente HTTP
+    private static final Map<CloseableHttpClient, DispatchQueue> DISPATCH_QUEUES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Headers con Bearer de la última versión de sesión vista; se reemplaza solo al cambiar el token
+    private volatile AuthHeaders authHeaders;
+
+    /**
+     * Cliente ligado a la sesión por defecto ({@link SessionContext#current()}).
+     */
+    public ApiClient(AuthRefresher authRefresher) {
+        this(authRefresher, SessionContext.current());
+    }
+
+    /**
+     * Cliente ligado a una sesión propia: el token y el refresh se toman de {@code session}.
+     */
+    public ApiClient(AuthRefresher authRefresher, Session session) {
+        this(authRefresher, session, pooledHttpClient(PropertiesUtil.getInt("http.max.connections", 8)));
+    }
+
+    /**
+     * Cliente sobre un {@link CloseableHttpClient} compartido (ver {@link #pooledHttpClient(int)}).
+     * El dueño del cliente HTTP es quien lo cierra.
+     */
+    public ApiClient(AuthRefresher authRefresher, Session session, CloseableHttpClient httpClient) {
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.authRefresher = Objects.requireNonNull(authRefresher);
+        this.session = Objects.requireNonNull(session, "Session requerida");
+        this.dispatchQueue = DISPATCH_QUEUES.get(httpClient);
+    }
+
+    /**
+     * Cliente HTTP con pool de conexiones para compartir entre muchas sesiones.
+     * Los requests sobre él pasan por una {@link DispatchQueue} con un slot por conexión
+     * ({@code hl7.dispatch.*}).
+     */
+    public static CloseableHttpClient pooledHttpClient(int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections inválido: " + maxConnections);
+        }
+        CloseableHttpClient client = HttpClients.custom()
+                .setDefaultRequestConfig(defaultRequestConfig())
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+        if (PropertiesUtil.getBoolean("hl7.dispatch.enabled", true)) {
+            DISPATCH_QUEUES.put(client, new DispatchQueue(
+                    maxConnections,
+                    PropertiesUtil.getInt("hl7.dispatch.interactive.reserved", 2),
+                    PropertiesUtil.getInt("hl7.dispatch.weight.interactive", 8),
+                    PropertiesUtil.getInt("hl7.dispatch.weight.normal", 4),
+                    PropertiesUtil.getInt("hl7.dispatch.weight.bulk", 1)
+            ));
+        }
+        return client;
+    }
+
+    private static RequestConfig defaultRequestConfig() {
+        return requestConfig;
+    }
+
+    private static RequestConfig buildRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectTimeout(PropertiesUtil.getInt("http.timeout.connect.ms", 10_000))
+                .setConnectionRequestTimeout(PropertiesUtil.getInt("http.timeout.pool.ms", 10_000))
+                .setSocketTimeout(PropertiesUtil.getInt("http.timeout.socket.ms", 30_000))
+                .setCookieSpec(CookieSpecs.STANDARD) // ← Soluciona warning de cookies Cloudflare (Expires con coma y año 4 dígitos)
+                .build();
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Cola por prioridad del pool HTTP de este cliente, o null si el pool no tiene cola.
+     */
+    public DispatchQueue getDispatchQueue() {
+        return dispatchQueue;
+    }
+
+    public ApiResponse post(String url, String body, Map<String, String> headers) {
+        return post(session.state(), URI.create(url), body, headers);
+    }
+
+    public ApiResponse post(SessionState snapshot, String url, String body, Map<String, String> headers) {
+        return post(snapshot, URI.create(url), body, headers);
+    }
+
+    /**
+     * POST autenticado con la foto de sesión {@code snapshot}, tomada una única vez por el llamador
+     * (el token enviado corresponde siempre al entorno/prestador con que se armó la URL).
+     * {@code uri} suele venir ya resuelta de {@link com.hl7client.config.EndpointRegistry}.
+     */
+    public ApiResponse post(SessionState snapshot, URI uri, String body, Map<String, String> headers) {
+        return postInternal(Objects.requireNonNull(snapshot), null, uri, body, headers, true, false);
+    }
+
+    /**
+     * POST autenticado a un endpoint del entorno de {@code snapshot}, sujeto al
+     * {@link RateLimiter} (cuota por prestador y endpoint, prioridad del hilo).
+     *
+     * @throws RateLimitException si no hay turno dentro de la espera permitida
+     */
+    public ApiResponse post(SessionState snapshot, Endpoint endpoint, String body, Map<String, String> headers) {
+        Objects.requireNonNull(snapshot);
+        URI uri = EndpointRegistry.uri(snapshot.environment(), endpoint);
+        return postInternal(snapshot, endpoint, uri, body, headers, true, true);
+    }
+
+    private ApiResponse postInternal(
+            SessionState snapshot,
+            Endpoint endpoint,
+            URI uri,
+            String body,
+            Map<String, String> headers,
+            boolean allowRetry,
+            boolean allowThrottleRetry
+    ) {
+        // Turno de la cuota (solo endpoints HL7; login y refresh no se limitan)
+        String limitKey = endpoint != null && !endpoint.isAuth()
+                ? rateLimiter.acquire(snapshot, endpoint)
+                : null;
+        // Login/refresh van por la fila interactiva: de ellos dependen todos los demás
+        RequestPriority priority = endpoint == null || endpoint.isAuth()
+                ? RequestPriority.INTERACTIVE
+                : RequestPriority.current();
+
+        HttpPost post = new HttpPost(uri);
+        post.setConfig(requestConfig);
+
+        // Headers
+        if (headers == null || headers.isEmpty()) {
+            post.setHeaders(headersFor(snapshot));
+        } else {
+            buildHeaders(snapshot, headers).forEach(post::addHeader);
+        }
+
+        // Body
+        if (body != null && !body.trim().isEmpty()) {
+            try {
+                post.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                throw new RuntimeException("Error preparando body", e);
+            }
+        }
+
+        // Logging
+        logRequest(post, body);
+        logAsCurl(post, body);
+
+        Exchange exchange = execute(post, priority);
+        int statusCode = exchange.statusCode;
+        String responseBody = exchange.body;
+        Header retryAfter = exchange.retryAfter;
+
+        logResponse(statusCode, responseBody);
+
+        rateLimiter.onResponse(limitKey, statusCode, retryAfter != null ? retryAfter.getValue() : null);
+
+        // 429: el backend no procesó el request. Un reintento, con el turno que dé el
+        // limitador ya pausado según Retry-After.
+        if (statusCode == 429 && limitKey != null && allowThrottleRetry) {
+            LOGGER.info("429 received, retrying once after the rate limiter pause");
+            return postInternal(snapshot, endpoint, uri, body, headers, allowRetry, false);
+        }
+
+        // Refresh automático si 401 (solo una vez).
+        // Si la sesión ya cambió de versión, otro hilo refrescó: se reintenta sin refrescar.
+        if (statusCode == 401 && allowRetry && canRefresh(snapshot, uri)) {
+            if (session.version() == snapshot.version()) {
+                LOGGER.info("401 received, attempting auth refresh");
+                authRefresher.refreshAuth(snapshot.version());
+            } else {
+                LOGGER.info("401 received with a superseded token, retrying with current session");
+            }
+            SessionState current = session.state();
+            if (!current.isAuthenticated()) {
+                return new ApiResponse(statusCode, responseBody, Collections.emptyMap());
+            }
+            return postInternal(current, endpoint, uri, body, headers, false, allowThrottleRetry);
+        }
+
+        return new ApiResponse(statusCode, responseBody, retryAfter != null
+                ? Collections.singletonMap(retryAfter.getName(), retryAfter.getValue())
+                : Collections.emptyMap());
+    }
+
+    /**
+     * Intercambio HTTP con un slot de la {@link DispatchQueue} tomado solo mientras dura:
+     * los reintentos (401, 429) vuelven a hacer fila.
+     */
+    private Exchange execute(HttpPost post, RequestPriority priority) {
+        DispatchQueue queue = dispatchQueue;
+        if (queue != null) {
+            queue.acquire(priority);
+        }
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String responseBody = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            Header retryAfter = statusCode == 429 ? response.getFirstHeader("Retry-After") : null;
+            return new Exchange(statusCode, responseBody, retryAfter);
+
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Transport error calling API", e);
+            throw new RuntimeException("Error de comunicación con el servicio", e);
+        } finally {
+            if (queue != null) {
+                queue.release(priority);
+            }
+        }
+    }
+
+    // ================== Logging ==================
+
+    private void logRequest(HttpPost post, String body) {
+        System.out.println("=== REQUEST ===");
+        System.out.println("URL: " + post.getURI());
+        System.out.println("Method: POST");
+        System.out.println("Headers: " + Arrays.toString(post.getAllHeaders()));
+        System.out.println("Body: " + body);
+        System.out.println("==============");
+    }
+
+    private void logResponse(int status, String body) {
+        System.out.println("=== RESPONSE ===");
+        System.out.println("Status: " + status);
+        System.out.println("Body: " + body);
+        System.out.println("==============");
+    }
+
+    private void logAsCurl(HttpPost post, String body) {
+        StringBuilder curl = new StringBuilder("curl -X POST '").append(post.getURI()).append("'");
+
+        for (org.apache.http.Header h : post.getAllHeaders()) {
+            curl.append(" \\\n  -H '").append(h.getName()).append(": ").append(h.getValue()).append("'");
+        }
+
+        if (body != null && !body.trim().isEmpty()) {
+            curl.append(" \\\n  --data '").append(body.replace("'", "'\\''")).append("'");
+        }
+
+        System.out.println("=== CURL ===");
+        System.out.println(curl);
+        System.out.println("============");
+    }
+
+    // Helpers
+    private boolean canRefresh(SessionState snapshot, URI uri) {
+        String path = uri.getPath();
+        return snapshot.isAuthenticated()
+                && (path == null || (!path.contains("auth-login") && !path.contains("auth-refresh")));
+    }
+
+    private Header[] headersFor(SessionState snapshot) {
+        if (!snapshot.isAuthenticated()) {
+            return ANONYMOUS_HEADERS;
+        }
+        AuthHeaders cached = authHeaders;
+        if (cached == null || cached.version != snapshot.version()) {
+            // Carrera benigna: dos hilos pueden armar el mismo arreglo
+            cached = new AuthHeaders(snapshot);
+            authHeaders = cached;
+        }
+        return cached.headers;
+    }
+
+    private Map<String, String> buildHeaders(SessionState snapshot, Map<String, String> headers) {
+        Map<String, String> finalHeaders = new HashMap<>();
+        finalHeaders.put("Content-Type", "application/json; charset=UTF-8");
+        finalHeaders.put("Accept", "application/json");
+
+        if (headers != null) {
+            finalHeaders.putAll(headers);
+        }
+
+        if (snapshot.isAuthenticated() && !finalHeaders.containsKey("Authorization")) {
+            finalHeaders.put("Authorization", "Bearer " + snapshot.token());
+        }
+
+        return finalHeaders;
+    }
+
+    private static final class Exchange {
+        final int statusCode;
+        final String body;
+        final Header retryAfter;   // solo en 429
+
+        Exchange(int statusCode, String body, Header retryAfter) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    private static final class AuthHeaders {
+        final long version;
+        final Header[] headers;
+
+        AuthHeaders(SessionState snapshot) {
+            this.version = snapshot.version();
+            this.headers = new Header[]{
+                    CONTENT_TYPE,
+                    ACCEPT,
+                    new BasicHeader("Authorization", "Bearer " + snapshot.token())
+            };
+        }
+    }
+
+    // Buena práctica: cerrar el cliente cuando ya no se necesite
+    @SuppressWarnings("unused")
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
\ No newline at end of file
@@ -5,7 +5,7 @@ package com.hl7client.client;
  * <p>
  * Implementations must:
  * - Perform a synchronous refresh operation
- * - Update {@link com.hl7client.config.SessionContext} on success
+ * - Update the bound {@link com.hl7client.config.Session} on success
  * - Throw an exception on failure
  * <p>
  * Any thrown exception will be treated as a terminal session failure.
@@ -18,4 +18,14 @@ public interface AuthRefresher {
      * @throws RuntimeException if the refresh fails
      */
     void refreshAuth();
+
+    /**
+     * Refresca solo si la sesión sigue en la versión {@code staleVersion}
+     * (la del token que recibió el 401). Si otro hilo ya la refrescó, no hace nada.
+     * <p>
+     * La implementación por defecto refresca siempre.
+     */
+    default void refreshAuth(long staleVersion) {
+        refreshAuth();
+    }
 }
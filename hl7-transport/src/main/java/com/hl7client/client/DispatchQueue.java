@@ -0,0 +1,296 @@
+package com.hl7client.client;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola de despacho por prioridad delante del pool de conexiones HTTP.
+ * <p>
+ * Cada request toma uno de los {@code slots} (uno por conexión del pool) mientras dura el
+ * intercambio HTTP. Si no hay lugar, espera en la fila de su {@link RequestPriority}:
+ * <ul>
+ *   <li>{@code reservedInteractive} slots solo los usa tráfico interactivo, de modo que un
+ *       diálogo no espera detrás de miles de llamadas de un batch;</li>
+ *   <li>al liberarse un slot, la fila que sigue se elige por round-robin ponderado
+ *       ({@code weights}): todas avanzan, ninguna se queda sin turno, y cada una recibe una
+ *       parte proporcional a su peso cuando compiten.</li>
+ * </ul>
+ * Dentro de una fila el orden es FIFO.
+ */
+public final class DispatchQueue {
+
+    private static final RequestPriority[] LANES = RequestPriority.values();
+
+    private final int slots;
+    private final int reservedInteractive;
+    private final int[] weights;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Lane[] lanes = new Lane[LANES.length];
+    private int inUse;
+    private int inUseShared;   // slots tomados por tráfico no interactivo
+
+    /**
+     * @param slots               requests simultáneos (conexiones del pool)
+     * @param reservedInteractive slots que solo usa {@link RequestPriority#INTERACTIVE}
+     * @param weights             peso de cada fila, en el orden de {@link RequestPriority}
+     */
+    public DispatchQueue(int slots, int reservedInteractive, int... weights) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("slots inválido: " + slots);
+        }
+        if (weights.length != LANES.length) {
+            throw new IllegalArgumentException("Se requiere un peso por prioridad: " + LANES.length);
+        }
+        this.slots = slots;
+        // Siempre queda al menos un slot para el resto del tráfico
+        this.reservedInteractive = Math.max(0, Math.min(reservedInteractive, slots - 1));
+        this.weights = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            this.weights[i] = Math.max(1, weights[i]);
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    // ---------- Slots ----------
+
+    /**
+     * Espera un slot en la fila de {@code priority}.
+     * Cada llamada exitosa debe liberarse con {@link #release(RequestPriority)}.
+     *
+     * @throws RateLimitException si el hilo es interrumpido mientras espera
+     */
+    public void acquire(RequestPriority priority) {
+        Lane lane = lanes[priority.ordinal()];
+        long start = System.nanoTime();
+        boolean waited = false;
+
+        lock.lock();
+        try {
+            // Atajo sin espera solo si nadie hace fila: no se adelanta a los que esperan
+            if (!anyWaiting() && canTake(priority)) {
+                take(priority);
+                lane.granted.increment();
+                return;
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            lane.waiting.addLast(waiter);
+            dispatch();
+            try {
+                while (!waiter.granted) {
+                    waiter.condition.await();
+                    waited = true;
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // Se otorgó justo antes de la interrupción: se devuelve
+                    give(priority);
+                } else {
+                    lane.waiting.remove(waiter);
+                }
+                Thread.currentThread().interrupt();
+                throw new RateLimitException("Espera de conexión interrumpida");
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        lane.granted.increment();
+        if (waited) {
+            long nanos = System.nanoTime() - start;
+            lane.waited.increment();
+            lane.waitNanos.add(nanos);
+            lane.maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public void release(RequestPriority priority) {
+        lock.lock();
+        try {
+            give(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Con el lock tomado
+    private boolean canTake(RequestPriority priority) {
+        if (inUse >= slots) {
+            return false;
+        }
+        return priority == RequestPriority.INTERACTIVE || inUseShared < slots - reservedInteractive;
+    }
+
+    private void take(RequestPriority priority) {
+        inUse++;
+        if (priority != RequestPriority.INTERACTIVE) {
+            inUseShared++;
+        }
+    }
+
+    private void give(RequestPriority priority) {
+        inUse--;
+        if (priority != RequestPriority.INTERACTIVE) {
+            inUseShared--;
+        }
+        dispatch();
+    }
+
+    private boolean anyWaiting() {
+        for (Lane lane : lanes) {
+            if (!lane.waiting.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Round-robin ponderado suave: cada fila con espera elegible suma su peso; gana la de
+     * mayor acumulado y se le resta el total. Con pesos 8/4/1 y las tres filas llenas, de
+     * cada 13 turnos 8 son interactivos, 4 normales y 1 bulk, intercalados.
+     */
+    private void dispatch() {
+        while (inUse < slots) {
+            int total = 0;
+            Lane best = null;
+            int bestIndex = -1;
+            for (int i = 0; i < lanes.length; i++) {
+                Lane lane = lanes[i];
+                if (lane.waiting.isEmpty() || !canTake(LANES[i])) {
+                    continue;
+                }
+                lane.current += weights[i];
+                total += weights[i];
+                if (best == null || lane.current > best.current) {
+                    best = lane;
+                    bestIndex = i;
+                }
+            }
+            if (best == null) {
+                return;
+            }
+            best.current -= total;
+
+            Waiter waiter = best.waiting.pollFirst();
+            take(LANES[bestIndex]);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    // ---------- Métricas ----------
+
+    /**
+     * Por fila: turnos otorgados, cuántos esperaron, espera total y máxima (ms) y en espera ahora.
+     */
+    public Map<RequestPriority, LaneStats> stats() {
+        Map<RequestPriority, LaneStats> stats = new EnumMap<>(RequestPriority.class);
+        lock.lock();
+        try {
+            for (int i = 0; i < lanes.length; i++) {
+                Lane lane = lanes[i];
+                stats.put(LANES[i], new LaneStats(
+                        lane.granted.sum(),
+                        lane.waited.sum(),
+                        TimeUnit.NANOSECONDS.toMillis(lane.waitNanos.sum()),
+                        TimeUnit.NANOSECONDS.toMillis(lane.maxWaitNanos.get()),
+                        lane.waiting.size()
+                ));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public int getReservedInteractive() {
+        return reservedInteractive;
+    }
+
+    public int getInUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static final class LaneStats {
+
+        private final long granted;
+        private final long waited;
+        private final long waitMillis;
+        private final long maxWaitMillis;
+        private final int waiting;
+
+        LaneStats(long granted, long waited, long waitMillis, long maxWaitMillis, int waiting) {
+            this.granted = granted;
+            this.waited = waited;
+            this.waitMillis = waitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.waiting = waiting;
+        }
+
+        public long getGranted() {
+            return granted;
+        }
+
+        public long getWaited() {
+            return waited;
+        }
+
+        public long getWaitMillis() {
+            return waitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        @Override
+        public String toString() {
+            return "{granted=" + granted + ", waited=" + waited + ", waitMillis=" + waitMillis
+                    + ", maxWaitMillis=" + maxWaitMillis + ", waiting=" + waiting + '}';
+        }
+    }
+
+    // ---------- Soporte ----------
+
+    private static final class Lane {
+        final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        int current;   // acumulado del round-robin ponderado
+
+        final LongAdder granted = new LongAdder();
+        final LongAdder waited = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+    }
+
+    private static final class Waiter {
+        final Condition condition;
+        boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hl7client.client;
+
+/**
+ * El request no obtuvo turno ({@link RateLimiter} o {@link DispatchQueue}) dentro de la
+ * espera permitida, o la espera fue interrumpida. El request no se envió.
+ */
+public class RateLimitException extends RuntimeException {
+    public RateLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,473 @@
+package com.hl7client.client;
+
+import com.hl7client.config.Endpoint;
+import com.hl7client.config.SessionState;
+import com.hl7client.model.dto.response.auth.Prestador;
+import com.hl7client.util.PropertiesUtil;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Límite de requests del lado cliente (token bucket) para respetar las cuotas del apiKey.
+ * <p>
+ * Hay un bucket por entorno, prestador y endpoint. Cada uno se configura con
+ * {@code hl7.ratelimit.rpm} / {@code hl7.ratelimit.burst}, que se pueden sobrescribir por
+ * endpoint ({@code hl7.ratelimit.elegibilidad.rpm}), por prestador
+ * ({@code hl7.ratelimit.prestador.<idPrestador>.rpm}) o por ambos
+ * ({@code hl7.ratelimit.prestador.<idPrestador>.elegibilidad.rpm}); gana la más específica.
+ * <p>
+ * Prioridad ({@link RequestPriority}): una parte del burst
+ * ({@code hl7.ratelimit.interactive.reserve.pct}) queda reservada para tráfico interactivo,
+ * y mientras un request interactivo espera, el resto no toma turnos. Un batch no puede
+ * entonces dejar sin cupo a un puesto de atención.
+ * <p>
+ * Adaptación: un {@code 429} reduce a la mitad el ritmo del bucket y lo pausa lo que indique
+ * {@code Retry-After}; cada respuesta exitosa lo recupera de a poco hasta el configurado.
+ * Al recargar la configuración cambian ritmo y capacidad, pero la adaptación se conserva.
+ */
+public final class RateLimiter {
+
+    private static final Logger LOGGER = Logger.getLogger(RateLimiter.class.getName());
+
+    // Adaptación ante 429 (AIMD): baja multiplicativa, recuperación aditiva por respuesta OK
+    private static final double MIN_FACTOR = 0.1;
+    private static final double RECOVERY_STEP = 0.02;
+    private static final long MAX_PAUSE_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final RateLimiter SHARED = new RateLimiter();
+
+    static {
+        // Límites nuevos aplican al próximo request
+        PropertiesUtil.addReloadListener(SHARED::reconfigure);
+    }
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backendThrottled = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Limitador del proceso: la cuota del apiKey es una sola para todos los {@link ApiClient}.
+     */
+    public static RateLimiter shared() {
+        return SHARED;
+    }
+
+    // ---------- Uso desde ApiClient ----------
+
+    /**
+     * Espera un turno para enviar un request a {@code endpoint} con la prioridad del hilo.
+     * El tráfico interactivo espera a lo sumo {@code hl7.ratelimit.interactive.max.wait.ms};
+     * el resto espera lo necesario (el ritmo lo fija la cuota).
+     *
+     * @return clave del bucket, para informar la respuesta con {@link #onResponse}
+     * @throws RateLimitException si se agota la espera o el hilo es interrumpido
+     */
+    public String acquire(SessionState snapshot, Endpoint endpoint) {
+        if (!PropertiesUtil.getBoolean("hl7.ratelimit.enabled", true)) {
+            return null;
+        }
+
+        String key = key(snapshot, endpoint);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> newBucket(snapshot, endpoint));
+
+        RequestPriority priority = RequestPriority.current();
+        long maxWait = priority == RequestPriority.INTERACTIVE
+                ? TimeUnit.MILLISECONDS.toNanos(PropertiesUtil.getLong("hl7.ratelimit.interactive.max.wait.ms", 10_000))
+                : Long.MAX_VALUE;
+
+        long waited;
+        try {
+            waited = bucket.acquire(priority, maxWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new RateLimitException("Espera de turno interrumpida");
+        }
+        if (waited < 0) {
+            rejected.increment();
+            LOGGER.warning("Sin turno para " + key + " dentro de la espera permitida");
+            throw new RateLimitException("Límite de consultas al servicio alcanzado. Reintente en unos segundos.");
+        }
+
+        acquired.increment();
+        if (waited > 0) {
+            throttled.increment();
+            waitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        return key;
+    }
+
+    /**
+     * Adapta el bucket a la respuesta: {@code 429} frena, el resto recupera el ritmo.
+     *
+     * @param retryAfter valor del header {@code Retry-After} (segundos o fecha HTTP), o null
+     */
+    public void onResponse(String key, int statusCode, String retryAfter) {
+        if (key == null) {
+            return;
+        }
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        if (statusCode == 429) {
+            backendThrottled.increment();
+            long pauseMs = retryAfterMillis(retryAfter);
+            double factor = bucket.backOff(pauseMs);
+            LOGGER.warning("429 en " + key + ": pausa " + pauseMs + " ms, ritmo al "
+                    + Math.round(factor * 100) + "%");
+        } else {
+            bucket.recover();
+        }
+    }
+
+    // ---------- Métricas ----------
+
+    public Stats stats() {
+        Map<String, Long> limits = new TreeMap<>();
+        buckets.forEach((key, bucket) -> limits.put(key, bucket.effectiveRpm()));
+        return new Stats(
+                acquired.sum(),
+                throttled.sum(),
+                rejected.sum(),
+                backendThrottled.sum(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                limits
+        );
+    }
+
+    /**
+     * Totales desde el arranque. Los ritmos vigentes ({@link #getEffectiveRpm()}) ya incluyen
+     * la reducción por {@code 429}.
+     */
+    public static final class Stats {
+
+        private final long acquired;
+        private final long throttled;
+        private final long rejected;
+        private final long backendThrottled;
+        private final long waitMillis;
+        private final long maxWaitMillis;
+        private final Map<String, Long> effectiveRpm;
+
+        Stats(long acquired, long throttled, long rejected, long backendThrottled,
+              long waitMillis, long maxWaitMillis, Map<String, Long> effectiveRpm) {
+            this.acquired = acquired;
+            this.throttled = throttled;
+            this.rejected = rejected;
+            this.backendThrottled = backendThrottled;
+            this.waitMillis = waitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.effectiveRpm = effectiveRpm;
+        }
+
+        /** Turnos otorgados */
+        public long getAcquired() {
+            return acquired;
+        }
+
+        /** Turnos otorgados después de esperar */
+        public long getThrottled() {
+            return throttled;
+        }
+
+        /** Requests no enviados por agotar la espera */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /** Respuestas 429 del backend */
+        public long getBackendThrottled() {
+            return backendThrottled;
+        }
+
+        public long getWaitMillis() {
+            return waitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public Map<String, Long> getEffectiveRpm() {
+            return effectiveRpm;
+        }
+
+        @Override
+        public String toString() {
+            return "RateLimiter.Stats{acquired=" + acquired + ", throttled=" + throttled
+                    + ", rejected=" + rejected + ", backendThrottled=" + backendThrottled
+                    + ", waitMillis=" + waitMillis + ", maxWaitMillis=" + maxWaitMillis
+                    + ", effectiveRpm=" + effectiveRpm + '}';
+        }
+    }
+
+    // ---------- Configuración ----------
+
+    /**
+     * Aplica la configuración vigente a los buckets existentes: cambian ritmo, capacidad y
+     * reserva, pero se conserva la adaptación a 429 (factor de ritmo y pausa en curso).
+     */
+    public void reconfigure() {
+        for (Bucket bucket : buckets.values()) {
+            bucket.configure();
+        }
+    }
+
+    private static String key(SessionState snapshot, Endpoint endpoint) {
+        return snapshot.environment() + "|" + providerId(snapshot) + "|" + endpointName(endpoint);
+    }
+
+    private static String providerId(SessionState snapshot) {
+        Prestador prestador = snapshot.prestador();
+        return prestador != null && prestador.getIdPrestador() != null
+                ? String.valueOf(prestador.getIdPrestador())
+                : "-";
+    }
+
+    // HL7_ELEGIBILIDAD -> elegibilidad
+    private static String endpointName(Endpoint endpoint) {
+        return endpoint.name().toLowerCase(Locale.ROOT).replace("hl7_", "");
+    }
+
+    private static Bucket newBucket(SessionState snapshot, Endpoint endpoint) {
+        return new Bucket(providerId(snapshot), endpointName(endpoint));
+    }
+
+    // Gana la clave más específica: prestador+endpoint, prestador, endpoint, global
+    private static long setting(String provider, String endpoint, String suffix, long defaultValue) {
+        String[] keys = {
+                "hl7.ratelimit.prestador." + provider + "." + endpoint + "." + suffix,
+                "hl7.ratelimit.prestador." + provider + "." + suffix,
+                "hl7.ratelimit." + endpoint + "." + suffix
+        };
+        for (String key : keys) {
+            if (PropertiesUtil.get(key, null) != null) {
+                return PropertiesUtil.getLong(key, defaultValue);
+            }
+        }
+        return PropertiesUtil.getLong("hl7.ratelimit." + suffix, defaultValue);
+    }
+
+    static long retryAfterMillis(String retryAfter) {
+        long defaultMs = PropertiesUtil.getLong("hl7.ratelimit.retry.after.default.ms", 1_000);
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return defaultMs;
+        }
+        String value = retryAfter.trim();
+        long millis;
+        try {
+            millis = TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value);
+            millis = date != null ? date.getTime() - System.currentTimeMillis() : defaultMs;
+        }
+        return Math.min(MAX_PAUSE_MS, Math.max(0, millis));
+    }
+
+    // ---------- Bucket ----------
+
+    /*
+     * Los hilos esperan en Conditions de un ReentrantLock (no en el monitor): un hilo virtual que
+     * espera turno no fija su carrier. Interactivos y resto esperan en Conditions separadas; el
+     * resto se despierta por señal cuando termina la última espera interactiva, sin sondear.
+     */
+    static final class Bucket {
+
+        private final String provider;
+        private final String endpoint;
+        private final LongSupplier clock;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition interactiveTurn = lock.newCondition();
+        private final Condition sharedTurn = lock.newCondition();
+
+        private double ratePerNano;           // ritmo configurado
+        private double capacity;
+        private double reserve;               // tokens que solo toma el tráfico interactivo
+
+        private double factor = 1.0;          // < 1 después de un 429
+        private double tokens;
+        private long lastRefill;
+        private long pausedUntil;
+        private int interactiveWaiting;
+
+        Bucket(String provider, String endpoint) {
+            this(provider, endpoint, System::nanoTime);
+        }
+
+        /**
+         * @param clock fuente de {@code nanoTime} (los tests usan un reloj manual)
+         */
+        Bucket(String provider, String endpoint, LongSupplier clock) {
+            this.provider = provider;
+            this.endpoint = endpoint;
+            this.clock = clock;
+            this.lastRefill = clock.getAsLong();
+            this.pausedUntil = lastRefill;
+            configure();
+            this.tokens = capacity;
+        }
+
+        /**
+         * Lee rpm, burst y reserva de la configuración vigente. El factor de adaptación y la
+         * pausa no cambian; los tokens acumulados se conservan hasta la nueva capacidad.
+         */
+        void configure() {
+            lock.lock();
+            try {
+                refill(clock.getAsLong());   // lo acumulado hasta ahora, al ritmo anterior
+
+                long rpm = Math.max(1, setting(provider, endpoint, "rpm", 600));
+                long burst = Math.max(1, setting(provider, endpoint, "burst", 20));
+                int reservePct = Math.min(50, Math.max(0, PropertiesUtil.getInt("hl7.ratelimit.interactive.reserve.pct", 25)));
+
+                ratePerNano = rpm / (double) TimeUnit.MINUTES.toNanos(1);
+                reserve = burst * reservePct / 100.0;
+                capacity = Math.max(burst, 1 + reserve);
+                tokens = Math.min(tokens, capacity);
+                signalAll();   // los que esperan recalculan con el ritmo nuevo
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return nanos esperados (0 si había turno), o -1 si no hubo turno dentro de {@code maxWaitNanos}
+         */
+        long acquire(RequestPriority priority, long maxWaitNanos) throws InterruptedException {
+            boolean interactive = priority == RequestPriority.INTERACTIVE;
+            Condition turn = interactive ? interactiveTurn : sharedTurn;
+
+            lock.lock();
+            try {
+                long start = clock.getAsLong();
+                boolean waited = false;
+                if (interactive) {
+                    interactiveWaiting++;
+                }
+                try {
+                    while (true) {
+                        long now = clock.getAsLong();
+                        refill(now);
+
+                        double floor = floor(priority);
+                        long waitNanos;
+                        if (now - pausedUntil < 0) {
+                            waitNanos = pausedUntil - now;
+                        } else if (tokens - 1 >= floor) {
+                            tokens -= 1;
+                            return waited ? now - start : 0;
+                        } else if (!interactive && interactiveWaiting > 0) {
+                            waitNanos = Long.MAX_VALUE;   // señal al terminar la espera interactiva
+                        } else {
+                            waitNanos = (long) Math.ceil((floor + 1 - tokens) / (ratePerNano * factor));
+                        }
+
+                        long remaining = maxWaitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : maxWaitNanos - (now - start);
+                        if (remaining <= 0) {
+                            return -1;
+                        }
+                        long timeout = Math.min(waitNanos, remaining);
+                        if (timeout == Long.MAX_VALUE) {
+                            turn.await();
+                        } else {
+                            turn.awaitNanos(Math.max(1, timeout));
+                        }
+                        waited = true;
+                    }
+                } finally {
+                    if (interactive && --interactiveWaiting == 0) {
+                        sharedTurn.signalAll();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // INTERACTIVE usa todo el bucket; NORMAL deja la mitad de la reserva; BULK la reserva completa
+        private double floor(RequestPriority priority) {
+            switch (priority) {
+                case INTERACTIVE:
+                    return 0;
+                case NORMAL:
+                    return reserve / 2;
+                default:
+                    return reserve;
+            }
+        }
+
+        double backOff(long pauseMs) {
+            lock.lock();
+            try {
+                long now = clock.getAsLong();
+                refill(now);
+                factor = Math.max(MIN_FACTOR, factor / 2);
+                tokens = 0;
+                long until = now + TimeUnit.MILLISECONDS.toNanos(pauseMs);
+                if (until - pausedUntil > 0) {
+                    pausedUntil = until;
+                }
+                signalAll();
+                return factor;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void recover() {
+            lock.lock();
+            try {
+                if (factor < 1.0) {
+                    refill(clock.getAsLong());
+                    factor = Math.min(1.0, factor + RECOVERY_STEP);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long effectiveRpm() {
+            lock.lock();
+            try {
+                return Math.round(ratePerNano * factor * TimeUnit.MINUTES.toNanos(1));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Con el lock tomado
+        private void signalAll() {
+            interactiveTurn.signalAll();
+            sharedTurn.signalAll();
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * ratePerNano * factor);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hl7client.client;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Prioridad del tráfico HL7 del hilo actual.
+ * <p>
+ * Se fija alrededor de la llamada ({@link #call}) y la leen las capas de abajo
+ * ({@link RateLimiter}, {@link DispatchQueue}) sin cambiar las firmas de servicio y controlador.
+ * Sin prioridad explícita el tráfico es {@link #NORMAL}.
+ */
+public enum RequestPriority {
+
+    /** Un usuario esperando frente al diálogo ({@code AcceptAction}) */
+    INTERACTIVE,
+    /** Integraciones (gateway, CLI) */
+    NORMAL,
+    /** Procesos masivos (batch de registraciones, barridos de elegibilidad) */
+    BULK;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    public static RequestPriority current() {
+        RequestPriority priority = CURRENT.get();
+        return priority != null ? priority : NORMAL;
+    }
+
+    /**
+     * Ejecuta {@code task} en el hilo actual con esta prioridad y restaura la anterior.
+     */
+    public <T> T call(Supplier<T> task) {
+        Objects.requireNonNull(task);
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void run(Runnable task) {
+        Objects.requireNonNull(task);
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+}
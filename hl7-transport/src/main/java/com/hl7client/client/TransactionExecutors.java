@@ -0,0 +1,252 @@
+package com.hl7client.client;
+
+import com.hl7client.util.PropertiesUtil;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executors para transacciones HL7 bloqueantes ({@link ApiClient#post} bloquea el hilo
+ * hasta la respuesta).
+ * <p>
+ * En JDK 21+ cada transacción corre en su propio hilo virtual: esperar al backend no
+ * ocupa un hilo de plataforma, así que miles de llamadas concurrentes son baratas y el
+ * código de transporte sigue siendo secuencial. En Java 8–20 (o con
+ * {@code hl7.executor.mode=platform}) se usa un pool acotado de hilos de plataforma.
+ * <p>
+ * En ambos modos {@code maxConcurrency} limita las transacciones en vuelo (no conviene
+ * superar el pool de conexiones HTTP). Con hilos virtuales las tareas que esperan turno
+ * quedan bloqueadas en un semáforo sin costo; con hilos de plataforma esperan en cola.
+ * <p>
+ * Configuración:
+ * <ul>
+ *   <li>{@code hl7.executor.mode}: {@code auto} (por defecto), {@code virtual} o {@code platform}</li>
+ *   <li>{@code hl7.executor.platform.threads}: tope de hilos de plataforma por executor</li>
+ *   <li>{@code hl7.executor.max.concurrency}: concurrencia del executor compartido ({@link #shared()})</li>
+ * </ul>
+ */
+public final class TransactionExecutors {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionExecutors.class.getName());
+
+    public enum Mode {
+        /** Hilos virtuales si el JDK los soporta; si no, pool de plataforma */
+        AUTO,
+        VIRTUAL,
+        PLATFORM
+    }
+
+    // Fábrica de executors "un hilo virtual por tarea", resuelta por reflexión (bytecode 1.8)
+    private static final VirtualFactory VIRTUAL = VirtualFactory.lookup();
+
+    private static volatile ExecutorService shared;
+
+    private TransactionExecutors() {
+    }
+
+    /**
+     * true si el JDK en ejecución soporta hilos virtuales (JDK 21+, o 19/20 con preview).
+     */
+    public static boolean isVirtualAvailable() {
+        return VIRTUAL != null;
+    }
+
+    /**
+     * Modo configurado ({@code hl7.executor.mode}), resuelto contra el JDK en ejecución.
+     */
+    public static Mode configuredMode() {
+        String value = PropertiesUtil.get("hl7.executor.mode", "auto").trim().toUpperCase(Locale.ROOT);
+        try {
+            return resolve(Mode.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Property inválida: hl7.executor.mode=" + value);
+        }
+    }
+
+    /**
+     * Modo efectivo: AUTO y VIRTUAL caen a PLATFORM si no hay hilos virtuales.
+     */
+    public static Mode resolve(Mode mode) {
+        if (mode == Mode.PLATFORM) {
+            return Mode.PLATFORM;
+        }
+        if (isVirtualAvailable()) {
+            return Mode.VIRTUAL;
+        }
+        if (mode == Mode.VIRTUAL) {
+            LOGGER.warning("Hilos virtuales no disponibles en Java " + System.getProperty("java.version")
+                    + "; se usa un pool de hilos de plataforma");
+        }
+        return Mode.PLATFORM;
+    }
+
+    /**
+     * Executor en el modo configurado.
+     *
+     * @param name           prefijo de nombre de los hilos
+     * @param maxConcurrency transacciones simultáneas como máximo
+     */
+    public static ExecutorService newExecutor(String name, int maxConcurrency) {
+        return newExecutor(configuredMode(), name, maxConcurrency);
+    }
+
+    public static ExecutorService newExecutor(Mode mode, String name, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency inválido: " + maxConcurrency);
+        }
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nombre de executor requerido");
+        }
+
+        if (resolve(mode) == Mode.VIRTUAL) {
+            return new BoundedExecutor(VIRTUAL.newExecutor(name + "-"), maxConcurrency);
+        }
+
+        int threads = Math.min(maxConcurrency, PropertiesUtil.getInt("hl7.executor.platform.threads", 32));
+        return Executors.newFixedThreadPool(Math.max(1, threads), daemonThreads(name));
+    }
+
+    /**
+     * Executor compartido para transacciones interactivas (UI). No debe cerrarse.
+     */
+    public static ExecutorService shared() {
+        ExecutorService s = shared;
+        if (s == null) {
+            synchronized (TransactionExecutors.class) {
+                s = shared;
+                if (s == null) {
+                    s = newExecutor("hl7-tx", PropertiesUtil.getInt("hl7.executor.max.concurrency", 64));
+                    shared = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    // ---------- Internos ----------
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Acceso por reflexión a {@code Thread.ofVirtual()} y {@code Executors.newThreadPerTaskExecutor}.
+     */
+    private static final class VirtualFactory {
+
+        private final Method ofVirtual;
+        private final Method name;
+        private final Method factory;
+        private final Method newThreadPerTaskExecutor;
+
+        private VirtualFactory(Method ofVirtual, Method name, Method factory, Method newThreadPerTaskExecutor) {
+            this.ofVirtual = ofVirtual;
+            this.name = name;
+            this.factory = factory;
+            this.newThreadPerTaskExecutor = newThreadPerTaskExecutor;
+        }
+
+        static VirtualFactory lookup() {
+            try {
+                Method ofVirtual = Thread.class.getMethod("ofVirtual");
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                VirtualFactory f = new VirtualFactory(
+                        ofVirtual,
+                        builder.getMethod("name", String.class, long.class),
+                        builder.getMethod("factory"),
+                        Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                );
+                // En JDK 19/20 sin --enable-preview ofVirtual() lanza UnsupportedOperationException
+                f.newExecutor("probe-").shutdown();
+                return f;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Hilos virtuales no utilizables", e);
+                return null;
+            }
+        }
+
+        ExecutorService newExecutor(String prefix) {
+            try {
+                Object builder = name.invoke(ofVirtual.invoke(null), prefix, 1L);
+                ThreadFactory threads = (ThreadFactory) factory.invoke(builder);
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threads);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("No se pudo crear el executor de hilos virtuales", e);
+            }
+        }
+    }
+
+    /**
+     * Un hilo (virtual) por tarea, con a lo sumo {@code permits} tareas ejecutando a la vez.
+     */
+    private static final class BoundedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        BoundedExecutor(ExecutorService delegate, int permits) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    // shutdownNow antes de obtener turno: la tarea no se ejecuta
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hl7client.config;
+
+import java.util.function.Function;
+
+/**
+ * Endpoints del backend, resueltos por entorno en {@link EndpointRegistry}.
+ */
+public enum Endpoint {
+    AUTH_LOGIN(EnvironmentConfig::getAuthUrl),
+    AUTH_REFRESH(EnvironmentConfig::getAuthRefreshUrl),
+    HL7_ELEGIBILIDAD(EnvironmentConfig::getHl7ElegibilidadUrl),
+    HL7_REGISTRACION(EnvironmentConfig::getHl7RegistracionUrl),
+    HL7_CANCELACION(EnvironmentConfig::getHl7CancelacionUrl);
+
+    private final Function<Environment, String> resolver;
+
+    Endpoint(Function<Environment, String> resolver) {
+        this.resolver = resolver;
+    }
+
+    String resolveUrl(Environment environment) {
+        return resolver.apply(environment);
+    }
+
+    /**
+     * Endpoints de autenticación: un 401 en ellos no dispara refresh.
+     */
+    public boolean isAuth() {
+        return this == AUTH_LOGIN || this == AUTH_REFRESH;
+    }
+}
@@ -0,0 +1,81 @@
+package com.hl7client.config;
+
+import com.hl7client.util.PropertiesUtil;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Caché de URIs por entorno.
+ * <p>
+ * Las URLs de {@link EnvironmentConfig} se arman concatenando varias propiedades; aquí se
+ * resuelven una sola vez por entorno (al login, ver {@link #warmUp(Environment)}) y cada
+ * consulta posterior es un acceso a arreglo.
+ */
+public final class EndpointRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(EndpointRegistry.class.getName());
+
+    private static final Endpoint[] ENDPOINTS = Endpoint.values();
+
+    // resolved[environment.ordinal()][endpoint.ordinal()]; fila null = entorno aún no resuelto
+    private static volatile URI[][] resolved = new URI[Environment.values().length][];
+
+    static {
+        // URLs base o context paths nuevos aplican al próximo request
+        PropertiesUtil.addReloadListener(EndpointRegistry::invalidate);
+    }
+
+    private EndpointRegistry() {
+    }
+
+    /**
+     * URI del endpoint en el entorno (se resuelve el entorno completo en el primer uso).
+     */
+    public static URI uri(Environment environment, Endpoint endpoint) {
+        Objects.requireNonNull(environment, "Environment requerido");
+        URI[] row = resolved[environment.ordinal()];
+        if (row == null) {
+            row = resolve(environment);
+        }
+        return row[endpoint.ordinal()];
+    }
+
+    /**
+     * Resuelve y cachea todos los endpoints del entorno.
+     *
+     * @throws IllegalArgumentException si alguna URL configurada no es válida
+     */
+    public static void warmUp(Environment environment) {
+        resolve(Objects.requireNonNull(environment, "Environment requerido"));
+    }
+
+    private static synchronized URI[] resolve(Environment environment) {
+        URI[][] table = resolved;
+        URI[] row = table[environment.ordinal()];
+        if (row != null) {
+            return row;
+        }
+
+        row = new URI[ENDPOINTS.length];
+        for (Endpoint endpoint : ENDPOINTS) {
+            row[endpoint.ordinal()] = URI.create(endpoint.resolveUrl(environment));
+        }
+
+        // Copia y publicación: los lectores nunca ven una fila a medio armar
+        URI[][] copy = table.clone();
+        copy[environment.ordinal()] = row;
+        resolved = copy;
+
+        LOGGER.fine("Endpoints resueltos para " + environment);
+        return row;
+    }
+
+    /**
+     * Descarta lo resuelto (por ejemplo, tras recargar la configuración).
+     */
+    public static synchronized void invalidate() {
+        resolved = new URI[Environment.values().length][];
+    }
+}
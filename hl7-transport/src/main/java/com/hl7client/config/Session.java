@@ -0,0 +1,134 @@
+package com.hl7client.config;
+
+import com.hl7client.model.dto.request.auth.DeviceRequest;
+import com.hl7client.model.dto.response.auth.Prestador;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Sesión autenticada contra un entorno.
+ * <p>
+ * Cada instancia mantiene su propio {@link SessionState}, de modo que un mismo proceso
+ * puede tener sesiones independientes (por ejemplo DEV, QA y PRE a la vez).
+ * {@link SessionContext} expone la sesión por defecto que usa la UI.
+ */
+public final class Session {
+
+    private static final Logger LOGGER = Logger.getLogger(Session.class.getName());
+
+    private final String name;
+    private final AtomicReference<SessionState> state =
+            new AtomicReference<>(SessionState.empty());
+
+    public Session(String name) {
+        this.name = Objects.requireNonNull(name, "Nombre de sesión requerido");
+    }
+
+    /**
+     * Sesión nueva (sin autenticar) identificada por el entorno.
+     */
+    public static Session forEnvironment(Environment environment) {
+        Objects.requireNonNull(environment, "Environment requerido");
+        return new Session(environment.name());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // ---------- ESTADO ----------
+
+    /**
+     * Foto actual de la sesión. Quien necesite token, entorno y prestador coherentes
+     * entre sí debe tomar una única foto y leer todo de ella.
+     */
+    public SessionState state() {
+        return state.get();
+    }
+
+    public long version() {
+        return state.get().version();
+    }
+
+    public String getToken() {
+        return state.get().token();
+    }
+
+    public boolean isAuthenticated() {
+        return state.get().isAuthenticated();
+    }
+
+    public String getTokenExp() {
+        return state.get().tokenExp();
+    }
+
+    public Prestador getPrestador() {
+        return state.get().prestador();
+    }
+
+    public Environment getEnvironment() {
+        return state.get().environment();
+    }
+
+    public DeviceRequest getDevice() {
+        return state.get().device();
+    }
+
+    // ---------- SETTERS ATÓMICOS ----------
+
+    public void initialize(
+            String token,
+            String tokenExp,
+            Prestador prestador,
+            Environment environment,
+            DeviceRequest device
+    ) {
+        state.updateAndGet(current -> new SessionState(
+                current.version() + 1,
+                token,
+                tokenExp,
+                prestador,
+                environment,
+                device
+        ));
+
+        LOGGER.info("Session [" + name + "] initialized. Environment=" + environment);
+    }
+
+    public void updateAuth(
+            String token,
+            String tokenExp,
+            Prestador prestador
+    ) {
+        state.updateAndGet(current -> {
+            if (current.environment() == null || current.device() == null) {
+                LOGGER.warning("Updating auth on uninitialized session state [" + name + "]");
+            }
+
+            return new SessionState(
+                    current.version() + 1,
+                    token,
+                    tokenExp,
+                    prestador,
+                    current.environment(),
+                    current.device()
+            );
+        });
+
+        LOGGER.fine("Session [" + name + "] authentication updated");
+    }
+
+    // ---------- LIMPIEZA ----------
+
+    public void clear() {
+        state.updateAndGet(current -> SessionState.cleared(current.version() + 1));
+        LOGGER.info("Session [" + name + "] cleared");
+    }
+
+    @Override
+    public String toString() {
+        return "Session{" + name + ", " + state.get() + '}';
+    }
+}
@@ -0,0 +1,82 @@
+package com.hl7client.config;
+
+import com.hl7client.model.dto.request.auth.DeviceRequest;
+import com.hl7client.model.dto.response.auth.Prestador;
+
+/**
+ * Acceso estático a la sesión por defecto de la aplicación (la que abre la UI al loguearse).
+ * <p>
+ * Los componentes que necesitan trabajar contra otro entorno se construyen con su propia
+ * {@link Session} (ver {@link com.hl7client.client.ApiClient#ApiClient(com.hl7client.client.AuthRefresher, Session)}).
+ */
+public final class SessionContext {
+
+    private static final Session DEFAULT = new Session("default");
+
+    private SessionContext() {
+    }
+
+    public static Session current() {
+        return DEFAULT;
+    }
+
+    // ---------- TOKEN ----------
+
+    public static String getToken() {
+        return DEFAULT.getToken();
+    }
+
+    public static boolean isAuthenticated() {
+        return DEFAULT.isAuthenticated();
+    }
+
+    // ---------- TOKEN EXP ----------
+
+    public static String getTokenExp() {
+        return DEFAULT.getTokenExp();
+    }
+
+    // ---------- PRESTADOR ----------
+
+    public static Prestador getPrestador() {
+        return DEFAULT.getPrestador();
+    }
+
+    // ---------- ENVIRONMENT ----------
+
+    public static Environment getEnvironment() {
+        return DEFAULT.getEnvironment();
+    }
+
+    // ---------- DEVICE ----------
+
+    public static DeviceRequest getDevice() {
+        return DEFAULT.getDevice();
+    }
+
+    // ---------- SETTERS ATÓMICOS ----------
+
+    public static void initialize(
+            String token,
+            String tokenExp,
+            Prestador prestador,
+            Environment environment,
+            DeviceRequest device
+    ) {
+        DEFAULT.initialize(token, tokenExp, prestador, environment, device);
+    }
+
+    public static void updateAuth(
+            String token,
+            String tokenExp,
+            Prestador prestador
+    ) {
+        DEFAULT.updateAuth(token, tokenExp, prestador);
+    }
+
+    // ---------- LIMPIEZA ----------
+
+    public static void clear() {
+        DEFAULT.clear();
+    }
+}
@@ -0,0 +1,153 @@
+package com.hl7client.config;
+
+import com.hl7client.client.AuthRefresher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Refresh anticipado de tokens.
+ * <p>
+ * Cada {@link Session} tiene a lo sumo un refresh agendado; todos comparten un único
+ * scheduler de hilos daemon, de modo que cientos de sesiones no implican cientos de hilos.
+ */
+public final class SessionRefreshManager {
+
+    private static final Logger LOGGER =
+            Logger.getLogger(SessionRefreshManager.class.getName());
+
+    private static final DateTimeFormatter EXP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final Duration REFRESH_BEFORE = Duration.ofMinutes(2);
+
+    private static final int SCHEDULER_THREADS = 4;
+
+    private static final Map<Session, ScheduledFuture<?>> TASKS = new ConcurrentHashMap<>();
+
+    private static volatile ScheduledThreadPoolExecutor scheduler;
+
+    private SessionRefreshManager() {
+    }
+
+    // ---------- API PÚBLICA ----------
+
+    /**
+     * Agenda el refresh de la sesión por defecto.
+     */
+    public static void ensureStarted(AuthRefresher refresher) {
+        ensureStarted(SessionContext.current(), refresher);
+    }
+
+    /**
+     * Agenda (o reagenda) el refresh de {@code session} según su tokenExp.
+     */
+    public static void ensureStarted(Session session, AuthRefresher refresher) {
+        Objects.requireNonNull(session, "Session requerida para refresh");
+        Objects.requireNonNull(refresher, "AuthRefresher requerido para refresh");
+
+        TASKS.compute(session, (s, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+
+            String tokenExp = s.getTokenExp();
+            if (tokenExp == null || tokenExp.isEmpty()) {
+                LOGGER.fine("No tokenExp present, refresh not scheduled [" + s.getName() + "]");
+                return null;
+            }
+
+            long delaySeconds;
+            try {
+                delaySeconds = calculateDelaySeconds(tokenExp);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Invalid tokenExp format, clearing session [" + s.getName() + "]", e);
+                s.clear();
+                return null;
+            }
+
+            LOGGER.info("Session [" + s.getName() + "] refresh scheduled in " + delaySeconds + " seconds");
+
+            return scheduler().schedule(() -> refreshAndReschedule(s, refresher),
+                    delaySeconds, TimeUnit.SECONDS);
+        });
+    }
+
+    /**
+     * Cancela el refresh de la sesión por defecto.
+     */
+    public static void stop() {
+        stop(SessionContext.current());
+    }
+
+    public static void stop(Session session) {
+        ScheduledFuture<?> task = TASKS.remove(session);
+        if (task != null) {
+            task.cancel(false);
+            LOGGER.fine("Session [" + session.getName() + "] refresh cancelled");
+        }
+    }
+
+    /**
+     * Cantidad de sesiones con refresh agendado.
+     */
+    public static int scheduledCount() {
+        return TASKS.size();
+    }
+
+    // ---------- internos ----------
+
+    private static void refreshAndReschedule(Session session, AuthRefresher refresher) {
+        try {
+            refresher.refreshAuth();
+            ensureStarted(session, refresher);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Session [" + session.getName() + "] refresh failed, clearing session", e);
+            session.clear();
+            stop(session);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor scheduler() {
+        ScheduledThreadPoolExecutor s = scheduler;
+        if (s == null) {
+            synchronized (SessionRefreshManager.class) {
+                s = scheduler;
+                if (s == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    s = new ScheduledThreadPoolExecutor(SCHEDULER_THREADS, r -> {
+                        Thread t = new Thread(r, "session-refresh-thread-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    s.setRemoveOnCancelPolicy(true);
+                    scheduler = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    private static long calculateDelaySeconds(String tokenExp) {
+        LocalDateTime expTime =
+                LocalDateTime.parse(tokenExp, EXP_FORMAT);
+
+        LocalDateTime refreshTime = expTime.minus(REFRESH_BEFORE);
+
+        long delay = Duration
+                .between(LocalDateTime.now(), refreshTime)
+                .getSeconds();
+
+        return Math.max(delay, 5);
+    }
+}
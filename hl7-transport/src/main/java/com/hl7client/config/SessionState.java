@@ -3,8 +3,14 @@ package com.hl7client.config;
 import com.hl7client.model.dto.request.auth.DeviceRequest;
 import com.hl7client.model.dto.response.auth.Prestador;
 
+/**
+ * Foto inmutable de una sesión. Cada cambio de la {@link Session} produce una nueva
+ * instancia con {@link #version()} mayor, por lo que dos fotos con la misma versión
+ * tienen el mismo token.
+ */
 public final class SessionState {
 
+    private final long version;
     private final String token;
     private final String tokenExp;
     private final Prestador prestador;
@@ -13,12 +19,14 @@ public final class SessionState {
 
     // <-- CAMBIO 1: Quitamos "private" para que sea package-private
     SessionState(
+            long version,
             String token,
             String tokenExp,
             Prestador prestador,
             Environment environment,
             DeviceRequest device
     ) {
+        this.version = version;
         this.token = token;
         this.tokenExp = tokenExp;
         this.prestador = prestador;
@@ -27,13 +35,22 @@ public final class SessionState {
     }
 
     // Instancia vacía (singleton-like)
-    private static final SessionState EMPTY = new SessionState(null, null, null, null, null);
+    private static final SessionState EMPTY = new SessionState(0, null, null, null, null, null);
 
     public static SessionState empty() {
         return EMPTY;
     }
 
+    // Sesión limpiada: vacía pero con versión nueva
+    static SessionState cleared(long version) {
+        return new SessionState(version, null, null, null, null, null);
+    }
+
     // Getters
+    public long version() {
+        return version;
+    }
+
     public String token() {
         return token;
     }
@@ -63,6 +80,10 @@ public final class SessionState {
                 && device == null;
     }
 
+    public boolean isAuthenticated() {
+        return token != null && !token.isEmpty();
+    }
+
     @SuppressWarnings("unused")
     public boolean hasAuth() {
         return token != null && !token.trim().isEmpty();
@@ -77,7 +98,8 @@ public final class SessionState {
     @Override
     public String toString() {
         return "SessionState{" +
-                "token='" + token + '\'' +
+                "version=" + version +
+                ", token='" + token + '\'' +
                 ", prestador=" + prestador +
                 ", environment=" + environment +
                 ", device=" + device +
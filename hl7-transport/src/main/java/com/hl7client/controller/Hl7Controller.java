@@ -5,6 +5,8 @@ import com.hl7client.model.dto.response.hl7.*;
 import com.hl7client.model.result.*;
 import com.hl7client.service.Hl7Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class Hl7Controller {
@@ -33,6 +35,30 @@ public class Hl7Controller {
         return hl7Service.consultarRegistracion(request);
     }
 
+    /**
+     * Envía, en orden, una registración repartida en varios requests
+     * (ver {@code BenefitRequestMapper.partition}) y combina los resultados.
+     * Si la sesión expira se dejan de enviar las partes restantes; cada una queda informada
+     * como fallida ("Parte k/N no enviada: sesión expirada"), con N = cantidad de requests.
+     */
+    public Hl7Result<List<RegistracionResponse>> consultarRegistraciones(
+            List<RegistracionRequest> requests
+    ) {
+        if (requests == null || requests.isEmpty()) {
+            return errorRequestInvalido("Lista de RegistracionRequest");
+        }
+
+        List<Hl7Result<RegistracionResponse>> results = new ArrayList<>(requests.size());
+        for (RegistracionRequest request : requests) {
+            Hl7Result<RegistracionResponse> result = consultarRegistracion(request);
+            results.add(result);
+            if (result.getIssue().map(Hl7Error::isSession).orElse(false)) {
+                break;
+            }
+        }
+        return Hl7Result.combine(results, requests.size());
+    }
+
     public Hl7Result<CancelacionResponse> consultarCancelacion(
             CancelacionRequest request
     ) {
@@ -0,0 +1,274 @@
+package com.hl7client.probe;
+
+import com.hl7client.client.TransactionExecutors;
+import com.hl7client.config.Environment;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
+import com.hl7client.model.result.Hl7Error;
+import com.hl7client.model.result.Hl7ErrorOrigin;
+import com.hl7client.model.result.Hl7Result;
+import com.hl7client.service.Hl7Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Dispara la misma consulta de elegibilidad contra varios entornos a la vez
+ * y compara respuestas y latencias (chequeos de release DEV / QA / PRE).
+ * <p>
+ * Cada entorno usa su propio {@link Hl7Service}, ligado a una
+ * {@link com.hl7client.config.Session} independiente y ya autenticada. Todos comparten un
+ * único pool HTTP, que cierra quien lo creó al terminar la corrida:
+ * <pre>
+ *   CloseableHttpClient http = ApiClient.pooledHttpClient(maxConnections);
+ *   AuthService auth = new AuthService(Session.forEnvironment(Environment.QA), http);
+ *   auth.login(email, password, apiKey, Environment.QA);
+ *   services.put(Environment.QA, new Hl7Service(new ApiClient(auth, auth.getSession(), http)));
+ *   ...
+ *   auth.logout();
+ *   http.close();
+ * </pre>
+ * {@code hl7-cli fanout} arma los servicios de esta forma.
+ */
+public final class EnvironmentFanOut {
+
+    // Campos de la respuesta que se comparan entre entornos (transac varía siempre)
+    private static final Map<String, Function<ElegibilidadResponse, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("rechaCabecera", ElegibilidadResponse::getRechaCabecera);
+        FIELDS.put("rechaCabeDeno", ElegibilidadResponse::getRechaCabeDeno);
+        FIELDS.put("apeNom", ElegibilidadResponse::getApeNom);
+        FIELDS.put("planCodi", ElegibilidadResponse::getPlanCodi);
+        FIELDS.put("edad", ElegibilidadResponse::getEdad);
+        FIELDS.put("sexo", ElegibilidadResponse::getSexo);
+        FIELDS.put("pmi", ElegibilidadResponse::getPmi);
+        FIELDS.put("gravado", ElegibilidadResponse::getGravado);
+        FIELDS.put("icdDeno", ElegibilidadResponse::getIcdDeno);
+        FIELDS.put("leyimp", ElegibilidadResponse::getLeyimp);
+    }
+
+    private final Map<Environment, Hl7Service> services;
+
+    public EnvironmentFanOut(Map<Environment, Hl7Service> services) {
+        Objects.requireNonNull(services);
+        if (services.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un entorno");
+        }
+        this.services = Collections.unmodifiableMap(new EnumMap<>(services));
+    }
+
+    /**
+     * Envía {@code request} a todos los entornos en paralelo y espera cada respuesta
+     * hasta {@code timeoutMillis} (contado desde el disparo). Un entorno que no responde
+     * a tiempo queda como error técnico; los demás no se ven afectados.
+     */
+    public Report run(ElegibilidadRequest request, long timeoutMillis) {
+        Objects.requireNonNull(request);
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout inválido: " + timeoutMillis);
+        }
+
+        ExecutorService pool = TransactionExecutors.newExecutor("env-fanout", services.size());
+        try {
+            Map<Environment, Future<Outcome>> futures = new EnumMap<>(Environment.class);
+            for (Map.Entry<Environment, Hl7Service> e : services.entrySet()) {
+                futures.put(e.getKey(), pool.submit(() -> probe(e.getKey(), e.getValue(), request)));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            List<Outcome> outcomes = new ArrayList<>(futures.size());
+            for (Map.Entry<Environment, Future<Outcome>> e : futures.entrySet()) {
+                outcomes.add(await(e.getKey(), e.getValue(), deadline, timeoutMillis));
+            }
+            return new Report(outcomes);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ---------- Internos ----------
+
+    private static Outcome probe(Environment environment, Hl7Service service, ElegibilidadRequest request) {
+        long start = System.nanoTime();
+        Hl7Result<ElegibilidadResponse> result;
+        try {
+            result = service.consultarElegibilidad(request);
+        } catch (Exception e) {
+            result = Hl7Result.error(Hl7Error.technical(
+                    e.getMessage() != null ? e.getMessage() : "Error técnico inesperado",
+                    Hl7ErrorOrigin.TRANSPORTE
+            ));
+        }
+        return new Outcome(environment, result, System.nanoTime() - start);
+    }
+
+    private static Outcome await(Environment environment, Future<Outcome> future, long deadline, long timeoutMillis) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return new Outcome(environment, Hl7Result.error(Hl7Error.technical(
+                    "Sin respuesta en " + timeoutMillis + " ms", Hl7ErrorOrigin.TRANSPORTE
+            )), -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome(environment, Hl7Result.error(Hl7Error.technical(
+                    "Consulta interrumpida", Hl7ErrorOrigin.TRANSPORTE
+            )), -1);
+        } catch (ExecutionException e) {
+            // probe() no propaga excepciones; se cubre por completitud
+            return new Outcome(environment, Hl7Result.error(Hl7Error.technical(
+                    String.valueOf(e.getCause()), Hl7ErrorOrigin.TRANSPORTE
+            )), -1);
+        }
+    }
+
+    // ---------- Resultados ----------
+
+    /**
+     * Resultado de un entorno.
+     */
+    public static final class Outcome {
+
+        private final Environment environment;
+        private final Hl7Result<ElegibilidadResponse> result;
+        private final long latencyNanos;      // -1 si no respondió
+
+        Outcome(Environment environment, Hl7Result<ElegibilidadResponse> result, long latencyNanos) {
+            this.environment = environment;
+            this.result = result;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public Environment getEnvironment() {
+            return environment;
+        }
+
+        public Hl7Result<ElegibilidadResponse> getResult() {
+            return result;
+        }
+
+        public boolean isTimedOut() {
+            return latencyNanos < 0;
+        }
+
+        public long getLatencyMillis() {
+            return latencyNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        }
+
+        Object field(String name) {
+            return result.getData().map(FIELDS.get(name)).orElse(null);
+        }
+    }
+
+    /**
+     * Comparación lado a lado de una corrida.
+     */
+    public static final class Report {
+
+        private final List<Outcome> outcomes;
+
+        Report(List<Outcome> outcomes) {
+            this.outcomes = Collections.unmodifiableList(outcomes);
+        }
+
+        public List<Outcome> getOutcomes() {
+            return outcomes;
+        }
+
+        /**
+         * Campos (incluido el estado) cuyo valor no coincide en todos los entornos.
+         */
+        public List<String> getDifferences() {
+            List<String> differences = new ArrayList<>();
+            if (!allEqual(o -> o.getResult().getStatus())) {
+                differences.add("estado");
+            }
+            for (String field : FIELDS.keySet()) {
+                if (!allEqual(o -> o.field(field))) {
+                    differences.add(field);
+                }
+            }
+            return differences;
+        }
+
+        public boolean isConsistent() {
+            return getDifferences().isEmpty();
+        }
+
+        /**
+         * Tabla de texto: una columna por entorno, filas marcadas con '*' donde difieren.
+         */
+        @Override
+        public String toString() {
+            List<String[]> rows = new ArrayList<>();
+            rows.add(row("", "entorno", o -> o.getEnvironment().name()));
+            rows.add(row(marker(o -> o.getResult().getStatus()), "estado", o -> o.getResult().getStatus()));
+            rows.add(row("", "latencia ms", o -> o.isTimedOut() ? "timeout" : o.getLatencyMillis()));
+            rows.add(row("", "mensaje", o -> o.getResult().getIssue().map(Hl7Error::getMessage).orElse("")));
+            for (String field : FIELDS.keySet()) {
+                rows.add(row(marker(o -> o.field(field)), field, o -> o.field(field)));
+            }
+
+            int columns = rows.get(0).length;
+            int[] widths = new int[columns];
+            for (String[] r : rows) {
+                for (int c = 0; c < columns; c++) {
+                    widths[c] = Math.max(widths[c], r[c].length());
+                }
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (String[] r : rows) {
+                for (int c = 0; c < columns; c++) {
+                    sb.append(pad(r[c], widths[c]));
+                    sb.append(c < columns - 1 ? " | " : "\n");
+                }
+            }
+            return sb.toString();
+        }
+
+        private boolean allEqual(Function<Outcome, Object> value) {
+            for (Outcome o : outcomes) {
+                if (!Objects.equals(value.apply(outcomes.get(0)), value.apply(o))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String marker(Function<Outcome, Object> value) {
+            return allEqual(value) ? "" : "*";
+        }
+
+        private String[] row(String marker, String label, Function<Outcome, Object> value) {
+            String[] r = new String[outcomes.size() + 1];
+            r[0] = marker.isEmpty() ? label : marker + label;
+            for (int i = 0; i < outcomes.size(); i++) {
+                Object v = value.apply(outcomes.get(i));
+                r[i + 1] = v == null ? "-" : String.valueOf(v);
+            }
+            return r;
+        }
+
+        private static String pad(String s, int width) {
+            StringBuilder sb = new StringBuilder(s);
+            while (sb.length() < width) {
+                sb.append(' ');
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -5,14 +5,19 @@ import com.hl7client.client.ApiResponse;
 import com.hl7client.client.AuthProblemException;
 import com.hl7client.client.AuthRefresher;
 import com.hl7client.config.Environment;
-import com.hl7client.config.EnvironmentConfig;
+import com.hl7client.config.Endpoint;
+import com.hl7client.config.EndpointRegistry;
+import com.hl7client.config.Session;
 import com.hl7client.config.SessionContext;
 import com.hl7client.config.SessionRefreshManager;
+import com.hl7client.config.SessionState;
 import com.hl7client.model.dto.request.auth.DeviceRequest;
 import com.hl7client.model.dto.request.auth.LoginRequest;
 import com.hl7client.model.dto.response.auth.LoginResponse;
 import com.hl7client.util.JsonUtil;
+import org.apache.http.impl.client.CloseableHttpClient;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -21,14 +26,38 @@ import java.util.UUID;
 public class AuthService implements AuthRefresher {
 
     private final ApiClient apiClient;
+    private final Session session;
+    private final Object refreshLock = new Object();
 
     public AuthService() {
-        this.apiClient = new ApiClient(this);
+        this(SessionContext.current());
+    }
+
+    /**
+     * Servicio de autenticación sobre una sesión propia, con refresh anticipado
+     * agendado en {@link SessionRefreshManager}.
+     */
+    public AuthService(Session session) {
+        this.session = Objects.requireNonNull(session, "Session requerida");
+        this.apiClient = new ApiClient(this, session);
+    }
+
+    /**
+     * Igual que {@link #AuthService(Session)}, reutilizando un cliente HTTP compartido.
+     */
+    public AuthService(Session session, CloseableHttpClient httpClient) {
+        this.session = Objects.requireNonNull(session, "Session requerida");
+        this.apiClient = new ApiClient(this, session, httpClient);
     }
 
     @SuppressWarnings({"unused"})
     public AuthService(ApiClient apiClient) {
         this.apiClient = Objects.requireNonNull(apiClient);
+        this.session = apiClient.getSession();
+    }
+
+    public Session getSession() {
+        return session;
     }
 
     // ---------- LOGIN ----------
@@ -41,7 +70,9 @@ public class AuthService implements AuthRefresher {
     ) {
         Objects.requireNonNull(environment, "Environment requerido");
 
-        String url = EnvironmentConfig.getAuthUrl(environment);
+        // Resuelve y cachea todas las URIs del entorno antes de la primera consulta HL7
+        EndpointRegistry.warmUp(environment);
+        URI url = EndpointRegistry.uri(environment, Endpoint.AUTH_LOGIN);
 
         DeviceRequest device = createDevice();
 
@@ -53,9 +84,7 @@ public class AuthService implements AuthRefresher {
         );
 
         String jsonRequest = JsonUtil.toJson(request);
-        Map<String, String> headers = defaultJsonHeaders();
-
-        ApiResponse response = apiClient.post(url, jsonRequest, headers);
+        ApiResponse response = apiClient.post(session.state(), url, jsonRequest, null);
 
         if (response.isHttpError()) {
             throw new RuntimeException(
@@ -85,34 +114,51 @@ public class AuthService implements AuthRefresher {
     // ---------- LOGOUT MANUAL ----------
 
     public void logout() {
-        SessionRefreshManager.stop();
-        SessionContext.clear();
+        SessionRefreshManager.stop(session);
+        session.clear();
     }
 
     // ---------- AUTH REFRESH ----------
 
     @Override
     public void refreshAuth() {
-        doRefresh();
+        synchronized (refreshLock) {
+            doRefresh(session.state());
+        }
     }
 
-    private void doRefresh() {
+    /**
+     * Refresh disparado por un 401: los hilos que recibieron 401 con el mismo token
+     * se serializan aquí y solo el primero refresca.
+     */
+    @Override
+    public void refreshAuth(long staleVersion) {
+        synchronized (refreshLock) {
+            SessionState snapshot = session.state();
+            if (snapshot.version() != staleVersion) {
+                return;
+            }
+            doRefresh(snapshot);
+        }
+    }
+
+    private void doRefresh(SessionState snapshot) {
 
-        if (!SessionContext.isAuthenticated()) {
+        if (!snapshot.isAuthenticated()) {
             throw new IllegalStateException("No hay sesión activa para refrescar");
         }
 
-        if (SessionContext.getDevice() == null) {
+        if (snapshot.device() == null) {
             throw new IllegalStateException("No hay información de device en sesión");
         }
 
-        String url = EnvironmentConfig.getAuthRefreshUrl(SessionContext.getEnvironment());
-        String body = JsonUtil.toJson(SessionContext.getDevice());
+        URI url = EndpointRegistry.uri(snapshot.environment(), Endpoint.AUTH_REFRESH);
+        String body = JsonUtil.toJson(snapshot.device());
 
         Map<String, String> headers = new HashMap<>();
-        headers.put("Authorization", "Bearer " + SessionContext.getToken());
+        headers.put("Authorization", "Bearer " + snapshot.token());
 
-        ApiResponse response = apiClient.post(url, body, headers);
+        ApiResponse response = apiClient.post(snapshot, url, body, headers);
 
         if (response.isHttpError()) {
             int status = response.getStatusCode();
@@ -145,13 +191,13 @@ public class AuthService implements AuthRefresher {
             );
         }
 
-        SessionContext.updateAuth(
+        session.updateAuth(
                 refreshResponse.getToken(),
                 refreshResponse.getExp(),
                 refreshResponse.getModelEspecifico()
         );
 
-        SessionRefreshManager.ensureStarted(this);
+        scheduleRefresh();
     }
 
     // ---------- helpers ----------
@@ -166,7 +212,7 @@ public class AuthService implements AuthRefresher {
             Environment environment,
             DeviceRequest device
     ) {
-        SessionContext.initialize(
+        session.initialize(
                 response.getToken(),
                 response.getExp(),
                 response.getModelEspecifico(),
@@ -174,12 +220,10 @@ public class AuthService implements AuthRefresher {
                 device
         );
 
-        SessionRefreshManager.ensureStarted(this);
+        scheduleRefresh();
     }
 
-    private Map<String, String> defaultJsonHeaders() {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json; charset=UTF-8");
-        return headers;
+    private void scheduleRefresh() {
+        SessionRefreshManager.ensureStarted(session, this);
     }
 }
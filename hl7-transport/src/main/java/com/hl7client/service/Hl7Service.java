@@ -2,12 +2,17 @@ package com.hl7client.service;
 
 import com.hl7client.client.ApiClient;
 import com.hl7client.client.ApiResponse;
-import com.hl7client.config.EnvironmentConfig;
-import com.hl7client.config.SessionContext;
+import com.hl7client.client.RateLimitException;
+import com.hl7client.client.RequestPriority;
+import com.hl7client.config.Endpoint;
+import com.hl7client.config.Session;
+import com.hl7client.config.SessionState;
 import com.hl7client.model.dto.request.hl7.*;
 import com.hl7client.model.dto.response.hl7.*;
 import com.hl7client.model.result.*;
+import com.hl7client.util.InFlightCoalescer;
 import com.hl7client.util.JsonUtil;
+import com.hl7client.util.PropertiesUtil;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,33 +21,74 @@ import java.util.Objects;
 public class Hl7Service {
 
     private final ApiClient apiClient;
+    private final Session session;
 
+    // Consultas de elegibilidad idénticas en vuelo (doble click, dos puestos) comparten una llamada.
+    // Solo elegibilidad: registración y cancelación tienen efectos y nunca se agrupan.
+    private final InFlightCoalescer<String, Hl7Result<ElegibilidadResponse>> elegibilidades =
+            new InFlightCoalescer<>();
+
+    /**
+     * El servicio opera sobre la sesión a la que está ligado el {@link ApiClient}
+     * (entorno de las URLs y validación de sesión activa).
+     */
     public Hl7Service(ApiClient apiClient) {
         this.apiClient = Objects.requireNonNull(apiClient);
+        this.session = apiClient.getSession();
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Consultas de elegibilidad enviadas al backend.
+     */
+    public long getElegibilidadUpstreamCount() {
+        return elegibilidades.getExecutedCount();
+    }
+
+    /**
+     * Consultas de elegibilidad resueltas con el resultado de otra idéntica en vuelo.
+     */
+    public long getElegibilidadCoalescedCount() {
+        return elegibilidades.getCoalescedCount();
     }
 
     // ================== API pública ==================
 
+    /**
+     * Si hay en vuelo una consulta igual (misma prioridad, mismo entorno y mismos campos), espera
+     * y devuelve su mismo {@link Hl7Result} en lugar de repetirla ({@code hl7.elegibilidad.coalesce}).
+     * <ul>
+     *   <li>Solo se agrupan consultas de la misma {@link RequestPriority}: una consulta interactiva
+     *       nunca espera detrás de la cuota ni de la cola de un barrido {@code BULK}.</li>
+     *   <li>Todos los que esperan reciben la misma instancia de {@link ElegibilidadResponse}, que es
+     *       mutable: no debe modificarse (copiar antes si hace falta).</li>
+     * </ul>
+     */
     public Hl7Result<ElegibilidadResponse> consultarElegibilidad(
             ElegibilidadRequest request
     ) {
-        return postHl7(
-                EnvironmentConfig.getHl7ElegibilidadUrl(
-                        SessionContext.getEnvironment()
-                ),
-                request,
-                ElegibilidadResponse.class,
-                this::validarElegibilidad
-        );
+        if (request == null || !PropertiesUtil.getBoolean("hl7.elegibilidad.coalesce", true)) {
+            return enviarElegibilidad(request);
+        }
+        try {
+            return elegibilidades.execute(elegibilidadKey(request), () -> enviarElegibilidad(request));
+        } catch (IllegalStateException e) {
+            // Interrumpido mientras esperaba la consulta agrupada
+            if (!Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            return Hl7Result.error(Hl7Error.technical("Consulta interrumpida", Hl7ErrorOrigin.TRANSPORTE));
+        }
     }
 
     public Hl7Result<RegistracionResponse> consultarRegistracion(
             RegistracionRequest request
     ) {
         return postHl7(
-                EnvironmentConfig.getHl7RegistracionUrl(
-                        SessionContext.getEnvironment()
-                ),
+                Endpoint.HL7_REGISTRACION,
                 request,
                 RegistracionResponse.class,
                 this::validarRegistracion
@@ -53,9 +99,7 @@ public class Hl7Service {
             CancelacionRequest request
     ) {
         return postHl7(
-                EnvironmentConfig.getHl7CancelacionUrl(
-                        SessionContext.getEnvironment()
-                ),
+                Endpoint.HL7_CANCELACION,
                 request,
                 CancelacionResponse.class,
                 this::validarCancelacion
@@ -64,19 +108,35 @@ public class Hl7Service {
 
     // ================== Núcleo común ==================
 
+    private Hl7Result<ElegibilidadResponse> enviarElegibilidad(ElegibilidadRequest request) {
+        return postHl7(
+                Endpoint.HL7_ELEGIBILIDAD,
+                request,
+                ElegibilidadResponse.class,
+                this::validarElegibilidad
+        );
+    }
+
+    // Clave normalizada: prioridad + entorno + JSON del request (solo campos no nulos, orden fijo)
+    private String elegibilidadKey(ElegibilidadRequest request) {
+        return RequestPriority.current() + "|" + session.getEnvironment() + "|" + JsonUtil.toJson(request);
+    }
+
     private <T> Hl7Result<T> postHl7(
-            String url,
+            Endpoint endpoint,
             Object request,
             Class<T> responseType,
             Hl7Validator<T> validator
     ) {
-        if (!SessionContext.isAuthenticated()) {
+        // Una sola foto de sesión: la URL (entorno) y el token salen del mismo estado
+        SessionState snapshot = session.state();
+        if (!snapshot.isAuthenticated()) {
             return Hl7Result.error(Hl7Error.sessionExpired());
         }
 
         try {
             String body = JsonUtil.toJson(request);
-            ApiResponse response = apiClient.post(url, body, null);
+            ApiResponse response = apiClient.post(snapshot, endpoint, body, null);
 
             // 🔒 VALIDACIÓN HTTP (clave)
             if (response.getStatusCode() < 200 || response.getStatusCode() >= 300) {
@@ -96,6 +156,11 @@ public class Hl7Service {
             T hl7 = JsonUtil.fromJson(response.getBody(), responseType);
             return validator.validate(hl7);
 
+        } catch (RateLimitException e) {
+            // No se envió: la cuota del apiKey no dio turno a tiempo
+            return Hl7Result.error(
+                    Hl7Error.technical(e.getMessage(), Hl7ErrorOrigin.TRANSPORTE)
+            );
         } catch (Exception e) {
             return Hl7Result.error(
                     Hl7Error.technical(
@@ -0,0 +1,168 @@
+package com.hl7client.service;
+
+import com.hl7client.client.ApiClient;
+import com.hl7client.config.Environment;
+import com.hl7client.config.Session;
+import com.hl7client.config.SessionRefreshManager;
+import com.hl7client.model.dto.request.hl7.CancelacionRequest;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.dto.response.auth.Prestador;
+import com.hl7client.model.dto.response.hl7.CancelacionResponse;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
+import com.hl7client.model.dto.response.hl7.RegistracionResponse;
+import com.hl7client.model.result.Hl7Error;
+import com.hl7client.model.result.Hl7Result;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sesiones de muchos prestadores en un mismo proceso (uso clearinghouse).
+ * <p>
+ * Cada prestador tiene su propio login, {@link Session}, token y refresh agendado
+ * (en el scheduler compartido de {@link SessionRefreshManager}). Las consultas HL7 se
+ * enrutan por id de prestador, sin estado estático en el camino, por lo que no hay
+ * cruce de tokens entre prestadores. Todas las sesiones comparten un único pool de
+ * conexiones HTTP.
+ */
+public final class ProviderSessionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ProviderSessionPool.class.getName());
+
+    private final ConcurrentHashMap<String, ProviderSession> sessions = new ConcurrentHashMap<>();
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * @param maxConnections conexiones HTTP simultáneas, compartidas por todos los prestadores
+     */
+    public ProviderSessionPool(int maxConnections) {
+        this.httpClient = ApiClient.pooledHttpClient(maxConnections);
+    }
+
+    // ---------- Sesiones ----------
+
+    /**
+     * Autentica al prestador (o renueva su sesión si ya existía).
+     *
+     * @return el prestador devuelto por el login
+     * @throws RuntimeException si el login falla; en ese caso el prestador no queda en el pool
+     */
+    public Prestador login(
+            String providerId,
+            String email,
+            char[] password,
+            String apiKey,
+            Environment environment
+    ) {
+        requireId(providerId);
+
+        ProviderSession entry = sessions.computeIfAbsent(providerId, ProviderSession::new);
+        try {
+            entry.auth.login(email, password, apiKey, environment);
+        } finally {
+            if (!entry.session.isAuthenticated()) {
+                sessions.remove(providerId, entry);
+            }
+        }
+
+        LOGGER.info("Prestador [" + providerId + "] autenticado en " + environment
+                + " (" + sessions.size() + " sesiones activas)");
+        return entry.session.getPrestador();
+    }
+
+    public void logout(String providerId) {
+        ProviderSession entry = sessions.remove(requireId(providerId));
+        if (entry != null) {
+            entry.auth.logout();
+        }
+    }
+
+    public boolean isAuthenticated(String providerId) {
+        ProviderSession entry = sessions.get(requireId(providerId));
+        return entry != null && entry.session.isAuthenticated();
+    }
+
+    public Set<String> getProviderIds() {
+        return Collections.unmodifiableSet(sessions.keySet());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Sesión del prestador, o null si no está en el pool.
+     */
+    public Session getSession(String providerId) {
+        ProviderSession entry = sessions.get(requireId(providerId));
+        return entry != null ? entry.session : null;
+    }
+
+    // ---------- HL7 enrutado por prestador ----------
+
+    public Hl7Result<ElegibilidadResponse> consultarElegibilidad(String providerId, ElegibilidadRequest request) {
+        ProviderSession entry = sessions.get(requireId(providerId));
+        return entry != null ? entry.hl7.consultarElegibilidad(request) : unknown();
+    }
+
+    public Hl7Result<RegistracionResponse> consultarRegistracion(String providerId, RegistracionRequest request) {
+        ProviderSession entry = sessions.get(requireId(providerId));
+        return entry != null ? entry.hl7.consultarRegistracion(request) : unknown();
+    }
+
+    public Hl7Result<CancelacionResponse> cancelarPrestacion(String providerId, CancelacionRequest request) {
+        ProviderSession entry = sessions.get(requireId(providerId));
+        return entry != null ? entry.hl7.cancelarPrestacion(request) : unknown();
+    }
+
+    // ---------- Cierre ----------
+
+    /**
+     * Cierra todas las sesiones (cancela sus refresh) y libera el pool HTTP.
+     */
+    @Override
+    public void close() {
+        for (String providerId : new ArrayList<>(sessions.keySet())) {
+            logout(providerId);
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error cerrando el cliente HTTP del pool", e);
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    private static String requireId(String providerId) {
+        if (providerId == null || providerId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Id de prestador requerido");
+        }
+        return providerId;
+    }
+
+    // Prestador sin sesión: mismo resultado que una sesión expirada
+    private static <T> Hl7Result<T> unknown() {
+        return Hl7Result.error(Hl7Error.sessionExpired());
+    }
+
+    private final class ProviderSession {
+
+        final Session session;
+        final AuthService auth;
+        final Hl7Service hl7;
+
+        ProviderSession(String providerId) {
+            this.session = new Session("prestador:" + providerId);
+            this.auth = new AuthService(session, httpClient);
+            this.hl7 = new Hl7Service(new ApiClient(auth, session, httpClient));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.hl7client.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BlockingStage} entre {@link Hl7Flow#fromIterator} y un subscriber lento: memoria
+ * acotada por {@code maxInFlight}, cancelación hacia la fuente y errores de la función.
+ */
+class BlockingStageTest {
+
+    private static final int MAX_IN_FLIGHT = 4;
+    private static final long TIMEOUT_SECONDS = 10;
+    // Demanda mayor que maxInFlight: el tope lo fija la etapa, no el subscriber
+    private static final int WINDOW = 4 * MAX_IN_FLIGHT;
+
+    @Test
+    void slowSubscriberBoundsWhatIsHeld() throws InterruptedException {
+        CountingSource source = new CountingSource(200);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        BlockingStage<Integer, Integer> stage = new BlockingStage<>("test-stage", MAX_IN_FLIGHT, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                sleep(1);
+                return item;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        SlowSubscriber subscriber = new SlowSubscriber(source, 2, Integer.MAX_VALUE);
+        stage.subscribe(subscriber);
+        Hl7Flow.fromIterator(source).subscribe(stage);
+
+        assertTrue(subscriber.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "el flujo no terminó");
+        assertEquals(null, subscriber.error.get());
+        assertEquals(200, subscriber.received.size());
+        assertEquals(200, new HashSet<>(subscriber.received).size());
+
+        // pedidos + en vuelo + listos ≤ maxInFlight, medido como leídos de la fuente - entregados
+        assertTrue(subscriber.maxHeld <= MAX_IN_FLIGHT, "retenidos: " + subscriber.maxHeld);
+        assertTrue(maxRunning.get() <= MAX_IN_FLIGHT, "en vuelo: " + maxRunning.get());
+    }
+
+    @Test
+    void cancelStopsTheSource() throws InterruptedException {
+        CountingSource source = new CountingSource(Integer.MAX_VALUE);
+        BlockingStage<Integer, Integer> stage = new BlockingStage<>("test-stage", MAX_IN_FLIGHT, item -> {
+            sleep(1);
+            return item;
+        });
+        SlowSubscriber subscriber = new SlowSubscriber(source, 0, 5);
+        stage.subscribe(subscriber);
+        Hl7Flow.fromIterator(source).subscribe(stage);
+
+        assertTrue(subscriber.cancelled.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "no se canceló");
+        int pulled = source.pulled.get();
+        sleep(100);
+
+        assertEquals(pulled, source.pulled.get(), "la fuente siguió leyendo después de cancel");
+        assertTrue(pulled <= 5 + MAX_IN_FLIGHT, "leídos: " + pulled);
+        assertEquals(5, subscriber.received.size());
+        assertEquals(1, subscriber.done.getCount(), "sin onComplete/onError después de cancel");
+    }
+
+    @Test
+    void errorFromTheFunctionReachesOnError() throws InterruptedException {
+        Error boom = new Error("boom");
+        CountingSource source = new CountingSource(1_000);
+        BlockingStage<Integer, Integer> stage = new BlockingStage<>("test-stage", MAX_IN_FLIGHT,
+                failingAt(10, boom));
+
+        Hl7Flow.Sink<Integer> sink = Hl7Flow.sink(item -> sleep(1), 2);
+        stage.subscribe(sink);
+        Hl7Flow.fromIterator(source).subscribe(stage);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, sink::await);
+        assertSame(boom, e.getCause());
+        sleep(50);
+        assertTrue(source.pulled.get() < 1_000, "la fuente no se canceló: " + source.pulled.get());
+    }
+
+    // ---------- Helpers ----------
+
+    private static Function<Integer, Integer> failingAt(int failing, Error error) {
+        return item -> {
+            if (item == failing) {
+                throw error;
+            }
+            sleep(1);
+            return item;
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Enteros 0..size-1 que cuentan cuántos se leyeron.
+     */
+    private static final class CountingSource implements Iterator<Integer> {
+
+        final AtomicInteger pulled = new AtomicInteger();
+        private final int size;
+
+        CountingSource(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pulled.get() < size;
+        }
+
+        @Override
+        public Integer next() {
+            return pulled.getAndIncrement();
+        }
+    }
+
+    /**
+     * Pide {@link #WINDOW} y uno más por elemento, tarda {@code delayMillis} por elemento y cancela al recibir {@code cancelAfter}.
+     * Las señales son secuenciales (regla del flujo), así que el estado no necesita sincronización.
+     */
+    private static final class SlowSubscriber implements Hl7Flow.Subscriber<Integer> {
+
+        final Set<Integer> received = new HashSet<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        volatile int maxHeld;
+
+        private final CountingSource source;
+        private final long delayMillis;
+        private final int cancelAfter;
+        private Hl7Flow.Subscription subscription;
+
+        SlowSubscriber(CountingSource source, long delayMillis, int cancelAfter) {
+            this.source = source;
+            this.delayMillis = delayMillis;
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void onSubscribe(Hl7Flow.Subscription s) {
+            subscription = s;
+            s.request(WINDOW);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            // Incluye el elemento que se está entregando
+            maxHeld = Math.max(maxHeld, source.pulled.get() - received.size());
+            received.add(item);
+            if (received.size() == cancelAfter) {
+                subscription.cancel();
+                cancelled.countDown();
+                return;
+            }
+            sleep(delayMillis);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error.set(t);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
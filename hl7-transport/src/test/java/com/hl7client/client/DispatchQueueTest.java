@@ -0,0 +1,147 @@
+package com.hl7client.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link DispatchQueue}: orden del round-robin ponderado entre filas, slots reservados para
+ * tráfico interactivo y espera interrumpida.
+ */
+class DispatchQueueTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Test
+    void lanesAreInterleavedByWeight() throws InterruptedException {
+        DispatchQueue queue = new DispatchQueue(1, 0, 8, 4, 1);
+        queue.acquire(RequestPriority.NORMAL);   // ocupa el único slot: todos hacen fila
+
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        enqueue(queue, RequestPriority.INTERACTIVE, 8, granted);
+        enqueue(queue, RequestPriority.NORMAL, 4, granted);
+        enqueue(queue, RequestPriority.BULK, 1, granted);
+
+        // Cada liberación otorga el slot a la fila que sigue según los pesos 8/4/1
+        RequestPriority holder = RequestPriority.NORMAL;
+        for (int i = 0; i < 13; i++) {
+            queue.release(holder);
+            awaitSize(granted, i + 1);
+            holder = RequestPriority.valueOf(granted.get(i).substring(0, granted.get(i).indexOf('-')));
+        }
+
+        assertEquals(
+                "INTERACTIVE-0 NORMAL-0 INTERACTIVE-1 INTERACTIVE-2 NORMAL-1 INTERACTIVE-3 BULK-0 "
+                        + "INTERACTIVE-4 NORMAL-2 INTERACTIVE-5 INTERACTIVE-6 NORMAL-3 INTERACTIVE-7",
+                String.join(" ", granted)
+        );
+    }
+
+    @Test
+    void interactiveReservationLeavesOneSharedSlot() {
+        assertEquals(0, new DispatchQueue(1, 1, 8, 4, 1).getReservedInteractive());
+        assertEquals(2, new DispatchQueue(3, 5, 8, 4, 1).getReservedInteractive());
+    }
+
+    @Test
+    void reservedSlotsAreOnlyForInteractive() throws InterruptedException {
+        DispatchQueue queue = new DispatchQueue(3, 2, 8, 4, 1);
+        queue.acquire(RequestPriority.NORMAL);
+
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        enqueue(queue, RequestPriority.BULK, 1, granted);
+
+        // Los dos slots reservados siguen libres para diálogos
+        queue.acquire(RequestPriority.INTERACTIVE);
+        queue.acquire(RequestPriority.INTERACTIVE);
+        assertEquals(3, queue.getInUse());
+
+        // Liberar un slot reservado no habilita al batch
+        queue.release(RequestPriority.INTERACTIVE);
+        assertEquals(1, queue.stats().get(RequestPriority.BULK).getWaiting());
+        assertTrue(granted.isEmpty());
+
+        // Sí el slot compartido
+        queue.release(RequestPriority.NORMAL);
+        awaitSize(granted, 1);
+        assertEquals(2, queue.getInUse());
+    }
+
+    @Test
+    void interruptedWaiterLeavesTheQueue() throws InterruptedException {
+        DispatchQueue queue = new DispatchQueue(1, 0, 8, 4, 1);
+        queue.acquire(RequestPriority.NORMAL);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] interruptedFlag = new boolean[1];
+        Thread waiter = new Thread(() -> {
+            try {
+                queue.acquire(RequestPriority.BULK);
+            } catch (Throwable t) {
+                failure.set(t);
+                interruptedFlag[0] = Thread.currentThread().isInterrupted();
+            } finally {
+                done.countDown();
+            }
+        });
+        waiter.setDaemon(true);
+        waiter.start();
+        awaitWaiting(queue, RequestPriority.BULK, 1);
+
+        waiter.interrupt();
+        assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(failure.get() instanceof RateLimitException, String.valueOf(failure.get()));
+        assertTrue(interruptedFlag[0], "se conserva la interrupción");
+        assertEquals(0, queue.stats().get(RequestPriority.BULK).getWaiting());
+
+        // El slot no quedó asignado al hilo interrumpido
+        queue.release(RequestPriority.NORMAL);
+        assertEquals(0, queue.getInUse());
+        queue.acquire(RequestPriority.BULK);
+        assertEquals(1, queue.getInUse());
+    }
+
+    // ---------- Helpers ----------
+
+    // Encola n hilos en la fila (en orden FIFO) y espera a que todos estén en fila
+    private static void enqueue(DispatchQueue queue, RequestPriority priority, int n, List<String> granted)
+            throws InterruptedException {
+        int before = queue.stats().get(priority).getWaiting();
+        for (int i = 0; i < n; i++) {
+            String label = priority + "-" + i;
+            Thread thread = new Thread(() -> {
+                queue.acquire(priority);
+                granted.add(label);   // conserva el slot: lo libera el test
+            }, label);
+            thread.setDaemon(true);
+            thread.start();
+            awaitWaiting(queue, priority, before + i + 1);
+        }
+    }
+
+    private static void awaitWaiting(DispatchQueue queue, RequestPriority priority, int waiting)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (queue.stats().get(priority).getWaiting() < waiting) {
+            assertTrue(System.nanoTime() < deadline, priority + ": " + waiting + " en fila");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitSize(List<String> granted, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (granted.size() < size) {
+            assertTrue(System.nanoTime() < deadline, "turnos otorgados: " + granted);
+            Thread.sleep(1);
+        }
+    }
+}
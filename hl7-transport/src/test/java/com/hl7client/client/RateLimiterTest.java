@@ -0,0 +1,142 @@
+package com.hl7client.client;
+
+import com.hl7client.util.PropertiesUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RateLimiter.Bucket} con reloj manual y la configuración por defecto
+ * (600 rpm, burst 20, reserva interactiva 25% = 5 tokens).
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void eachPriorityStopsAtItsFloor() throws InterruptedException {
+        RateLimiter.Bucket bucket = bucket();
+
+        // BULK deja la reserva completa (5), NORMAL la mitad (2.5), INTERACTIVE nada
+        assertEquals(15, drain(bucket, RequestPriority.BULK));
+        assertEquals(2, drain(bucket, RequestPriority.NORMAL));
+        assertEquals(3, drain(bucket, RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void tooManyRequestsHalvesTheRateAndPauses() throws InterruptedException {
+        RateLimiter.Bucket bucket = bucket();
+
+        assertEquals(0.5, bucket.backOff(1_000));
+        assertEquals(300, bucket.effectiveRpm());
+
+        // Durante la pausa no hay turno aunque se acumulen tokens
+        now.addAndGet(999 * SECOND / 1_000);
+        assertEquals(-1, bucket.acquire(RequestPriority.INTERACTIVE, 0));
+
+        // Al terminar: a 300 rpm se acumularon 5 tokens en 1 s
+        now.addAndGet(2 * SECOND / 1_000);
+        assertEquals(5, drain(bucket, RequestPriority.INTERACTIVE));
+
+        // Un nuevo 429 vuelve a dividir, hasta el mínimo del 10%
+        for (int i = 0; i < 10; i++) {
+            bucket.backOff(0);
+        }
+        assertEquals(60, bucket.effectiveRpm());
+    }
+
+    @Test
+    void successfulResponsesRecoverAdditively() {
+        RateLimiter.Bucket bucket = bucket();
+        bucket.backOff(0);
+
+        bucket.recover();
+        assertEquals(312, bucket.effectiveRpm());
+        for (int i = 0; i < 30; i++) {
+            bucket.recover();
+        }
+        assertEquals(600, bucket.effectiveRpm());
+    }
+
+    @Test
+    void reconfigureKeepsTheBackoff() throws InterruptedException {
+        RateLimiter.Bucket bucket = bucket();
+        bucket.backOff(60_000);
+
+        System.setProperty("hl7.ratelimit.rpm", "1200");
+        try {
+            PropertiesUtil.reload();
+            bucket.configure();
+
+            assertEquals(600, bucket.effectiveRpm());
+            now.addAndGet(30 * SECOND);
+            assertEquals(-1, bucket.acquire(RequestPriority.INTERACTIVE, 0), "la pausa sigue vigente");
+        } finally {
+            System.clearProperty("hl7.ratelimit.rpm");
+            PropertiesUtil.reload();
+        }
+    }
+
+    @Test
+    void sharedWaiterIsSignalledWhenInteractiveWaitEnds() throws InterruptedException {
+        RateLimiter.Bucket bucket = bucket();
+        drain(bucket, RequestPriority.INTERACTIVE);
+
+        CountDownLatch interactive = new CountDownLatch(1);
+        CountDownLatch bulk = new CountDownLatch(1);
+        Thread first = waiter(bucket, RequestPriority.INTERACTIVE, interactive);
+        awaitWaiting(first);
+        Thread second = waiter(bucket, RequestPriority.BULK, bulk);
+        awaitWaiting(second);
+
+        // Con el bucket lleno de nuevo, el interactivo toma su turno y avisa al resto
+        now.addAndGet(10 * SECOND);
+        assertTrue(interactive.await(5, TimeUnit.SECONDS), "interactivo sin turno");
+        assertTrue(bulk.await(5, TimeUnit.SECONDS), "bulk no fue despertado");
+    }
+
+    // ---------- Helpers ----------
+
+    private RateLimiter.Bucket bucket() {
+        return new RateLimiter.Bucket("-", "elegibilidad", now::get);
+    }
+
+    // Turnos sin esperar hasta el piso de la prioridad (el reloj no avanza)
+    private static int drain(RateLimiter.Bucket bucket, RequestPriority priority) throws InterruptedException {
+        int taken = 0;
+        while (bucket.acquire(priority, 0) == 0) {
+            taken++;
+        }
+        return taken;
+    }
+
+    private static Thread waiter(RateLimiter.Bucket bucket, RequestPriority priority, CountDownLatch done) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (bucket.acquire(priority, Long.MAX_VALUE) >= 0) {
+                    done.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "waiter-" + priority);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + 5 * SECOND;
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, thread.getName() + " no quedó esperando");
+            Thread.sleep(1);
+        }
+    }
+}
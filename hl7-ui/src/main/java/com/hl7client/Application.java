@@ -5,13 +5,18 @@ import com.hl7client.config.SessionContext;
 import com.hl7client.config.SessionEndReason;
 import com.hl7client.controller.Hl7Controller;
 import com.hl7client.controller.LoginController;
+import com.hl7client.model.benefit.BenefitRequestMapper;
+import com.hl7client.model.catalog.BenefitCatalog;
 import com.hl7client.service.AuthService;
 import com.hl7client.service.Hl7Service;
 import com.hl7client.ui.frames.LoginFrame;
 import com.hl7client.ui.frames.MainFrame;
 import com.hl7client.ui.theme.ThemeManager;
+import com.hl7client.util.PropertiesUtil;
+import com.hl7client.util.StartupTimer;
 
 import javax.swing.*;
+import java.nio.file.Paths;
 
 public class Application {
 
@@ -25,7 +30,28 @@ public class Application {
 
     public void start() {
         ThemeManager.getInstance().initialize();
+        StartupTimer.mark("tema");
+
+        BenefitCatalog.loadShared(Paths.get(PropertiesUtil.get("catalog.benefits.path", "benefit-catalog.bin")));
+        StartupTimer.mark("catálogo");
+
+        applyRuntimeSettings();
+        PropertiesUtil.addReloadListener(this::applyRuntimeSettings);
+        PropertiesUtil.startWatching();
+        StartupTimer.mark("configuración");
+
         openLogin();
+        StartupTimer.finish("login visible");
+
+        // Mientras el usuario se loguea: Jackson, HTTP/TLS y clases de la UI
+        if (PropertiesUtil.getBoolean("startup.performance.mode", false)) {
+            StartupPrewarm.start();
+        }
+    }
+
+    // Ajustes que se pueden cambiar en caliente desde la configuración externa
+    private void applyRuntimeSettings() {
+        BenefitRequestMapper.setDentalMultiItem(PropertiesUtil.getBoolean("hl7.dental.multiItem", false));
     }
 
     // -------------------------------------------------
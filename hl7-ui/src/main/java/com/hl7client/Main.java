@@ -1,5 +1,7 @@
 package com.hl7client;
 
+import com.hl7client.util.StartupTimer;
+
 import javax.swing.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -9,6 +11,7 @@ import java.util.logging.Logger;
     private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
 
     public static void main(String[] args) {
+        StartupTimer.mark("jvm");
         SwingUtilities.invokeLater(() -> {
             try {
                 new Application().start();
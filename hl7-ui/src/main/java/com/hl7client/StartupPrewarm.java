@@ -0,0 +1,104 @@
+package com.hl7client;
+
+import com.hl7client.client.ApiClient;
+import com.hl7client.config.EndpointRegistry;
+import com.hl7client.config.Environment;
+import com.hl7client.model.dto.request.auth.DeviceRequest;
+import com.hl7client.model.dto.request.auth.LoginRequest;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.response.auth.LoginResponse;
+import com.hl7client.model.dto.response.hl7.CancelacionResponse;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
+import com.hl7client.model.dto.response.hl7.RegistracionResponse;
+import com.hl7client.util.JsonUtil;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Precalentamiento en segundo plano mientras el usuario completa el login.
+ * <ul>
+ *   <li>Jackson: arma y cachea (de)serializadores de los DTOs de auth y HL7.</li>
+ *   <li>HTTP: carga HttpClient y el contexto TLS por defecto.</li>
+ *   <li>Endpoints: resuelve las URIs de todos los entornos.</li>
+ *   <li>Clases de los diálogos principales (sin inicializarlas: la UI se construye en el EDT).</li>
+ * </ul>
+ * Todo es best-effort: un fallo solo se loguea.
+ */
+final class StartupPrewarm {
+
+    private static final Logger LOGGER = Logger.getLogger(StartupPrewarm.class.getName());
+
+    private static final String[] UI_CLASSES = {
+            "com.hl7client.ui.frames.MainFrame",
+            "com.hl7client.ui.dialogs.ElegibilidadDialog",
+            "com.hl7client.ui.dialogs.RegistracionDialog",
+            "com.hl7client.ui.dialogs.CancelacionDialog",
+            "com.hl7client.ui.dialogs.BenefitDialog",
+            "com.hl7client.ui.dialogs.MedicalBenefitEditorDialog",
+            "com.hl7client.ui.dialogs.DentalBenefitEditorDialog",
+            "com.github.lgooddatepicker.components.DatePicker"
+    };
+
+    private StartupPrewarm() {
+    }
+
+    static void start() {
+        Thread t = new Thread(StartupPrewarm::run, "startup-prewarm");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.start();
+    }
+
+    private static void run() {
+        long start = System.nanoTime();
+
+        step("json", StartupPrewarm::warmJson);
+        step("http", StartupPrewarm::warmHttp);
+        step("endpoints", () -> {
+            for (Environment env : Environment.values()) {
+                EndpointRegistry.warmUp(env);
+            }
+        });
+        step("ui", StartupPrewarm::loadUiClasses);
+
+        LOGGER.info("Precalentamiento completo en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static void warmJson() {
+        DeviceRequest device = new DeviceRequest("prewarm", "prewarm", "prewarm");
+        JsonUtil.toJson(new LoginRequest("prewarm", "prewarm", "prewarm", device));
+        JsonUtil.toJson(ElegibilidadRequest.builder().modo("N").creden("0").build());
+        JsonUtil.fromJson("{}", LoginResponse.class);
+        JsonUtil.fromJson("{}", ElegibilidadResponse.class);
+        JsonUtil.fromJson("{}", RegistracionResponse.class);
+        JsonUtil.fromJson("{}", CancelacionResponse.class);
+    }
+
+    private static void warmHttp() throws Exception {
+        try (CloseableHttpClient client = ApiClient.pooledHttpClient(1)) {
+            LOGGER.fine("Cliente HTTP precalentado: " + client.getClass().getSimpleName());
+        }
+    }
+
+    private static void loadUiClasses() throws ClassNotFoundException {
+        ClassLoader loader = StartupPrewarm.class.getClassLoader();
+        for (String name : UI_CLASSES) {
+            Class.forName(name, false, loader);
+        }
+    }
+
+    private static void step(String name, Step step) {
+        try {
+            step.run();
+        } catch (Exception | LinkageError e) {
+            LOGGER.log(Level.FINE, "Precalentamiento '" + name + "' omitido", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
@@ -2,6 +2,7 @@ package com.hl7client.ui.dialogs;
 
 import com.hl7client.model.constants.Hl7Constants;
 import com.hl7client.model.benefit.BenefitItem;
+import com.hl7client.model.benefit.BenefitRequestMapper;
 import com.hl7client.model.benefit.MedicalBenefitItem;
 import com.hl7client.model.dental.DentalBenefit;
 import com.hl7client.model.dental.DentalSurface;
@@ -117,9 +118,9 @@ public class BenefitDialog extends JDialog {
     }
 
     private void onInsert() {
-        if (tipoMensaje == TipoMensaje.ODONTOLOGIA && tableModel.hasDentalBenefit()) {
+        if (isSingleDental() && tableModel.hasDentalBenefit()) {
             JOptionPane.showMessageDialog(this,
-                    "En odontología solo se permite una prestación.\nEdite o elimine la existente primero.",
+                    "En cancelación odontológica solo se permite una prestación.\nEdite o elimine la existente primero.",
                     "Límite alcanzado", JOptionPane.WARNING_MESSAGE);
             return;
         }
@@ -172,7 +173,10 @@ public class BenefitDialog extends JDialog {
     }
 
     private void openMedicalEditor(BenefitItem editing) {
-        int remaining = tableModel.getRemainingChars(editing);
+        // En registración no hay tope global: lo que no entra va en otra registración
+        int remaining = isSplit()
+                ? Hl7Constants.MAX_LENGTH_MEDICINA
+                : tableModel.getRemainingChars(editing);
 
         JDialog editorDialog = getJDialog(editing, remaining);
 
@@ -217,9 +221,11 @@ public class BenefitDialog extends JDialog {
                 if (idx >= 0) {
                     tableModel.replace(idx, dentalResult);
                 }
-            } else {
+            } else if (isSingleDental()) {
                 // Java 8: en lugar de List.of
                 tableModel.setAll(Collections.singletonList(dentalResult));
+            } else {
+                tableModel.add(dentalResult);
             }
             refreshState();
 
@@ -255,7 +261,8 @@ public class BenefitDialog extends JDialog {
         int total = tableModel.getTotalChars();
         int max = getMaxLength();
 
-        if (total > max) {
+        // Registración: lo que no entra en una se reparte en varias (BenefitRequestMapper.partition)
+        if (!isSplit() && total > max) {
             JOptionPane.showMessageDialog(this,
                     "Longitud total (" + total + ") excede el máximo permitido (" + max + ").\n" +
                             "Elimine o edite ítems antes de continuar.",
@@ -274,6 +281,20 @@ public class BenefitDialog extends JDialog {
         dispose();
     }
 
+    /**
+     * Cancelación odontológica: una única prestación (param1 + param2 de un solo request).
+     */
+    private boolean isSingleDental() {
+        return isCancelMode && tipoMensaje == TipoMensaje.ODONTOLOGIA;
+    }
+
+    /**
+     * Registración: las prestaciones se reparten en una o más registraciones.
+     */
+    private boolean isSplit() {
+        return !isCancelMode;
+    }
+
     private int getMaxLength() {
         if (isCancelMode && tipoMensaje != TipoMensaje.ODONTOLOGIA) {
             return MAX_LENGTH_CANCEL_MEDICINA;
@@ -286,13 +307,21 @@ public class BenefitDialog extends JDialog {
     private void refreshState() {
         boolean hasSelection = benefitTable.getSelectedRow() >= 0;
 
-        boolean canInsert = (tipoMensaje != TipoMensaje.ODONTOLOGIA) || !tableModel.hasDentalBenefit();
+        boolean canInsert = !isSingleDental() || !tableModel.hasDentalBenefit();
         insertButton.setEnabled(canInsert);
-        insertButton.setToolTipText(canInsert ? "Agregar nueva prestación" : "Límite alcanzado (solo 1 en odontología)");
+        insertButton.setToolTipText(canInsert ? "Agregar nueva prestación" : "Límite alcanzado (solo 1 en cancelación odontológica)");
 
         updateButton.setEnabled(hasSelection);
         deleteButton.setEnabled(hasSelection);
 
+        if (isSplit()) {
+            int parts = BenefitRequestMapper.partition(tableModel.getAll()).size();
+            if (tipoMensaje == TipoMensaje.ODONTOLOGIA || parts > 1) {
+                refreshSplitState(parts);
+                return;
+            }
+        }
+
         int used = tableModel.getTotalChars();
         int max = getMaxLength();
         int remaining = max - used;
@@ -340,6 +369,23 @@ public class BenefitDialog extends JDialog {
         }
     }
 
+    private void refreshSplitState(int parts) {
+        int count = tableModel.getRowCount();
+        String tipoDesc = (tipoMensaje == TipoMensaje.ODONTOLOGIA) ? "Odontología" : "Medicina";
+        String countText = count + " " + (count == 1 ? "prestación" : "prestaciones");
+        String partsText = parts + " " + (parts == 1 ? "registración" : "registraciones");
+
+        setTitle("Gestión de Prestaciones - " + tipoDesc + " • " + countText + " • " + partsText);
+        getContentPane().setBackground(UIManager.getColor("Panel.background"));
+
+        if (summaryLabel != null) {
+            summaryLabel.setText(tableModel.isEmpty()
+                    ? "No hay prestaciones cargadas aún"
+                    : countText + " • se envían en " + partsText);
+            summaryLabel.setForeground(new Color(60, 60, 60));
+        }
+    }
+
     public boolean isConfirmed() {
         return confirmed;
     }
@@ -7,13 +7,13 @@ import com.hl7client.model.benefit.BenefitItem;
 import com.hl7client.model.benefit.BenefitRequestMapper;
 import com.hl7client.model.dto.request.hl7.CancelacionRequest;
 import com.hl7client.model.dto.request.hl7.Manual;
-import com.hl7client.model.dto.request.hl7.RegistracionRequest;
 import com.hl7client.model.dto.response.hl7.CancelacionCabecera;
 import com.hl7client.model.dto.response.hl7.CancelacionDetalle;
 import com.hl7client.model.dto.response.hl7.CancelacionResponse;
 import com.hl7client.model.result.Hl7Result;
 import com.hl7client.ui.util.AcceptAction;
 import com.hl7client.ui.util.DialogUtils;
+import com.hl7client.ui.util.ReusableDialog;
 import com.hl7client.ui.util.Hl7UiErrorHandler;
 import com.hl7client.ui.util.WindowSizer;
 
@@ -30,7 +30,7 @@ import java.util.Objects;
  * Diálogo para cancelación de prestaciones HL7.
  * Permite gestionar prestaciones a cancelar y genera automáticamente param1/param2.
  */
-public class CancelacionDialog extends JDialog {
+public class CancelacionDialog extends JDialog implements ReusableDialog {
 
     private final Hl7Controller hl7Controller;
 
@@ -189,43 +189,25 @@ public class CancelacionDialog extends JDialog {
     // Build Request
     // =========================================================
     private CancelacionRequest buildRequest() {
-        CancelacionRequest request = new CancelacionRequest();
-
-        request.setModo(textValue(modoTextField));      // "N"
-        request.setTipo(intValue(tipoTextField));       // 90
-
-        request.setCreden(longValue(credenTextField));
-        request.setAlta(toHl7(altaDatePicker.getDate()));
-        request.setManual(manualValue(manualTextField));
-
-        request.setTicketExt(
-                ticketExtTextField.getText().isEmpty()
-                        ? 0
-                        : Integer.parseInt(ticketExtTextField.getText())
-        );
-
-        request.setCancelCab(intValue(cancelCabTextField));
-        request.setTermId(textValue(termIdTextField));
-        request.setInterNro(intValue(interNroTextField));
-        request.setCuit(longValue(cuitTextField));
-        request.setErrorExt(intValue(errorExtTextField));
-
-        // Generación automática de param1 y param2
-        if (benefits.isEmpty()) {
-            request.setParam1("0");           // ← valor explícito cuando no hay prestaciones
-            request.setParam2("");
-        } else {
-            RegistracionRequest temp = new RegistracionRequest();
-            BenefitRequestMapper.apply(temp, benefits);
-
-            String p1 = temp.getParam1();
-            String p2 = temp.getParam2();
-
-            request.setParam1(p1 != null && !p1.isEmpty() ? p1 : "0");
-            request.setParam2(p2 != null ? p2 : "");
-        }
-
-        return request;
+        CancelacionRequest.Builder builder = CancelacionRequest.builder()
+                .modo(textValue(modoTextField))      // "N"
+                .tipo(intValue(tipoTextField))       // 90
+                .creden(longValue(credenTextField))
+                .alta(toHl7(altaDatePicker.getDate()))
+                .manual(manualValue(manualTextField))
+                .ticketExt(
+                        ticketExtTextField.getText().isEmpty()
+                                ? 0
+                                : Integer.parseInt(ticketExtTextField.getText())
+                )
+                .cancelCab(intValue(cancelCabTextField))
+                .termId(textValue(termIdTextField))
+                .interNro(intValue(interNroTextField))
+                .cuit(longValue(cuitTextField))
+                .errorExt(intValue(errorExtTextField));
+
+        // Generación automática de param1 y param2 (rechaza prestaciones que necesiten param3)
+        return BenefitRequestMapper.apply(builder, benefits).build();
     }
 
     // =========================================================
@@ -293,6 +275,17 @@ public class CancelacionDialog extends JDialog {
         DialogUtils.installCloseAction(this, cancelAction);
     }
 
+    // =========================================================
+    // Reutilización
+    // =========================================================
+    @Override
+    public void prepareForReuse() {
+        benefits.clear();
+        DialogUtils.clearInputs(getContentPane());
+        updateBenefitsSummary();
+        SwingUtilities.invokeLater(() -> credenTextField.requestFocusInWindow());
+    }
+
     private void initComponents() {
         // JFormDesigner - Component initialization - DO NOT MODIFY  //GEN-BEGIN:initComponents  @formatter:off
         // Generated using JFormDesigner Evaluation license - margarita85_362@lazer.lat
@@ -37,6 +37,10 @@ public class DentalBenefitEditorDialog extends JDialog {
     private static final String ASTERISKS = "**";
 
     private final Consumer<DentalBenefit> onAcceptCallback;
+
+    // Modelos de tabla por dentición: se crean una vez y se alternan
+    private DefaultTableModel permanentTeethModel;
+    private DefaultTableModel temporaryTeethModel;
     private DentalBenefit initialBenefit;
     private DentalBenefit result;
 
@@ -67,15 +71,11 @@ public class DentalBenefitEditorDialog extends JDialog {
         // Determinar dentición y seleccionar pieza
         DentalPiece piece = benefit.getPiece();
         if (piece != null) {
-            int fdi = Integer.parseInt(piece.getFdiCode());
-            DentalToothData.ToothEntry entry = DentalToothData.findByFdi(fdi);
-            if (entry != null) {
-                boolean isChild = entry.type == DentalPieceType.MOLAR && fdi >= 51 && fdi <= 85;
-                denticionComboBox.setSelectedIndex(isChild ? 1 : 0);
-                // Forzar actualización de tabla antes de seleccionar
-                updateToothTableModel();
-                selectPieceInTable(fdi);
-            }
+            DentalToothData.ToothEntry entry = DentalToothData.of(piece);
+            denticionComboBox.setSelectedIndex(entry.temporary ? 1 : 0);
+            // Forzar actualización de tabla antes de seleccionar
+            updateToothTableModel();
+            selectPieceInTable(entry.fdi);
         }
 
         // Superficies
@@ -99,13 +99,15 @@ public class DentalBenefitEditorDialog extends JDialog {
         }));
         denticionComboBox.setSelectedIndex(0);
         denticionComboBox.addActionListener(e -> {
-            updateToothTableModel();
             clearToothSelection();
+            updateToothTableModel();
             updatePreview();
         });
 
         // Tabla de piezas
-        toothSelectionTable.setModel(createToothTableModel(false));
+        permanentTeethModel = createToothTableModel(false);
+        temporaryTeethModel = createToothTableModel(true);
+        toothSelectionTable.setModel(permanentTeethModel);
         toothSelectionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
         // Renderer para checkbox
@@ -126,21 +128,9 @@ public class DentalBenefitEditorDialog extends JDialog {
 
         toothSelectionTable.setDefaultEditor(Object.class, null);
 
-        // Selección exclusiva de pieza
-        toothSelectionTable.getModel().addTableModelListener(e -> {
-            if (e.getType() == TableModelEvent.UPDATE && e.getColumn() == 2) {
-                int editedRow = e.getFirstRow();
-                Boolean checked = (Boolean) toothSelectionTable.getValueAt(editedRow, 2);
-                if (Boolean.TRUE.equals(checked)) {
-                    for (int row = 0; row < toothSelectionTable.getRowCount(); row++) {
-                        if (row != editedRow) {
-                            toothSelectionTable.setValueAt(false, row, 2);
-                        }
-                    }
-                }
-                updatePreview();
-            }
-        });
+        // Selección exclusiva de pieza (en ambos modelos)
+        permanentTeethModel.addTableModelListener(this::onToothSelectionChanged);
+        temporaryTeethModel.addTableModelListener(this::onToothSelectionChanged);
 
         // Listeners de superficies y código
         ActionListener surfaceListener = e -> updatePreview();
@@ -173,9 +163,30 @@ public class DentalBenefitEditorDialog extends JDialog {
         updatePreview();
     }
 
+    private void onToothSelectionChanged(TableModelEvent e) {
+        if (e.getType() != TableModelEvent.UPDATE || e.getColumn() != 2) {
+            return;
+        }
+        DefaultTableModel model = (DefaultTableModel) e.getSource();
+        int editedRow = e.getFirstRow();
+        if (Boolean.TRUE.equals(model.getValueAt(editedRow, 2))) {
+            for (int row = 0; row < model.getRowCount(); row++) {
+                if (row != editedRow && Boolean.TRUE.equals(model.getValueAt(row, 2))) {
+                    model.setValueAt(false, row, 2);
+                }
+            }
+        }
+        if (model == toothSelectionTable.getModel()) {
+            updatePreview();
+        }
+    }
+
     private void updateToothTableModel() {
         boolean isChild = denticionComboBox.getSelectedIndex() == 1;
-        toothSelectionTable.setModel(createToothTableModel(isChild));
+        DefaultTableModel model = isChild ? temporaryTeethModel : permanentTeethModel;
+        if (toothSelectionTable.getModel() != model) {
+            toothSelectionTable.setModel(model);
+        }
     }
 
     private DefaultTableModel createToothTableModel(boolean child) {
@@ -203,7 +214,9 @@ public class DentalBenefitEditorDialog extends JDialog {
 
     private void clearToothSelection() {
         for (int row = 0; row < toothSelectionTable.getRowCount(); row++) {
-            toothSelectionTable.setValueAt(false, row, 2);
+            if (Boolean.TRUE.equals(toothSelectionTable.getValueAt(row, 2))) {
+                toothSelectionTable.setValueAt(false, row, 2);
+            }
         }
     }
 
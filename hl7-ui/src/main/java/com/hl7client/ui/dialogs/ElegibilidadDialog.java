@@ -9,6 +9,7 @@ import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
 import com.hl7client.model.result.Hl7Result;
 import com.hl7client.ui.util.AcceptAction;
 import com.hl7client.ui.util.DialogUtils;
+import com.hl7client.ui.util.ReusableDialog;
 import com.hl7client.ui.util.Hl7UiErrorHandler;
 import com.hl7client.ui.util.WindowSizer;
 
@@ -19,7 +20,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
-public class ElegibilidadDialog extends JDialog {
+public class ElegibilidadDialog extends JDialog implements ReusableDialog {
 
     private final Hl7Controller hl7Controller;
 
@@ -158,27 +159,25 @@ public class ElegibilidadDialog extends JDialog {
     // Build Request
     // =========================================================
     private ElegibilidadRequest buildRequest() {
-        ElegibilidadRequest request = new ElegibilidadRequest();
-
-        // Valores FIJOS (leídos de campos deshabilitados)
-        request.setModo(textValue(modoTextField));  // "N"
-        request.setCreden(textValue(credenTextField));
-        request.setAlta(toHl7(altaDatePicker.getDate()));
-        request.setFecdif(toHl7(fecdifDatePicker.getDate()));
-        request.setManual(manualValue(manualTextField));
-        request.setTicketExt(intValue(ticketExtTextField));
-        request.setTermId(textValue(termIdTextField));
-        request.setInterNro(intValue(interNroTextField));
-        request.setCuit(textValue(cuitTextField));
-        request.setOriMatri(textValue(oriMatriTextField));
-        request.setAutoriz(
-                autorizTextField.getText().isEmpty()
-                        ? Integer.valueOf(0)
-                        : intValue(autorizTextField)
-        );
-        request.setRechaExt(intValue(rechaExtTextField));
-
-        return request;
+        return ElegibilidadRequest.builder()
+                // Valores FIJOS (leídos de campos deshabilitados)
+                .modo(textValue(modoTextField))  // "N"
+                .creden(textValue(credenTextField))
+                .alta(toHl7(altaDatePicker.getDate()))
+                .fecdif(toHl7(fecdifDatePicker.getDate()))
+                .manual(manualValue(manualTextField))
+                .ticketExt(intValue(ticketExtTextField))
+                .termId(textValue(termIdTextField))
+                .interNro(intValue(interNroTextField))
+                .cuit(textValue(cuitTextField))
+                .oriMatri(textValue(oriMatriTextField))
+                .autoriz(
+                        autorizTextField.getText().isEmpty()
+                                ? Integer.valueOf(0)
+                                : intValue(autorizTextField)
+                )
+                .rechaExt(intValue(rechaExtTextField))
+                .build();
     }
 
     // =========================================================
@@ -240,6 +239,15 @@ public class ElegibilidadDialog extends JDialog {
         DialogUtils.installCloseAction(this, cancelAction);
     }
 
+    // =========================================================
+    // Reutilización
+    // =========================================================
+    @Override
+    public void prepareForReuse() {
+        DialogUtils.clearInputs(getContentPane());
+        SwingUtilities.invokeLater(() -> credenTextField.requestFocusInWindow());
+    }
+
     private void initComponents() {
         // JFormDesigner - Component initialization - DO NOT MODIFY  //GEN-BEGIN:initComponents  @formatter:off
         // Generated using JFormDesigner Evaluation license - margarita85_362@lazer.lat
@@ -2,6 +2,9 @@ package com.hl7client.ui.dialogs;
 
 import com.hl7client.model.benefit.BenefitItem;
 import com.hl7client.model.benefit.MedicalBenefitItem;
+import com.hl7client.model.catalog.BenefitCatalog;
+import com.hl7client.model.catalog.BenefitCatalogEntry;
+import com.hl7client.ui.util.BenefitCodeAutocomplete;
 import com.hl7client.ui.util.DialogUtils;
 import com.hl7client.ui.util.WindowSizer;
 
@@ -16,6 +19,8 @@ import java.util.function.Consumer;
 /**
  * Editor para agregar o modificar una prestación médica individual.
  * Controla cantidad (1-99), código (6 dígitos), y longitud restante del campo HL7.
+ * Si hay catálogo local cargado, además exige que el código exista, sea médico
+ * y respete la cantidad máxima, y ofrece autocompletado.
  */
 public class MedicalBenefitEditorDialog extends JDialog {
 
@@ -28,6 +33,7 @@ public class MedicalBenefitEditorDialog extends JDialog {
     private final int initialRemainingChars;
     private int currentRemainingChars;
     private final Consumer<BenefitItem> onItemAdded;
+    private final BenefitCatalog catalog = BenefitCatalog.shared();
 
     private boolean isEditionMode = false;
     private int editingItemLength = 0; // Longitud del ítem que estamos editando (para restar al validar)
@@ -63,6 +69,7 @@ public class MedicalBenefitEditorDialog extends JDialog {
         benefitTextField.getDocument().addDocumentListener(updateListener);
 
         acceptButton.addActionListener(e -> tryAddOrUpdateItem());
+        BenefitCodeAutocomplete.install(benefitTextField, catalog, entry -> !entry.isDental());
         acceptButton.setEnabled(false);
 
         updateTitle();
@@ -97,6 +104,14 @@ public class MedicalBenefitEditorDialog extends JDialog {
             return;
         }
 
+        String catalogError = catalogError(code, qty);
+        if (catalogError != null) {
+            JOptionPane.showMessageDialog(this,
+                    "<html><b>Código no admitido</b><br>" + catalogError + "</html>",
+                    "Error de validación", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
         MedicalBenefitItem item = MedicalBenefitItem.of(qty, code);
         int itemLength = item.getValue().length();
 
@@ -157,7 +172,13 @@ public class MedicalBenefitEditorDialog extends JDialog {
             msg.append("<b>Ingrese código de prestación</b> (exactamente 6 dígitos)");
         } else if (!code.matches(CODE_REGEX)) {
             msg.append("<b>Código inválido</b> – debe ser 6 dígitos numéricos");
+        } else if (catalogError(code, qty) != null) {
+            msg.append("<b>").append(catalogError(code, qty)).append("</b>");
         } else {
+            BenefitCatalogEntry entry = catalog.find(code);
+            if (entry != null) {
+                msg.append(escapeHtml(entry.getDescription())).append("<br>");
+            }
             msg.append("Este ítem usaría: <b>").append(itemLen).append("</b> caracteres");
             msg.append("<br>Formato HL7: <code>").append(qty).append("^*").append(code)
                     .append("*").append(qty).append("**</code>");
@@ -165,7 +186,7 @@ public class MedicalBenefitEditorDialog extends JDialog {
 
         charsPreviewLabel.setText("<html>" + msg + "</html>");
 
-        if (itemLen > currentRemainingChars) {
+        if (itemLen > currentRemainingChars || (code.matches(CODE_REGEX) && catalogError(code, qty) != null)) {
             charsPreviewLabel.setForeground(Color.RED);
         } else if (itemLen > currentRemainingChars * 0.75) {
             charsPreviewLabel.setForeground(new Color(200, 100, 0)); // naranja
@@ -181,7 +202,8 @@ public class MedicalBenefitEditorDialog extends JDialog {
         benefitSpinner.getValue();
 
         boolean codeValid;
-        codeValid = code.matches(CODE_REGEX);
+        codeValid = code.matches(CODE_REGEX)
+                && catalogError(code, (Integer) benefitSpinner.getValue()) == null;
         int itemLen = calculateItemLength();
 
         // En edición: considerar el espacio que libera el ítem actual
@@ -199,6 +221,32 @@ public class MedicalBenefitEditorDialog extends JDialog {
         return (qty + "^*" + code + "*" + qty + "**").length();
     }
 
+    /**
+     * Validación contra el catálogo local. Sin catálogo cargado no restringe nada.
+     *
+     * @return mensaje de error, o null si el código es admitido
+     */
+    private String catalogError(String code, int qty) {
+        if (catalog.isEmpty()) {
+            return null;
+        }
+        BenefitCatalogEntry entry = catalog.find(code);
+        if (entry == null) {
+            return "El código " + code + " no existe en el catálogo de prestaciones";
+        }
+        if (entry.isDental()) {
+            return "El código " + code + " corresponde a una prestación odontológica";
+        }
+        if (qty > entry.getMaxQuantity()) {
+            return "Cantidad máxima para " + code + ": " + entry.getMaxQuantity();
+        }
+        return null;
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     private class UpdateListener implements ChangeListener, DocumentListener {
         @Override public void stateChanged(ChangeEvent e) { validateForm(); }
         @Override public void insertUpdate(DocumentEvent e) { validateForm(); }
@@ -2,18 +2,23 @@ package com.hl7client.ui.dialogs;
 
 import com.github.lgooddatepicker.components.DatePicker;
 import com.github.lgooddatepicker.components.DatePickerSettings;
+import com.hl7client.client.TransactionExecutors;
 import com.hl7client.controller.Hl7Controller;
 import com.hl7client.model.constants.Hl7Constants;
 import com.hl7client.model.benefit.BenefitItem;
 import com.hl7client.model.benefit.BenefitRequestMapper;
 import com.hl7client.model.dto.request.hl7.Manual;
 import com.hl7client.model.dto.request.hl7.RegistracionRequest;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
 import com.hl7client.model.dto.response.hl7.RegistracionCabecera;
 import com.hl7client.model.dto.response.hl7.RegistracionResponse;
 import com.hl7client.model.enums.TipoMensaje;
+import com.hl7client.model.result.Hl7Error;
 import com.hl7client.model.result.Hl7Result;
 import com.hl7client.ui.util.AcceptAction;
 import com.hl7client.ui.util.DialogUtils;
+import com.hl7client.ui.util.ElegibilidadPrefetch;
+import com.hl7client.ui.util.ReusableDialog;
 import com.hl7client.ui.util.Hl7UiErrorHandler;
 import com.hl7client.ui.util.WindowSizer;
 
@@ -23,14 +28,20 @@ import java.awt.event.KeyEvent;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Diálogo principal para registrar una consulta o prestación HL7.
  * Incluye campos de identificación, fechas, prestaciones y envío al controlador.
  */
-public class RegistracionDialog extends JDialog {
+public class RegistracionDialog extends JDialog implements ReusableDialog {
+
+    private static final Logger LOGGER = Logger.getLogger(RegistracionDialog.class.getName());
 
     private static final double MINIMUM_SCREEN_RATIO = 0.40;
     private static final double SCREEN_RATIO = 0.75;
@@ -43,10 +54,18 @@ public class RegistracionDialog extends JDialog {
     private TipoMensaje tipoMensaje;
     private final List<BenefitItem> benefits = new ArrayList<>();
 
+    // Partición calculada fuera del EDT; buildRequests la reutiliza si las prestaciones no cambiaron
+    private volatile BenefitPartition partition = BenefitPartition.EMPTY;
+    private int partitionGeneration;   // solo EDT: descarta cálculos de listas ya reemplazadas
+
     // DatePickers
     private DatePicker altaDatePicker;
     private DatePicker fecdifDatePicker;
 
+    // Afiliado y plan de la elegibilidad anticipada
+    private final JLabel afiliadoLabel = new JLabel();
+    private ElegibilidadPrefetch elegibilidadPrefetch;
+
     public RegistracionDialog(Window owner, Hl7Controller hl7Controller, String titulo) {
         super(owner, ModalityType.APPLICATION_MODAL);
         this.hl7Controller = Objects.requireNonNull(hl7Controller);
@@ -65,6 +84,7 @@ public class RegistracionDialog extends JDialog {
         initShortcuts();
         installCloseBehavior();
         initBenefitsAction();
+        initElegibilidadPrefetch();
 
         // Valores FIJOS obligatorios
         modoTextField.setText("N");
@@ -143,6 +163,57 @@ public class RegistracionDialog extends JDialog {
         });
     }
 
+    /**
+     * Con la credencial cargada se consulta la elegibilidad mientras el usuario completa
+     * fechas y prestaciones: afiliado y plan quedan a la vista antes de aceptar.
+     */
+    private void initElegibilidadPrefetch() {
+        // Entre Accept y Cancel (columnas libres de la última fila)
+        getContentPane().add(afiliadoLabel, new GridBagConstraints(1, 14, 2, 1, 0.0, 0.0,
+                GridBagConstraints.SOUTH, GridBagConstraints.HORIZONTAL,
+                new Insets(0, 0, 0, 5), 0, 0));
+        afiliadoLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        elegibilidadPrefetch = ElegibilidadPrefetch.install(credenTextField, hl7Controller, this::mostrarAfiliado);
+    }
+
+    private void mostrarAfiliado(Hl7Result<ElegibilidadResponse> result) {
+        if (result == null) {
+            afiliadoLabel.setText(null);
+            afiliadoLabel.setToolTipText(null);
+            return;
+        }
+
+        if (result.isOk() || result.isPartial()) {
+            ElegibilidadResponse r = result.getData().orElse(null);
+            if (r == null) {
+                afiliadoLabel.setText(null);
+                return;
+            }
+            afiliadoLabel.setText("<html>" + escape(trim(r.getApeNom())) + " &middot; Plan <b>"
+                    + escape(trim(r.getPlanCodi())) + "</b></html>");
+            afiliadoLabel.setForeground(new Color(0, 100, 200)); // azul
+            afiliadoLabel.setToolTipText("Elegibilidad consultada al cargar la credencial");
+        } else if (result.isRejected()) {
+            String motivo = result.getIssue().map(Hl7Error::getMessage).orElse("");
+            afiliadoLabel.setText("<html>Credencial rechazada: " + escape(trim(motivo)) + "</html>");
+            afiliadoLabel.setForeground(new Color(200, 80, 0)); // naranja oscuro
+            afiliadoLabel.setToolTipText("La registración probablemente también sea rechazada");
+        } else {
+            // Error técnico o sesión: no se adelanta nada, el envío informa el error
+            afiliadoLabel.setText(null);
+            afiliadoLabel.setToolTipText(null);
+        }
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : "";
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     private BenefitDialog getBenefitDialog(TipoMensaje effectiveTipo) {
         BenefitDialog dialog = new BenefitDialog(this, effectiveTipo, new ArrayList<>(benefits));
 
@@ -158,6 +229,8 @@ public class RegistracionDialog extends JDialog {
 
     private void updateBenefitsSummary() {
         if (benefits.isEmpty()) {
+            partitionGeneration++;
+            partition = BenefitPartition.EMPTY;
             benefitsSummaryLabel.setText("<html><i>Ninguna prestación cargada</i></html>");
             benefitsSummaryLabel.setForeground(Color.GRAY);
             benefitsSummaryLabel.setToolTipText("Haga clic en 'View / Edit Benefits' para agregar o editar prestaciones");
@@ -166,71 +239,105 @@ public class RegistracionDialog extends JDialog {
             return;
         }
 
-        boolean isDental = benefits.get(0) instanceof com.hl7client.model.dental.DentalBenefit;
-        int maxChars = isDental ? Hl7Constants.MAX_LENGTH_ODONTOLOGIA : Hl7Constants.MAX_LENGTH_MEDICINA;
-        int usedChars = benefits.stream().mapToInt(BenefitItem::length).sum();
+        List<BenefitItem> snapshot = new ArrayList<>(benefits);
+        BenefitPartition current = partition;
+        if (current.isFor(snapshot)) {
+            showBenefitsSummary(current);
+            return;
+        }
+
+        // El reparto en registraciones no se calcula en el EDT: se muestra al terminar
+        int generation = ++partitionGeneration;
+        benefitsSummaryLabel.setText("<html><i>Calculando registraciones...</i></html>");
+        benefitsSummaryLabel.setForeground(Color.GRAY);
+        benefitsSummaryLabel.setToolTipText(null);
+
+        TransactionExecutors.shared().execute(() -> {
+            BenefitPartition computed;
+            try {
+                computed = BenefitPartition.of(snapshot);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "No se pudo repartir las prestaciones en registraciones", e);
+                SwingUtilities.invokeLater(() -> {
+                    if (generation == partitionGeneration) {
+                        benefitsSummaryLabel.setText("<html>Prestaciones inválidas: " + escape(trim(e.getMessage())) + "</html>");
+                        benefitsSummaryLabel.setForeground(new Color(200, 80, 0)); // naranja oscuro
+                    }
+                });
+                return;
+            }
+
+            SwingUtilities.invokeLater(() -> {
+                if (generation == partitionGeneration) {
+                    partition = computed;
+                    showBenefitsSummary(computed);
+                }
+            });
+        });
+    }
+
+    private void showBenefitsSummary(BenefitPartition current) {
+        List<BenefitItem> items = current.benefits;
+        boolean isDental = items.get(0) instanceof com.hl7client.model.dental.DentalBenefit;
+        int count = items.size();
+
+        int parts = current.groups.size();
+
+        if (isDental || parts > 1) {
+            updateSplitSummary(count, parts, isDental ? "odontológica" : "médica");
+            return;
+        }
+
+        int maxChars = Hl7Constants.MAX_LENGTH_MEDICINA;
+        int usedChars = items.stream().mapToInt(BenefitItem::length).sum();
         int remaining = maxChars - usedChars;
-        int count = benefits.size();
 
         double porcentaje = usedChars * 100.0 / maxChars;
 
-        String tipoText = isDental ? "odontológica" : "médica";
-        String restriccion = isDental ? " (máximo 1 permitida)" : "";
-
         String text = String.format(
-                "<html>%d prestación%s %s<br>usadas <b>%d / %d</b> caracteres (%.1f%%)<br>restan <b>%d</b>%s</html>",
-                count, (count == 1 ? "" : "es"), tipoText, usedChars, maxChars, porcentaje, remaining, restriccion
+                "<html>%d prestación%s médica%s<br>usadas <b>%d / %d</b> caracteres (%.1f%%)<br>restan <b>%d</b></html>",
+                count, (count == 1 ? "" : "es"), (count == 1 ? "" : "s"), usedChars, maxChars, porcentaje, remaining
         );
 
         benefitsSummaryLabel.setText(text);
 
         // Colores y tooltips consistentes con BenefitDialog
-        if (usedChars > maxChars) {
-            benefitsSummaryLabel.setForeground(Color.RED);
-            benefitsSummaryLabel.setToolTipText("<html><b>¡Excede el límite máximo permitido!</b><br>" +
-                    "Corrija antes de aceptar la registración.</html>");
-            acceptButton.setToolTipText("No se puede aceptar: excede el límite de caracteres en prestaciones");
-        } else if (porcentaje > 90 || remaining < 50) {
+        if (porcentaje > 90 || remaining < 50) {
             benefitsSummaryLabel.setForeground(new Color(200, 80, 0)); // naranja oscuro
-            benefitsSummaryLabel.setToolTipText("<html><b>Muy cerca del límite máximo</b><br>" +
-                    "Restan solo " + remaining + " caracteres<br>Revise antes de continuar.</html>");
-            acceptButton.setToolTipText(null);
+            benefitsSummaryLabel.setToolTipText("<html><b>Muy cerca del límite de una registración</b><br>" +
+                    "Restan solo " + remaining + " caracteres; lo que exceda se enviará en otra registración.</html>");
         } else if (porcentaje > 70 || remaining < 150) {
             benefitsSummaryLabel.setForeground(new Color(180, 140, 0)); // ámbar
             benefitsSummaryLabel.setToolTipText("<html>Acercándose al límite<br>Restan " + remaining + " caracteres</html>");
-            acceptButton.setToolTipText(null);
-        } else if (isDental) {
-            benefitsSummaryLabel.setForeground(new Color(0, 140, 0)); // verde oscuro
-            benefitsSummaryLabel.setToolTipText("<html>Prestación odontológica válida<br>(solo 1 permitida)</html>");
-            acceptButton.setToolTipText(null);
         } else {
             benefitsSummaryLabel.setForeground(new Color(0, 100, 200)); // azul
             benefitsSummaryLabel.setToolTipText("<html>Prestaciones médicas cargadas correctamente<br>" +
                     "Restan " + remaining + " caracteres</html>");
-            acceptButton.setToolTipText(null);
         }
 
         updateAcceptButtonState();
     }
 
-    private void updateAcceptButtonState() {
-        if (benefits.isEmpty()) {
-            acceptButton.setEnabled(true);
-            acceptButton.setToolTipText(null);
-            return;
-        }
-
-        boolean isDental = benefits.get(0) instanceof com.hl7client.model.dental.DentalBenefit;
-        int maxChars = isDental ? Hl7Constants.MAX_LENGTH_ODONTOLOGIA : Hl7Constants.MAX_LENGTH_MEDICINA;
-        int usedChars = benefits.stream().mapToInt(BenefitItem::length).sum();
+    private void updateSplitSummary(int count, int parts, String tipoText) {
+        benefitsSummaryLabel.setText(String.format(
+                "<html>%d prestación%s %s%s<br>se envían en <b>%d</b> registración%s</html>",
+                count, (count == 1 ? "" : "es"), tipoText, (count == 1 ? "" : "s"), parts, (parts == 1 ? "" : "es")
+        ));
+        benefitsSummaryLabel.setForeground(parts > 1
+                ? new Color(180, 140, 0)   // ámbar: varias registraciones
+                : new Color(0, 140, 0));   // verde oscuro
+        benefitsSummaryLabel.setToolTipText(parts > 1
+                ? "<html>Las prestaciones no entran en una sola registración<br>" +
+                "Se enviarán " + parts + " registraciones juntas</html>"
+                : "<html>Prestaciones " + tipoText + "s válidas</html>");
 
-        acceptButton.setEnabled(usedChars <= maxChars);
+        updateAcceptButtonState();
+    }
 
-        if (usedChars > maxChars) {
-            acceptButton.setToolTipText("No se puede aceptar: excede el límite de caracteres en prestaciones");
-        } else {
-            acceptButton.setToolTipText(null);
-        }
+    private void updateAcceptButtonState() {
+        // Sin límite de caracteres: lo que no entra en una registración se reparte en varias
+        acceptButton.setEnabled(true);
+        acceptButton.setToolTipText(null);
     }
 
     private void initActions() {
@@ -250,7 +357,7 @@ public class RegistracionDialog extends JDialog {
         cancelButton.setMnemonic(KeyEvent.VK_C);   // ALT + C
     }
 
-    private Hl7Result<RegistracionResponse> doRegistracion() {
+    private Hl7Result<List<RegistracionResponse>> doRegistracion() {
         if (tipoMensaje == null) {
             JOptionPane.showMessageDialog(this,
                     "Debe seleccionar un tipo de mensaje (Odontología o Medicina).",
@@ -258,10 +365,10 @@ public class RegistracionDialog extends JDialog {
             return null;
         }
 
-        return hl7Controller.consultarRegistracion(buildRequest());
+        return hl7Controller.consultarRegistraciones(buildRequests());
     }
 
-    private void onRegistracionResult(Hl7Result<RegistracionResponse> result) {
+    private void onRegistracionResult(Hl7Result<List<RegistracionResponse>> result) {
         if (result == null) {
             JOptionPane.showMessageDialog(this,
                     "Error técnico inesperado", getTitle(), JOptionPane.ERROR_MESSAGE);
@@ -269,69 +376,97 @@ public class RegistracionDialog extends JDialog {
         }
 
         String transac = result.getData()
-                .map(RegistracionResponse::getCabecera)
-                .map(RegistracionCabecera::getTransac)
-                .map(String::valueOf)
+                .map(responses -> responses.stream()
+                        .map(RegistracionResponse::getCabecera)
+                        .filter(Objects::nonNull)
+                        .map(RegistracionCabecera::getTransac)
+                        .filter(Objects::nonNull)
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(", ")))
+                .filter(s -> !s.isEmpty())
                 .orElse(null);
 
         Hl7UiErrorHandler.mostrarResultado(this, result, getTitle(), transac);
 
         if (result.isOk() || result.isPartial()) {
-            result.getData().ifPresent(this::mostrarResultado);
+            result.getData()
+                    .filter(responses -> !responses.isEmpty())
+                    .ifPresent(responses -> mostrarResultado(responses.get(0), responses.size()));
             dispose();
         }
     }
 
-    private RegistracionRequest buildRequest() {
-        RegistracionRequest request = new RegistracionRequest();
-
-        request.setModo(textValue(modoTextField));
-        request.setTipo(intValue(tipoTextField));
-        request.setCreden(textValue(credenTextField));
-        request.setAlta(toHl7(altaDatePicker.getDate()));
-        request.setFecdif(toHl7(fecdifDatePicker.getDate()));
-        request.setManual(manualValue(manualTextField));
-        request.setTicketExt(intValue(ticketExtTextField));
-        request.setTermId(textValue(termIdTextField));
-        request.setInterNro(intValue(interNroTextField));
-        request.setCuit(textValue(cuitTextField));
-        request.setOriMatri(textValue(oriMatriTextField));
-        request.setAutoriz(
-                autorizTextField.getText().isEmpty()
-                        ? Integer.valueOf(0)
-                        : intValue(autorizTextField)
-        );
-        request.setIcd(textValue(icdTextField));
-        request.setRechaExt(intValue(rechaExtTextField));
-        request.setTipoEfector(textValue(tipoEfectorTextField));
-        request.setIdEfector(textValue(idEfectorTextField));
-        request.setTipoPrescr(textValue(tipoPrescrTextField));
-        request.setIdPrescr(textValue(idPrescrTextField));
-        request.setMsgId(textValue(msgIdTextField));
-        request.setAckacept(textValue(ackaceptTextField));
-        request.setAckackapl(textValue(ackackaplTextField));
-        request.setConsulta(manualValue(consultaTextField));
-
-        TipoMensaje actualTipoMensaje = tipoMensaje != null ? tipoMensaje : TipoMensaje.MEDICINA;
-        request.setTipoMensaje(actualTipoMensaje.getCodigoHl7());
-
-        BenefitRequestMapper.apply(request, benefits);
+    /**
+     * Un request por grupo de {@link BenefitRequestMapper#partition}; sin prestaciones, un único request.
+     * Reutiliza la partición del resumen si sigue vigente (se llama fuera del EDT).
+     */
+    private List<RegistracionRequest> buildRequests() {
+        List<BenefitItem> snapshot = new ArrayList<>(benefits);
+        BenefitPartition current = partition;
+        List<List<BenefitItem>> parts = current.isFor(snapshot)
+                ? current.groups
+                : BenefitRequestMapper.partition(snapshot);
+        if (parts.isEmpty()) {
+            return Collections.singletonList(buildRequest(Collections.emptyList()));
+        }
 
-        if (!powerBuilderTextField.getText().isEmpty()) {
-            request.setPowerBuilder(powerBuilderTextField.getText().trim().equals("1"));
+        List<RegistracionRequest> requests = new ArrayList<>(parts.size());
+        for (List<BenefitItem> part : parts) {
+            requests.add(buildRequest(part));
         }
+        return requests;
+    }
 
-        return request;
+    private RegistracionRequest buildRequest(List<BenefitItem> part) {
+        TipoMensaje actualTipoMensaje = tipoMensaje != null ? tipoMensaje : TipoMensaje.MEDICINA;
+
+        RegistracionRequest.Builder builder = RegistracionRequest.builder()
+                .modo(textValue(modoTextField))
+                .tipo(intValue(tipoTextField))
+                .creden(textValue(credenTextField))
+                .alta(toHl7(altaDatePicker.getDate()))
+                .fecdif(toHl7(fecdifDatePicker.getDate()))
+                .manual(manualValue(manualTextField))
+                .ticketExt(intValue(ticketExtTextField))
+                .termId(textValue(termIdTextField))
+                .interNro(intValue(interNroTextField))
+                .cuit(textValue(cuitTextField))
+                .oriMatri(textValue(oriMatriTextField))
+                .autoriz(
+                        autorizTextField.getText().isEmpty()
+                                ? Integer.valueOf(0)
+                                : intValue(autorizTextField)
+                )
+                .icd(textValue(icdTextField))
+                .rechaExt(intValue(rechaExtTextField))
+                .tipoEfector(textValue(tipoEfectorTextField))
+                .idEfector(textValue(idEfectorTextField))
+                .tipoPrescr(textValue(tipoPrescrTextField))
+                .idPrescr(textValue(idPrescrTextField))
+                .msgId(textValue(msgIdTextField))
+                .ackacept(textValue(ackaceptTextField))
+                .ackackapl(textValue(ackackaplTextField))
+                .consulta(manualValue(consultaTextField))
+                .tipoMensaje(actualTipoMensaje.getCodigoHl7())
+                .powerBuilder(
+                        powerBuilderTextField.getText().isEmpty()
+                                ? null
+                                : powerBuilderTextField.getText().trim().equals("1")
+                );
+
+        // Los params pasan por el builder: build() valida longitud (255) y caracteres
+        return BenefitRequestMapper.apply(builder, part).build();
     }
 
-    private void mostrarResultado(RegistracionResponse response) {
+    private void mostrarResultado(RegistracionResponse response, int registraciones) {
         RegistracionCabecera cab = response.getCabecera();
         String mensaje =
                 "Afiliado: " + cab.getApeNom().trim() + "\n" +
                         "Plan: " + cab.getPlanCodi().trim() + "\n" +
                         "Edad: " + cab.getEdad() + "\n" +
                         "Sexo: " + cab.getSexo() + "\n" +
-                        "PMI: " + (cab.getPmi() != null ? cab.getPmi() : "-");
+                        "PMI: " + (cab.getPmi() != null ? cab.getPmi() : "-") +
+                        (registraciones > 1 ? "\nRegistraciones enviadas: " + registraciones : "");
         JOptionPane.showMessageDialog(this, mensaje, getTitle(), JOptionPane.INFORMATION_MESSAGE);
     }
 
@@ -372,6 +507,42 @@ public class RegistracionDialog extends JDialog {
         DialogUtils.installCloseAction(this, cancelAction);
     }
 
+    /**
+     * Prestaciones y su reparto en registraciones, calculado una vez.
+     */
+    private static final class BenefitPartition {
+
+        static final BenefitPartition EMPTY =
+                new BenefitPartition(Collections.emptyList(), Collections.emptyList());
+
+        final List<BenefitItem> benefits;
+        final List<List<BenefitItem>> groups;
+
+        private BenefitPartition(List<BenefitItem> benefits, List<List<BenefitItem>> groups) {
+            this.benefits = benefits;
+            this.groups = groups;
+        }
+
+        static BenefitPartition of(List<BenefitItem> benefits) {
+            return new BenefitPartition(benefits, BenefitRequestMapper.partition(benefits));
+        }
+
+        boolean isFor(List<BenefitItem> current) {
+            return benefits.equals(current);
+        }
+    }
+
+    @Override
+    public void prepareForReuse() {
+        benefits.clear();
+        tipoMensaje = null;
+        DialogUtils.clearInputs(getContentPane());
+        elegibilidadPrefetch.reset();
+        mostrarAfiliado(null);
+        updateBenefitsSummary();
+        SwingUtilities.invokeLater(() -> credenTextField.requestFocusInWindow());
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     private void initComponents() {
         // JFormDesigner - Component initialization - DO NOT MODIFY  //GEN-BEGIN:initComponents  @formatter:off
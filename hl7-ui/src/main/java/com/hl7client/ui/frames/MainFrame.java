@@ -7,9 +7,11 @@ import com.hl7client.ui.dialogs.CancelacionDialog;
 import com.hl7client.ui.dialogs.ElegibilidadDialog;
 import com.hl7client.ui.dialogs.RegistracionDialog;
 import com.hl7client.ui.util.CloseAction;
+import com.hl7client.ui.util.LazyDialog;
 import com.hl7client.ui.util.WindowCloseController;
 import com.hl7client.ui.util.WindowSizer;
 import com.hl7client.util.AppInfo;
+import com.hl7client.util.PropertiesUtil;
 
 import javax.swing.*;
 import java.awt.*;
@@ -21,6 +23,10 @@ public class MainFrame extends JFrame {
 
     private final Hl7Controller hl7Controller;
 
+    private LazyDialog<ElegibilidadDialog> elegibilidadDialog;
+    private LazyDialog<RegistracionDialog> registracionDialog;
+    private LazyDialog<CancelacionDialog> cancelacionDialog;
+
     private static final double MINIMUM_SCREEN_RATIO = 0.40;
     private static final double SCREEN_RATIO = 0.90;
     private static final String IMAGE_PATH_ICON = "/icons/icon.png";
@@ -83,30 +89,30 @@ public class MainFrame extends JFrame {
     // -------------------------------------------------
 
     private void initActions() {
+        // Modo de arranque rápido: cada diálogo se construye una vez y se reutiliza
+        boolean reuse = PropertiesUtil.getBoolean("startup.performance.mode", false);
 
-        eligibilityButton.addActionListener(e ->
-                openDialog(new ElegibilidadDialog(
-                        this,
-                        hl7Controller,
-                        eligibilityButton.getText()
-                ))
-        );
+        elegibilidadDialog = new LazyDialog<>(() -> new ElegibilidadDialog(
+                this,
+                hl7Controller,
+                eligibilityButton.getText()
+        ), reuse);
 
-        registrationButton.addActionListener(e ->
-                openDialog(new RegistracionDialog(
-                        this,
-                        hl7Controller,
-                        registrationButton.getText()
-                ))
-        );
+        registracionDialog = new LazyDialog<>(() -> new RegistracionDialog(
+                this,
+                hl7Controller,
+                registrationButton.getText()
+        ), reuse);
 
-        cancellationButton.addActionListener(e ->
-                openDialog(new CancelacionDialog(
-                        this,
-                        hl7Controller,
-                        cancellationButton.getText()
-                ))
-        );
+        cancelacionDialog = new LazyDialog<>(() -> new CancelacionDialog(
+                this,
+                hl7Controller,
+                cancellationButton.getText()
+        ), reuse);
+
+        eligibilityButton.addActionListener(e -> openDialog(elegibilidadDialog.get()));
+        registrationButton.addActionListener(e -> openDialog(registracionDialog.get()));
+        cancellationButton.addActionListener(e -> openDialog(cancelacionDialog.get()));
     }
 
     private void initShortcuts() {
@@ -156,6 +162,16 @@ public class MainFrame extends JFrame {
     // Helpers
     // -------------------------------------------------
 
+    @Override
+    public void dispose() {
+        if (elegibilidadDialog != null) {
+            elegibilidadDialog.dispose();
+            registracionDialog.dispose();
+            cancelacionDialog.dispose();
+        }
+        super.dispose();
+    }
+
     private void openDialog(JDialog dialog) {
         dialog.setLocationRelativeTo(this);
         dialog.setVisible(true);
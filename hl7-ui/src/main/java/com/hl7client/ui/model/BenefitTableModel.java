@@ -272,21 +272,16 @@ public class BenefitTableModel extends AbstractTableModel {
     private void validateInsert(BenefitItem item) {
         boolean isDentalItem = item instanceof DentalBenefit;
 
+        // Varias odontológicas están permitidas: el envío las reparte en registraciones
+        // (BenefitRequestMapper.partition); el límite de 1 en cancelación lo aplica BenefitDialog
         if (isDentalItem) {
             if (!data.isEmpty() && !isDental()) {
                 throw new IllegalStateException("No se pueden mezclar prestaciones odontológicas y médicas");
             }
-            if (hasDentalBenefit()) {
-                throw new IllegalStateException("Solo se permite una prestación odontológica");
-            }
         } else {
             if (hasDentalBenefit()) {
                 throw new IllegalStateException("No se pueden agregar prestaciones médicas si ya existe una odontológica");
             }
         }
-
-        if (isDentalItem && data.stream().anyMatch(b -> b.getOrden() == item.getOrden())) {
-            throw new IllegalArgumentException("Ya existe un beneficio odontológico con orden " + item.getOrden());
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.hl7client.ui.util;
+
+import com.hl7client.client.RequestPriority;
+import com.hl7client.client.TransactionExecutors;
+import com.hl7client.controller.SplashController;
+import com.hl7client.model.result.Hl7Error;
+import com.hl7client.model.result.Hl7ErrorOrigin;
+import com.hl7client.model.result.Hl7Result;
+
+import javax.swing.*;
+import java.awt.*;
+import java.net.URL;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AcceptAction<T> extends AbstractAction {
+
+    private static final Logger LOGGER = Logger.getLogger(AcceptAction.class.getName());
+
+    private final Window owner;
+    private final URL splashResource;
+    private final Supplier<Hl7Result<T>> task;
+    private final Consumer<Hl7Result<T>> onResult;
+
+    public AcceptAction(
+            String name,
+            Window owner,
+            URL splashResource,
+            Supplier<Hl7Result<T>> task,
+            Consumer<Hl7Result<T>> onResult
+    ) {
+        super(name);
+        this.owner = Objects.requireNonNull(owner);
+        this.splashResource = splashResource;
+        this.task = Objects.requireNonNull(task);
+        this.onResult = Objects.requireNonNull(onResult);
+    }
+
+    @Override
+    public void actionPerformed(java.awt.event.ActionEvent e) {
+
+        setEnabled(false);
+
+        SplashController splash = new SplashController(owner);
+        splash.show(splashResource);
+
+        // Fuera del EDT: executor de transacciones (hilos virtuales si el JDK los soporta).
+        // SwingWorker limita a 10 hilos compartidos con cualquier otra tarea de fondo.
+        TransactionExecutors.shared().execute(() -> {
+            Hl7Result<T> result;
+            try {
+                // Hay un usuario esperando: prioridad sobre batch en la cuota del backend
+                result = RequestPriority.INTERACTIVE.call(task);
+            } catch (Throwable ex) {
+                // También Error (NoClassDefFoundError, OutOfMemoryError...): el splash no puede
+                // quedar abierto ni la acción deshabilitada
+                LOGGER.log(Level.SEVERE, "Falló la tarea de " + getValue(NAME), ex);
+                result = Hl7Result.error(
+                        Hl7Error.technical(
+                                ex.getMessage() != null
+                                        ? ex.getMessage()
+                                        : "Error técnico inesperado",
+                                Hl7ErrorOrigin.TRANSPORTE
+                        )
+                );
+            }
+
+            Hl7Result<T> finalResult = result;
+            SwingUtilities.invokeLater(() -> {
+                splash.close();
+                setEnabled(true);
+                onResult.accept(finalResult);
+            });
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.hl7client.ui.util;
+
+import com.hl7client.model.catalog.BenefitCatalog;
+import com.hl7client.model.catalog.BenefitCatalogEntry;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Autocompletado de códigos de prestación sobre un {@link JTextField},
+ * usando el catálogo local (prefijo de código o descripción aproximada).
+ * <p>
+ * Flechas para navegar, ENTER para elegir, ESC para cerrar.
+ */
+public final class BenefitCodeAutocomplete {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final JTextField field;
+    private final BenefitCatalog catalog;
+    private final Predicate<BenefitCatalogEntry> filter;
+
+    private final JPopupMenu popup = new JPopupMenu();
+    private final DefaultListModel<BenefitCatalogEntry> model = new DefaultListModel<>();
+    private final JList<BenefitCatalogEntry> list = new JList<>(model);
+
+    private boolean selecting;   // evita reabrir el popup al escribir la selección
+
+    private BenefitCodeAutocomplete(
+            JTextField field,
+            BenefitCatalog catalog,
+            Predicate<BenefitCatalogEntry> filter
+    ) {
+        this.field = field;
+        this.catalog = catalog;
+        this.filter = filter;
+    }
+
+    /**
+     * Instala el autocompletado. No hace nada si el catálogo está vacío.
+     */
+    public static void install(
+            JTextField field,
+            BenefitCatalog catalog,
+            Predicate<BenefitCatalogEntry> filter
+    ) {
+        if (catalog == null || catalog.isEmpty()) {
+            return;
+        }
+        new BenefitCodeAutocomplete(field, catalog, filter).init();
+    }
+
+    private void init() {
+        list.setFocusable(false);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                choose();
+            }
+        });
+
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(list));
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { refreshLater(); }
+            @Override public void removeUpdate(DocumentEvent e) { refreshLater(); }
+            @Override public void changedUpdate(DocumentEvent e) { refreshLater(); }
+        });
+
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) return;
+
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        move(1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        move(-1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (list.getSelectedIndex() >= 0) {
+                            choose();
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+    }
+
+    private void refreshLater() {
+        // El documento no puede leerse/modificarse dentro del propio evento
+        SwingUtilities.invokeLater(this::refresh);
+    }
+
+    private void refresh() {
+        if (selecting || !field.isShowing()) {
+            return;
+        }
+
+        String text = field.getText().trim();
+        model.clear();
+
+        if (!text.isEmpty()) {
+            List<BenefitCatalogEntry> matches = catalog.search(text, MAX_SUGGESTIONS * 2);
+            for (BenefitCatalogEntry entry : matches) {
+                if (model.size() == MAX_SUGGESTIONS) break;
+                // El código exacto ya está escrito: no hace falta sugerir
+                if (filter.test(entry) && !entry.getCode().equals(text)) {
+                    model.addElement(entry);
+                }
+            }
+        }
+
+        if (model.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        list.setVisibleRowCount(model.size());
+        list.clearSelection();
+        popup.pack();
+        popup.show(field, 0, field.getHeight());
+    }
+
+    private void move(int delta) {
+        int next = Math.max(0, Math.min(model.size() - 1, list.getSelectedIndex() + delta));
+        list.setSelectedIndex(next);
+        list.ensureIndexIsVisible(next);
+    }
+
+    private void choose() {
+        BenefitCatalogEntry entry = list.getSelectedValue();
+        if (entry == null) return;
+
+        selecting = true;
+        try {
+            field.setText(entry.getCode());
+        } finally {
+            SwingUtilities.invokeLater(() -> selecting = false);
+        }
+        popup.setVisible(false);
+    }
+}
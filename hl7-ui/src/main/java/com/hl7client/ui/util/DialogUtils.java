@@ -1,6 +1,10 @@
 package com.hl7client.ui.util;
 
+import com.github.lgooddatepicker.components.DatePicker;
+
 import javax.swing.*;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
@@ -50,4 +54,28 @@ public final class DialogUtils {
             }
         };
     }
+
+    /**
+     * Limpia los campos editables de un formulario (para reutilizar un diálogo):
+     * textos habilitados y editables, date pickers y combos.
+     * Los campos deshabilitados (valores fijos) no se tocan.
+     */
+    public static void clearInputs(Container root) {
+        for (Component c : root.getComponents()) {
+            if (c instanceof DatePicker) {
+                ((DatePicker) c).clear();
+            } else if (c instanceof JTextComponent) {
+                JTextComponent text = (JTextComponent) c;
+                if (text.isEnabled() && text.isEditable()) {
+                    text.setText("");
+                }
+            } else if (c instanceof JComboBox) {
+                if (c.isEnabled()) {
+                    ((JComboBox<?>) c).setSelectedItem(null);
+                }
+            } else if (c instanceof Container) {
+                clearInputs((Container) c);
+            }
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package com.hl7client.ui.util;
+
+import com.hl7client.client.RequestPriority;
+import com.hl7client.client.TransactionExecutors;
+import com.hl7client.controller.Hl7Controller;
+import com.hl7client.model.dto.request.hl7.ElegibilidadRequest;
+import com.hl7client.model.dto.response.hl7.ElegibilidadResponse;
+import com.hl7client.model.result.Hl7Result;
+import com.hl7client.util.PropertiesUtil;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Consulta de elegibilidad anticipada sobre el campo de credencial.
+ * <p>
+ * Cuando el campo tiene una credencial completa (solo dígitos y la longitud de
+ * {@code registracion.prefetch.creden.length}; pausa al tipear o al salir del campo) se
+ * consulta la elegibilidad en segundo plano, mientras el usuario sigue cargando el resto.
+ * Un prefijo a medio tipear nunca se consulta: el backend lo rechazaría.
+ * El resultado se entrega en el EDT para mostrar afiliado y plan antes de enviar, y de paso
+ * deja caliente la conexión del pool y los (de)serializadores para la transacción final.
+ * <p>
+ * Solo se entrega el resultado de la credencial vigente (la que sigue en el campo al llegar
+ * la respuesta); si el campo cambia, se descarta lo anterior y se informa {@code null}. Se desactiva con
+ * {@code registracion.prefetch.elegibilidad=false}.
+ */
+public final class ElegibilidadPrefetch {
+
+    private static final Logger LOGGER = Logger.getLogger(ElegibilidadPrefetch.class.getName());
+
+    private static final int DEBOUNCE_MS = 600;
+    private static final String MODO = "N";
+    private static final int DEFAULT_CREDEN_LENGTH = 13;
+
+    private final JTextField field;
+    private final Hl7Controller hl7Controller;
+    private final Consumer<Hl7Result<ElegibilidadResponse>> onResult;
+    private final Timer debounce;
+
+    // Solo en el EDT
+    private String requested;    // credencial consultada o en vuelo
+    private int generation;      // invalida resultados de credenciales anteriores
+
+    private ElegibilidadPrefetch(
+            JTextField field,
+            Hl7Controller hl7Controller,
+            Consumer<Hl7Result<ElegibilidadResponse>> onResult
+    ) {
+        this.field = field;
+        this.hl7Controller = hl7Controller;
+        this.onResult = onResult;
+        this.debounce = new Timer(DEBOUNCE_MS, e -> prefetch());
+        this.debounce.setRepeats(false);
+    }
+
+    /**
+     * Instala la consulta anticipada.
+     *
+     * @param onResult recibe en el EDT el resultado de la credencial vigente,
+     *                 o {@code null} cuando la credencial cambió y el dato anterior ya no aplica
+     */
+    public static ElegibilidadPrefetch install(
+            JTextField field,
+            Hl7Controller hl7Controller,
+            Consumer<Hl7Result<ElegibilidadResponse>> onResult
+    ) {
+        ElegibilidadPrefetch prefetch = new ElegibilidadPrefetch(field, hl7Controller, onResult);
+        prefetch.init();
+        return prefetch;
+    }
+
+    private void init() {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                changed();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                changed();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                changed();
+            }
+        });
+
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                debounce.stop();
+                prefetch();
+            }
+        });
+    }
+
+    /**
+     * Olvida la credencial consultada (por ejemplo, al reutilizar el diálogo).
+     */
+    public void reset() {
+        debounce.stop();
+        requested = null;
+        generation++;
+    }
+
+    // ---------- Internos ----------
+
+    private void changed() {
+        if (requested != null && !requested.equals(field.getText().trim())) {
+            requested = null;
+            generation++;
+            onResult.accept(null);
+        }
+        debounce.restart();
+    }
+
+    private void prefetch() {
+        String creden = field.getText().trim();
+        if (!isComplete(creden) || creden.equals(requested)
+                || !PropertiesUtil.getBoolean("registracion.prefetch.elegibilidad", true)) {
+            return;
+        }
+
+        ElegibilidadRequest request;
+        try {
+            request = ElegibilidadRequest.builder()
+                    .modo(MODO)
+                    .creden(creden)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            // Credencial incompleta o inválida: se valida de nuevo al aceptar
+            return;
+        }
+
+        requested = creden;
+        int current = ++generation;
+
+        // Prioridad normal: no compite con las transacciones que el usuario ya confirmó
+        TransactionExecutors.shared().execute(() -> {
+            Hl7Result<ElegibilidadResponse> result;
+            try {
+                result = RequestPriority.NORMAL.call(() -> hl7Controller.consultarElegibilidad(request));
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Elegibilidad anticipada fallida", e);
+                // Sin olvidar la credencial, la misma no se volvería a consultar hasta cambiarla
+                SwingUtilities.invokeLater(() -> {
+                    if (current == generation) {
+                        requested = null;
+                    }
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                // Nunca mostrar el resultado (en especial un rechazo) de un valor ya cambiado
+                if (current == generation && creden.equals(field.getText().trim())) {
+                    onResult.accept(result);
+                }
+            });
+        });
+    }
+
+    /**
+     * Credencial con la longitud completa y solo dígitos.
+     */
+    private static boolean isComplete(String creden) {
+        int length = PropertiesUtil.getInt("registracion.prefetch.creden.length", DEFAULT_CREDEN_LENGTH);
+        if (creden.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < creden.length(); i++) {
+            char c = creden.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hl7client.ui.util;
+
+import javax.swing.*;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Diálogo construido al primer uso.
+ * <p>
+ * Con reutilización activa se conserva la instancia (componentes, date pickers, modelos)
+ * y cada apertura posterior solo limpia el formulario; sin reutilización se construye
+ * una instancia nueva por apertura, como antes.
+ */
+public final class LazyDialog<T extends JDialog & ReusableDialog> {
+
+    private final Supplier<T> factory;
+    private final boolean reuse;
+    private T instance;
+
+    public LazyDialog(Supplier<T> factory, boolean reuse) {
+        this.factory = Objects.requireNonNull(factory);
+        this.reuse = reuse;
+    }
+
+    /**
+     * Instancia lista para mostrar. Debe llamarse en el EDT.
+     */
+    public T get() {
+        if (!reuse) {
+            return factory.get();
+        }
+        if (instance == null) {
+            instance = factory.get();
+        } else {
+            instance.prepareForReuse();
+        }
+        return instance;
+    }
+
+    /**
+     * Libera la instancia conservada (al cerrar la ventana dueña).
+     */
+    public void dispose() {
+        if (instance != null) {
+            instance.dispose();
+            instance = null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hl7client.ui.util;
+
+/**
+ * Diálogo que se puede volver a mostrar después de cerrado (ver {@link LazyDialog}).
+ */
+public interface ReusableDialog {
+
+    /**
+     * Deja el formulario como recién construido (campos vacíos, sin prestaciones).
+     * Se invoca en el EDT, antes de volver a mostrar el diálogo.
+     */
+    void prepareForReuse();
+}